@@ -0,0 +1,49 @@
+package cpu;
+
+// Petits programmes en boucle pour les benchmarks : chacun se termine par un BRA
+// vers son début, le CPU peut donc tourner indéfiniment sans s'arrêter.
+final class BenchPrograms {
+
+    static final int ORIGIN = 0x8000;
+    static final int STACK = 0x7000;
+
+    private BenchPrograms() {
+    }
+
+    // Une boucle par classe d'opcodes (BRA de retour compris)
+    static int[] forClass(String opcodeClass) {
+        return switch (opcodeClass) {
+            case "arith" -> loop(0x4C, 0x8B, 0x01, 0x80, 0x01, 0xCB, 0x03, 0x4A);  // INCA ADDA SUBA ADDB DECA
+            case "logic" -> loop(0x88, 0x55, 0x8A, 0x01, 0x4F, 0x12);              // EORA ORA CLRA NOP
+            case "load_store" -> loop(0x86, 0x42, 0x97, 0x10, 0x86, 0x24, 0x97, 0x11); // LDA STA LDA STA
+            case "stack" -> loop(0x34, 0x06, 0x35, 0x06, 0x34, 0x76, 0x35, 0x76);  // PSHS/PULS
+            case "transfer" -> loop(0x1F, 0x89, 0x1E, 0x89, 0x1F, 0x98);           // TFR EXG TFR
+            case "mul" -> loop(0x3D, 0x3D, 0x3D);                                 // MUL
+            case "indexed" -> loop(0x30, 0x01, 0x30, 0x1F, 0x30, 0x02);           // LEAX n,X
+            default -> throw new IllegalArgumentException("Classe d'opcodes inconnue : " + opcodeClass);
+        };
+    }
+
+    // Mélange d'instructions représentatif (arithmétique, mémoire, pile, MUL, branchement)
+    static int[] mix() {
+        return loop(0x4C, 0xCB, 0x03, 0x88, 0x55, 0x97, 0x10, 0x34, 0x02, 0x35, 0x04, 0x3D);
+    }
+
+    // Ajoute le BRA qui reboucle sur le début
+    private static int[] loop(int... body) {
+        int[] program = new int[body.length + 2];
+        System.arraycopy(body, 0, program, 0, body.length);
+        program[body.length] = 0x20;
+        program[body.length + 1] = (-(body.length + 2)) & 0xFF;
+        return program;
+    }
+
+    // CPU prêt à exécuter le programme en ORIGIN
+    static CPU load(String engine, int[] program) {
+        CPU cpu = new CPU(ExecutionEngine.forName(engine));
+        for (int i = 0; i < program.length; i++) cpu.writeByte(ORIGIN + i, program[i]);
+        cpu.reg.PC = ORIGIN;
+        cpu.reg.SP = STACK;
+        return cpu;
+    }
+}
@@ -0,0 +1,65 @@
+package cpu;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Flags paresseux : enregistrement seul (le cas courant), ou suivi d'une lecture de CC
+// qui force leur calcul (branchement conditionnel, PSHS CC, affichage)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlagsBenchmark {
+
+    private static final int OPS = 256;
+
+    private CPU cpu;
+
+    @Setup
+    public void setup() {
+        cpu = new CPU();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int addRecordOnly() {
+        for (int i = 0; i < OPS; i++) InstructionSet.adda(cpu, i);
+        return cpu.reg.A;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int addThenReadCC() {
+        int cc = 0;
+        for (int i = 0; i < OPS; i++) {
+            InstructionSet.adda(cpu, i);
+            cc += cpu.reg.getCC();
+        }
+        return cc;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int subThenReadCC() {
+        int cc = 0;
+        for (int i = 0; i < OPS; i++) {
+            InstructionSet.suba(cpu, i);
+            cc += cpu.reg.getCC();
+        }
+        return cc;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int nzThenReadCC() {
+        int cc = 0;
+        for (int i = 0; i < OPS; i++) {
+            InstructionSet.lda(cpu, i);
+            cc += cpu.reg.getCC();
+        }
+        return cc;
+    }
+}
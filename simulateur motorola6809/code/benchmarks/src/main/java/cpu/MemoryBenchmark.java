@@ -0,0 +1,66 @@
+package cpu;
+
+import device.Keyboard6809;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Accès mémoire du CPU : RAM (chemin rapide), ROM (écriture ignorée, chemin lent)
+// et registres du clavier branchés sur le bus (périphérique)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryBenchmark {
+
+    private static final int ACCESSES = 256;
+    private static final int RAM = 0x1000;
+    private static final int ROM = 0xE000;
+
+    private CPU cpu;
+
+    @Setup
+    public void setup() {
+        cpu = new CPU();
+        cpu.mem.mapRom(ROM, ROM + 0xFF);
+        cpu.attachKeyboard(new Keyboard6809(cpu));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int readRam() {
+        int sum = 0;
+        for (int i = 0; i < ACCESSES; i++) sum += cpu.readByte(RAM + i);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public void writeRam() {
+        for (int i = 0; i < ACCESSES; i++) cpu.writeByte(RAM + i, i);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public void writeRom() {
+        for (int i = 0; i < ACCESSES; i++) cpu.writeByte(ROM + i, i);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int readKeyboard() {
+        int sum = 0;
+        for (int i = 0; i < ACCESSES; i++) sum += cpu.readByte((i & 1) == 0 ? Keyboard6809.STATUS : Keyboard6809.DATA);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int readWord() {
+        int sum = 0;
+        for (int i = 0; i < ACCESSES; i++) sum += cpu.readWord(RAM + i);
+        return sum;
+    }
+}
@@ -0,0 +1,37 @@
+package cpu;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Programme complet exécuté par CPU.run() sur chaque moteur (instructions émulées par seconde)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgramBenchmark {
+
+    private static final int BUDGET = 100_000;
+
+    @Param({"table", "switch", "block", "recompiler"})
+    public String engine;
+
+    @Param({"mix", "stack", "mul"})
+    public String program;
+
+    private CPU cpu;
+
+    @Setup
+    public void setup() {
+        int[] code = program.equals("mix") ? BenchPrograms.mix() : BenchPrograms.forClass(program);
+        cpu = BenchPrograms.load(engine, code);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BUDGET)
+    public StopReason run() {
+        return cpu.run(BUDGET);
+    }
+}
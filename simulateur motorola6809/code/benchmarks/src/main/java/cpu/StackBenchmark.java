@@ -0,0 +1,49 @@
+package cpu;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Empilement/dépilement multiple (PSHS/PULS) et prise d'IRQ (empilement de l'état complet)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+
+    private CPU cpu;
+
+    @Setup
+    public void setup() {
+        cpu = BenchPrograms.load("table", BenchPrograms.forClass("logic"));
+        cpu.writeWord(0xFFF8, BenchPrograms.ORIGIN); // vecteur IRQ
+    }
+
+    // Registres 8 bits seulement : CC, A, B, DP
+    @Benchmark
+    public int pushPull8() {
+        cpu.pushMultiple(0x0F);
+        cpu.pullMultiple(0x0F);
+        return cpu.reg.SP;
+    }
+
+    // Tous les registres (12 octets)
+    @Benchmark
+    public int pushPullAll() {
+        cpu.pushMultiple(0xFF);
+        cpu.pullMultiple(0xFF);
+        return cpu.reg.SP;
+    }
+
+    // IRQ demandée puis prise par step() (handleIRQ) ; la pile et I sont remis à chaque fois
+    @Benchmark
+    public int irq() {
+        cpu.triggerIRQ();
+        cpu.step();
+        cpu.reg.SP = BenchPrograms.STACK;
+        cpu.reg.setCC(0);
+        return cpu.reg.PC;
+    }
+}
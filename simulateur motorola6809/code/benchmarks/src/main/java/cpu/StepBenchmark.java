@@ -0,0 +1,37 @@
+package cpu;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Débit de CPU.step() par classe d'opcodes (instructions émulées par seconde)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepBenchmark {
+
+    private static final int STEPS = 1000;
+
+    @Param({"arith", "logic", "load_store", "stack", "transfer", "mul", "indexed"})
+    public String opcodeClass;
+
+    @Param({"table", "switch"})
+    public String engine;
+
+    private CPU cpu;
+
+    @Setup
+    public void setup() {
+        cpu = BenchPrograms.load(engine, BenchPrograms.forClass(opcodeClass));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public int step() {
+        for (int i = 0; i < STEPS; i++) cpu.step();
+        return cpu.reg.A;
+    }
+}
@@ -0,0 +1,52 @@
+* Arithmetique BCD : suite de Fibonacci sur 16 chiffres decimaux (8 octets
+* BCD compactes, octet fort en premier) par ADCA + DAA. 71 termes, 50 passes.
+* Resultat : F(71) = 308061521170129 dans FB.
+
+DIGITS  EQU     8               ; octets par nombre
+
+        ORG     $1000
+START   LDS     #$0F00
+        LDA     #50
+        STA     PASSES
+
+PASS    LEAX    FC,PCR          ; FC, FA, FB a zero (contigus)
+        LDB     #3*DIGITS
+CLEAR   CLR     ,X+
+        DECB
+        BNE     CLEAR
+        LDA     #1
+        STA     FB+DIGITS-1     ; FA = F(0) = 0, FB = F(1) = 1
+        LDA     #70
+        STA     TERMS
+        LDX     #FA
+        LDY     #FB
+        LDU     #FC
+
+TERM    ANDCC   #$FE            ; FC = FA + FB, du dernier octet au premier
+        LDB     #DIGITS-1
+ADD     LDA     B,X
+        ADCA    B,Y
+        DAA
+        STA     B,U
+        DECB
+        BPL     ADD
+
+        LDB     #DIGITS-1       ; FA = FB, FB = FC
+SHIFT   LDA     B,Y
+        STA     B,X
+        LDA     B,U
+        STA     B,Y
+        DECB
+        BPL     SHIFT
+
+        DEC     TERMS
+        BNE     TERM
+        DEC     PASSES
+        BNE     PASS
+        SYNC
+
+PASSES  RMB     1
+TERMS   RMB     1
+FC      RMB     DIGITS
+FA      RMB     DIGITS
+FB      RMB     DIGITS
@@ -0,0 +1,89 @@
+* CRC-16/CCITT (polynome $1021, init $FFFF) et CRC-32 (polynome reflechi
+* $EDB88320, init et xor final $FFFFFFFF) sur 1 Ko de donnees pseudo-aleatoires.
+* Les deux sommes sont recalculees 8 fois ; resultats dans CRC16R et CRC32R.
+
+DATA    EQU     $2000
+LEN     EQU     1024
+C0      EQU     $0040           ; CRC-32 en page directe, C0 = octet fort
+C1      EQU     $0041
+C2      EQU     $0042
+C3      EQU     $0043
+SEED    EQU     $0044
+PASSES  EQU     $0045
+
+        ORG     $1000
+START   LDS     #$0F00
+        CLR     <SEED           ; donnees : s = s * 5 + $3B (mod 256)
+        LDX     #DATA
+GEN     LDA     <SEED
+        LDB     #5
+        MUL
+        ADDB    #$3B
+        STB     <SEED
+        STB     ,X+
+        CMPX    #DATA+LEN
+        BNE     GEN
+        LDA     #8
+        STA     <PASSES
+
+PASS    LDX     #DATA           ; ----- CRC-16, D = crc -----
+        LDD     #$FFFF
+C16B    EORA    ,X+
+        LDY     #8
+C16L    LSLB
+        ROLA
+        BCC     C16N
+        EORA    #$10
+        EORB    #$21
+C16N    LEAY    -1,Y
+        BNE     C16L
+        CMPX    #DATA+LEN
+        BNE     C16B
+        STD     CRC16R
+
+        LDA     #$FF            ; ----- CRC-32, octet par octet, bit par bit -----
+        STA     <C0
+        STA     <C1
+        STA     <C2
+        STA     <C3
+        LDX     #DATA
+C32B    LDA     ,X+
+        EORA    <C3
+        STA     <C3
+        LDB     #8
+C32L    LSR     <C0
+        ROR     <C1
+        ROR     <C2
+        ROR     <C3
+        BCC     C32N
+        LDA     <C0
+        EORA    #$ED
+        STA     <C0
+        LDA     <C1
+        EORA    #$B8
+        STA     <C1
+        LDA     <C2
+        EORA    #$83
+        STA     <C2
+        LDA     <C3
+        EORA    #$20
+        STA     <C3
+C32N    DECB
+        BNE     C32L
+        CMPX    #DATA+LEN
+        BNE     C32B
+        COM     <C0             ; xor final
+        COM     <C1
+        COM     <C2
+        COM     <C3
+        LDD     <C0
+        STD     CRC32R
+        LDD     <C2
+        STD     CRC32R+2
+
+        DEC     <PASSES
+        BNE     PASS
+        SYNC
+
+CRC16R  RMB     2
+CRC32R  RMB     4
@@ -0,0 +1,36 @@
+* Echo clavier sous interruption : le programme principal attend en SYNC,
+* la routine IRQ lit le clavier ($FF00/$FF01), passe les minuscules en
+* majuscules et range chaque caractere dans OUTBUF. COUNT = caracteres recus.
+
+KBDATA  EQU     $FF00
+KBSTAT  EQU     $FF01
+IRQVEC  EQU     $FFF8
+
+        ORG     $1000
+START   LDS     #$0F00
+        LDX     #OUTBUF
+        STX     OUTPTR
+        CLR     COUNT
+        LDX     #ISR
+        STX     IRQVEC
+        ANDCC   #$EF            ; IRQ autorisees
+WAIT    SYNC
+        BRA     WAIT
+
+ISR     LDA     KBSTAT
+        BEQ     IDONE
+        LDA     KBDATA
+        CMPA    #'a
+        BLO     STORE
+        CMPA    #'z
+        BHI     STORE
+        SUBA    #'a-'A
+STORE   LDX     OUTPTR
+        STA     ,X+
+        STX     OUTPTR
+        INC     COUNT
+IDONE   RTI
+
+OUTPTR  RMB     2
+COUNT   RMB     1
+OUTBUF  RMB     64
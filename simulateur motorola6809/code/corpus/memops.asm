@@ -0,0 +1,51 @@
+* memset / memcpy sur des blocs de 4 Ko, 16 passes :
+* - memset 16 bits (STD) de $3000-$3FFF avec $A55A ;
+* - remplissage de la source $2000-$2FFF par une rampe ;
+* - memcpy octet par octet de la source vers $4000 ;
+* - memcpy par pile utilisateur (PULU D,X) de la source vers $5000.
+
+SRC     EQU     $2000
+DST1    EQU     $4000
+DST2    EQU     $5000
+FILL    EQU     $3000
+LEN     EQU     4096
+
+        ORG     $1000
+START   LDS     #$0F00
+        LDA     #16
+        STA     PASSES
+
+PASS    LDX     #FILL           ; memset 16 bits
+        LDD     #$A55A
+SET     STD     ,X++
+        CMPX    #FILL+LEN
+        BNE     SET
+
+        LDX     #SRC            ; rampe, decalee a chaque passe
+        LDB     PASSES
+RAMP    STB     ,X+
+        INCB
+        CMPX    #SRC+LEN
+        BNE     RAMP
+
+        LDX     #SRC            ; memcpy octet par octet
+        LDY     #DST1
+COPY1   LDA     ,X+
+        STA     ,Y+
+        CMPX    #SRC+LEN
+        BNE     COPY1
+
+        LDU     #SRC            ; memcpy 4 octets a la fois, lecture par PULU
+        LDY     #DST2
+COPY2   PULU    D,X
+        STD     ,Y
+        STX     2,Y
+        LEAY    4,Y
+        CMPU    #SRC+LEN
+        BNE     COPY2
+
+        DEC     PASSES
+        BNE     PASS
+        SYNC
+
+PASSES  RMB     1
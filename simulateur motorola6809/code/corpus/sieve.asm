@@ -0,0 +1,50 @@
+* Crible d'Eratosthene (benchmark BYTE) : 8190 drapeaux, 10 passes.
+* Resultat : nombre de premiers dans COUNT (1899), octet bas sur le port de sortie.
+
+SIZE    EQU     8190
+FLAGS   EQU     $2000
+EXIT    EQU     $FF10           ; port de sortie du runner
+
+        ORG     $1000
+START   LDS     #$0F00
+        LDA     #10
+        STA     ITER
+OUTER   LDX     #FLAGS          ; tous les drapeaux a 1
+        LDA     #1
+INIT    STA     ,X+
+        CMPX    #FLAGS+SIZE+1
+        BNE     INIT
+        LDD     #0
+        STD     COUNT
+        LDY     #FLAGS          ; Y = &flags[i]
+ILOOP   TST     ,Y
+        BEQ     NEXT
+        TFR     Y,D
+        SUBD    #FLAGS          ; D = i
+        STD     PRIME
+        ADDD    PRIME           ; 2i
+        ADDD    #3              ; premier = 2i + 3
+        STD     PRIME
+        TFR     Y,D
+        ADDD    PRIME           ; D = &flags[i + premier]
+KLOOP   CMPD    #FLAGS+SIZE+1
+        BHS     KDONE
+        TFR     D,X
+        CLR     ,X
+        ADDD    PRIME
+        BRA     KLOOP
+KDONE   LDD     COUNT
+        ADDD    #1
+        STD     COUNT
+NEXT    LEAY    1,Y
+        CMPY    #FLAGS+SIZE+1
+        BNE     ILOOP
+        DEC     ITER
+        BNE     OUTER
+        LDA     COUNT+1
+        STA     EXIT
+        SYNC
+
+ITER    RMB     1
+PRIME   RMB     2
+COUNT   RMB     2
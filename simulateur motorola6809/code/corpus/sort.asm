@@ -0,0 +1,78 @@
+* Tri a bulles de 200 octets puis tri rapide (Lomuto, recursif) de 2048 octets,
+* donnees pseudo-aleatoires s = s * 5 + $3B. Tableaux tries en place.
+
+BUB     EQU     $2000
+BLEN    EQU     200
+QS      EQU     $2100
+QLEN    EQU     2048
+
+        ORG     $1000
+START   LDS     #$0F00
+        CLR     SEED
+        LDX     #BUB            ; donnees des deux tableaux (contigus)
+GEN     LDA     SEED
+        LDB     #5
+        MUL
+        ADDB    #$3B
+        STB     SEED
+        STB     ,X+
+        CMPX    #QS+QLEN
+        BNE     GEN
+
+BOUT    CLR     SWAPPED         ; ----- tri a bulles -----
+        LDX     #BUB
+BIN     LDA     ,X
+        LDB     1,X
+        CMPA    1,X
+        BLS     BOK
+        STB     ,X
+        STA     1,X
+        INC     SWAPPED
+BOK     LEAX    1,X
+        CMPX    #BUB+BLEN-1
+        BNE     BIN
+        TST     SWAPPED
+        BNE     BOUT
+
+        LDX     #QS             ; ----- tri rapide -----
+        LDY     #QS+QLEN-1
+        BSR     QSORT
+        SYNC
+
+* QSORT : trie les octets [X, Y] (bornes incluses)
+QSORT   STY     QTMP
+        CMPX    QTMP
+        BHS     QRET            ; lo >= hi : rien a trier
+        LDA     ,Y              ; pivot = a[hi]
+        STA     PIVOT
+        TFR     X,U             ; i = lo
+        PSHS    X
+QLOOP   STY     QTMP            ; j = X, de lo a hi - 1
+        CMPX    QTMP
+        BHS     QPART
+        LDA     ,X
+        CMPA    PIVOT
+        BHS     QNEXT
+        LDB     ,U              ; echange a[i], a[j]
+        STA     ,U
+        STB     ,X
+        LEAU    1,U
+QNEXT   LEAX    1,X
+        BRA     QLOOP
+QPART   LDA     ,U              ; echange a[i], a[hi]
+        LDB     ,Y
+        STB     ,U
+        STA     ,Y
+        PULS    X               ; X = lo
+        PSHS    U,Y
+        LEAY    -1,U            ; tri de [lo, i - 1]
+        BSR     QSORT
+        PULS    U,Y
+        LEAX    1,U             ; puis de [i + 1, hi]
+        BRA     QSORT
+QRET    RTS
+
+SEED    RMB     1
+SWAPPED RMB     1
+PIVOT   RMB     1
+QTMP    RMB     2
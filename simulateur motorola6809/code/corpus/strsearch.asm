@@ -0,0 +1,72 @@
+* Recherche naive de sous-chaines : texte de 2 Ko sur l'alphabet a-p, tire
+* d'un LFSR 16 bits (Galois, masque $B400, 4 decalages par lettre), 5 motifs.
+* Nombre d'occurrences de chaque motif (16 bits) dans COUNTS.
+
+TEXT    EQU     $2000
+TLEN    EQU     2048
+
+        ORG     $1000
+START   LDS     #$0F00
+        LDD     #$ACE1
+        STD     SEED
+        LDX     #TEXT
+GEN     LDB     #4
+STEP    LSR     SEED
+        ROR     SEED+1
+        BCC     NOTAP
+        LDA     SEED
+        EORA    #$B4
+        STA     SEED
+NOTAP   DECB
+        BNE     STEP
+        LDB     SEED+1
+        ANDB    #$0F
+        ADDB    #'a
+        STB     ,X+
+        CMPX    #TEXT+TLEN
+        BNE     GEN
+        CLR     ,X              ; texte termine par un zero
+
+        LDU     #PATTERNS       ; U = motif courant
+        LDY     #COUNTS
+        STY     CPTR
+NEXTPAT LDD     #0
+        STD     [CPTR]
+        LDX     #TEXT           ; X = position dans le texte
+SPOS    TFR     X,Y             ; Y = texte, U = motif
+        PSHS    U
+SCMP    LDA     ,U+
+        BEQ     FOUND
+        CMPA    ,Y+
+        BEQ     SCMP
+        BRA     MISS
+FOUND   LDD     [CPTR]
+        ADDD    #1
+        STD     [CPTR]
+MISS    PULS    U
+        LEAX    1,X
+        CMPX    #TEXT+TLEN
+        BNE     SPOS
+SKIP    LDA     ,U+             ; motif suivant
+        BNE     SKIP
+        LDY     CPTR
+        LEAY    2,Y
+        STY     CPTR
+        TST     ,U              ; fin de la liste : motif vide
+        BNE     NEXTPAT
+        SYNC
+
+PATTERNS FCC    "ab"
+        FCB     0
+        FCC     "fade"
+        FCB     0
+        FCC     "dog"
+        FCB     0
+        FCC     "k"
+        FCB     0
+        FCC     "he"
+        FCB     0
+        FCB     0
+SEED    RMB     2
+CPTR    RMB     2
+COUNTS  RMB     10
@@ -0,0 +1,214 @@
+package app;
+
+import cpu.CPU;
+import cpu.ExecutionEngine;
+import cpu.StopReason;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+
+ // Exécution sans interface d'un lot de programmes .bin, un CPU par programme,
+ // répartis sur tous les coeurs (ForkJoinPool, vol de tâches). Produit un rapport CSV ou JSON.
+ //
+ // Usage : java app.BatchRunner <dossier|manifeste> [options]
+ //   -o fichier      rapport (.json pour du JSON, sinon CSV ; défaut : sortie standard)
+ //   -j n            nombre de threads (défaut : nombre de coeurs)
+ //   -engine nom     moteur d'exécution (table, switch, block, recompiler)
+ //   -hash deb-fin   zone mémoire hachée en CRC-32, en hexa (défaut : 0000-FFFF)
+ //
+ // Manifeste : une ligne par image, champs séparés par des espaces, # pour un commentaire
+ //   fichier.bin  chargement(hexa)  PC(hexa)  limite
+ // La limite est un nombre d'instructions, ou de cycles avec le suffixe c (ex. 5000000c).
+ // Un dossier : toutes ses images .bin, chargées et lancées en 8000h, limite par défaut.
+ 
+public class BatchRunner {
+
+    private static final int DEFAULT_ADDRESS = 0x8000;
+    private static final long DEFAULT_LIMIT = 10_000_000L;
+    private static final int DEFAULT_SP = 0xFF00;
+
+    // Une image à exécuter
+    record Job(Path file, int load, int entry, long limit, boolean cycles) { }
+
+    // Résultat d'une exécution
+    record Result(Job job, String status, long instructions, long cycles, long wallNanos,
+                  int pc, int a, int b, int x, int y, int u, int s, int dp, int cc,
+                  long hash, String error) { }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage : java app.BatchRunner <dossier|manifeste> [-o rapport] [-j threads] "
+                    + "[-engine nom] [-hash debut-fin]");
+            return;
+        }
+        Path output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String engine = "table";
+        int hashStart = 0x0000, hashEnd = 0xFFFF;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-o" -> output = Path.of(args[++i]);
+                    case "-j" -> threads = Integer.parseInt(args[++i]);
+                    case "-engine" -> engine = args[++i];
+                    case "-hash" -> {
+                        String[] range = args[++i].split("-");
+                        hashStart = Integer.parseInt(range[0], 16);
+                        hashEnd = Integer.parseInt(range[1], 16);
+                    }
+                    default -> throw new IllegalArgumentException("Option inconnue : " + args[i]);
+                }
+            }
+            ExecutionEngine.forName(engine); // nom vérifié avant de lancer le lot
+
+            List<Job> jobs = readJobs(Path.of(args[0]));
+            long start = System.nanoTime();
+            List<Result> results = runAll(jobs, threads, engine, hashStart, hashEnd);
+            long wall = System.nanoTime() - start;
+
+            if (output == null) {
+                writeCsv(results, System.out);
+            } else {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(output), false, "UTF-8")) {
+                    if (output.toString().endsWith(".json")) writeJson(results, out);
+                    else writeCsv(results, out);
+                }
+            }
+
+            long total = results.stream().mapToLong(Result::instructions).sum();
+            System.err.printf("%d images, %d threads, %.1f ms, %.1f MIPS%n",
+                    results.size(), threads, wall / 1e6, total * 1e3 / wall);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("✗ Erreur : " + e.getMessage());
+        }
+    }
+
+    // ===== LECTURE DU LOT =====
+    static List<Job> readJobs(Path source) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> files = Files.list(source)) {
+                files.filter(p -> p.toString().toLowerCase().endsWith(".bin")).sorted()
+                        .forEach(p -> jobs.add(new Job(p, DEFAULT_ADDRESS, DEFAULT_ADDRESS, DEFAULT_LIMIT, false)));
+            }
+            return jobs;
+        }
+
+        Path dir = source.toAbsolutePath().getParent();
+        int lineNo = 0;
+        for (String line : Files.readAllLines(source)) {
+            lineNo++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            String[] f = line.split("\\s+");
+            if (f.length != 4) {
+                throw new IllegalArgumentException("Manifeste ligne " + lineNo + " : 4 champs attendus");
+            }
+            boolean cycles = f[3].endsWith("c") || f[3].endsWith("C");
+            long limit = Long.parseLong(cycles ? f[3].substring(0, f[3].length() - 1) : f[3]);
+            jobs.add(new Job(dir.resolve(f[0]), Integer.parseInt(f[1], 16), Integer.parseInt(f[2], 16),
+                    limit, cycles));
+        }
+        return jobs;
+    }
+
+    // ===== EXECUTION =====
+    static List<Result> runAll(List<Job> jobs, int threads, String engine, int hashStart, int hashEnd) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<Callable<Result>> tasks = new ArrayList<>();
+            for (Job job : jobs) tasks.add(() -> run(job, engine, hashStart, hashEnd));
+
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> f : pool.invokeAll(tasks)) {
+                try {
+                    results.add(f.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Exécute une image sur son propre CPU
+    static Result run(Job job, String engine, int hashStart, int hashEnd) {
+        long start = System.nanoTime();
+        CPU cpu = new CPU(ExecutionEngine.forName(engine));
+        String status;
+        String error = "";
+        try {
+            byte[] image = Files.readAllBytes(job.file());
+            cpu.mem.load(job.load(), image, 0, image.length);
+            cpu.reg.PC = job.entry();
+            cpu.reg.SP = DEFAULT_SP;
+            StopReason reason = job.cycles() ? cpu.runCycles(job.limit()) : cpu.run(job.limit());
+            status = reason.name();
+        } catch (IOException | RuntimeException e) {
+            status = "ERROR";
+            error = e.getClass().getSimpleName() + " : " + e.getMessage();
+        }
+        long wall = System.nanoTime() - start;
+
+        CRC32 crc = new CRC32();
+        for (int a = hashStart; a <= hashEnd; a++) crc.update(cpu.peekByte(a));
+
+        return new Result(job, status, cpu.getInstructionsExecuted(), cpu.getCycles(), wall,
+                cpu.reg.PC, cpu.reg.A, cpu.reg.B, cpu.reg.X, cpu.reg.Y, cpu.reg.U, cpu.reg.SP,
+                cpu.reg.DP, cpu.reg.getCC(), crc.getValue(), error);
+    }
+
+    // ===== RAPPORTS =====
+    static void writeCsv(List<Result> results, PrintStream out) {
+        out.println("image,status,instructions,cycles,wall_us,pc,a,b,x,y,u,s,dp,cc,crc32,error");
+        for (Result r : results) {
+            out.printf("%s,%s,%d,%d,%d,%04X,%02X,%02X,%04X,%04X,%04X,%04X,%02X,%02X,%08X,%s%n",
+                    csv(r.job().file().getFileName().toString()), r.status(), r.instructions(), r.cycles(),
+                    r.wallNanos() / 1000, r.pc(), r.a(), r.b(), r.x(), r.y(), r.u(), r.s(), r.dp(), r.cc(),
+                    r.hash(), csv(r.error()));
+        }
+    }
+
+    static void writeJson(List<Result> results, PrintStream out) {
+        out.println("[");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            out.printf("  {\"image\": \"%s\", \"status\": \"%s\", \"instructions\": %d, \"cycles\": %d, "
+                            + "\"wall_us\": %d, \"registers\": {\"pc\": \"%04X\", \"a\": \"%02X\", \"b\": \"%02X\", "
+                            + "\"x\": \"%04X\", \"y\": \"%04X\", \"u\": \"%04X\", \"s\": \"%04X\", \"dp\": \"%02X\", "
+                            + "\"cc\": \"%02X\"}, \"crc32\": \"%08X\", \"error\": \"%s\"}%s%n",
+                    json(r.job().file().getFileName().toString()), r.status(), r.instructions(), r.cycles(),
+                    r.wallNanos() / 1000, r.pc(), r.a(), r.b(), r.x(), r.y(), r.u(), r.s(), r.dp(), r.cc(),
+                    r.hash(), json(r.error()), i < results.size() - 1 ? "," : "");
+        }
+        out.println("]");
+    }
+
+    private static String csv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -15,22 +15,29 @@ public class BinaryLoader {
      
     public static void loadFileIntoMemory(File file, Memory mem, int baseAddress) throws IOException {
 
+        int length = loadImage(file, mem, baseAddress);
+
+        // Affichage d'information de chargement
+        System.out.printf(
+            "Chargé %d octets à partir de %04Xh%n",
+            length,
+            baseAddress
+        );
+    }
+
+    
+     // Même chargement, sans message (exécutions répétées, bancs d'essai). Retourne la taille de l'image.
+     
+    public static int loadImage(File file, Memory mem, int baseAddress) throws IOException {
+
         // Lecture du fichier binaire
         try (FileInputStream fis = new FileInputStream(file)) {
 
             byte[] buffer = fis.readAllBytes();
 
-            // Copie des octets en mémoire de façon séquentielle
-            for (int i = 0; i < buffer.length; i++) {
-                mem.writeByte(baseAddress + i, buffer[i]);
-            }
-
-            // Affichage d'information de chargement
-            System.out.printf(
-                "Chargé %d octets à partir de %04Xh%n",
-                buffer.length,
-                baseAddress
-            );
+            // Copie de l'image en mémoire, page par page
+            mem.load(baseAddress, buffer, 0, buffer.length);
+            return buffer.length;
         }
     }
 
@@ -0,0 +1,182 @@
+package app;
+
+import cpu.CPU;
+import cpu.ExecutionEngine;
+import cpu.Memory;
+import cpu.StopReason;
+import device.Keyboard6809;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+
+ // Banc d'essai sur un corpus de vrais programmes 6809 (dossier corpus : sources .asm et images .bin).
+ // Chaque image est chargée par BinaryLoader puis exécutée jusqu'à son SYNC final, ou jusqu'à
+ // une écriture sur le port de sortie ($FF10). Pour chaque programme le rapport donne la vitesse
+ // (MHz émulés, ns hôte par instruction) et le CRC-32 de la zone mémoire finale, comparé à la
+ // valeur attendue du manifeste : exactitude et vitesse sont suivies ensemble.
+ //
+ // Usage : java app.CorpusRunner [manifeste] [options]
+ //   -engine nom     moteur d'exécution (table, switch, block, recompiler ; défaut : table)
+ //   -repeat n       exécutions par programme, la plus rapide est retenue (défaut : 5)
+ //
+ // Manifeste (défaut : corpus/corpus.txt) : une ligne par programme, # pour un commentaire
+ //   fichier.bin  chargement(hexa)  PC(hexa)  limite  zone(hexa deb-fin)  crc32(hexa)  [saisie]
+ // La saisie (reste de la ligne) est tapée au clavier, une touche par IRQ, chaque fois
+ // que le programme attend en SYNC. Code de sortie 1 si un programme échoue.
+ 
+public class CorpusRunner {
+
+    public static final int EXIT_PORT = 0xFF10;
+    private static final int DEFAULT_SP = 0xFF00;
+
+    // Un programme du corpus
+    record Program(Path file, int load, int entry, long limit, int start, int end, long expected, String input) { }
+
+    // Résultat d'un programme (meilleur temps sur les répétitions)
+    record Result(Program program, String status, long instructions, long cycles, long nanos, long crc) {
+
+        boolean ok() {
+            return (status.equals("SYNC") || status.startsWith("EXIT")) && crc == program.expected();
+        }
+    }
+
+    public static void main(String[] args) {
+        Path manifest = Path.of("corpus", "corpus.txt");
+        String engine = "table";
+        int repeat = 5;
+        boolean failed = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-engine" -> engine = args[++i];
+                    case "-repeat" -> repeat = Math.max(1, Integer.parseInt(args[++i]));
+                    default -> {
+                        if (args[i].startsWith("-")) throw new IllegalArgumentException("Option inconnue : " + args[i]);
+                        manifest = Path.of(args[i]);
+                    }
+                }
+            }
+            ExecutionEngine.forName(engine); // nom vérifié avant de lancer le corpus
+
+            System.out.printf("Moteur %s, meilleur temps sur %d exécutions%n", engine, repeat);
+            System.out.printf("%-14s %-8s %12s %12s %9s %9s %9s  %s%n",
+                    "programme", "statut", "instructions", "cycles", "MHz", "ns/instr", "crc32", "");
+            long instructions = 0, cycles = 0, nanos = 0;
+            for (Program program : readManifest(manifest)) {
+                Result r = runBest(program, engine, repeat);
+                failed |= !r.ok();
+                instructions += r.instructions();
+                cycles += r.cycles();
+                nanos += r.nanos();
+                System.out.printf("%-14s %-8s %12d %12d %9.2f %9.2f %08X  %s%n",
+                        program.file().getFileName(), r.status(), r.instructions(), r.cycles(),
+                        r.cycles() * 1e3 / r.nanos(), (double) r.nanos() / r.instructions(), r.crc(),
+                        r.ok() ? "OK" : String.format("ECHEC (attendu %08X)", program.expected()));
+            }
+            System.out.printf("%-14s %-8s %12d %12d %9.2f %9.2f%n", "total", "",
+                    instructions, cycles, cycles * 1e3 / nanos, (double) nanos / instructions);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("✗ Erreur : " + e.getMessage());
+            failed = true;
+        }
+        if (failed) System.exit(1);
+    }
+
+    // ===== MANIFESTE =====
+    static List<Program> readManifest(Path manifest) throws IOException {
+        List<Program> programs = new ArrayList<>();
+        Path dir = manifest.toAbsolutePath().getParent();
+        int lineNo = 0;
+        for (String line : Files.readAllLines(manifest)) {
+            lineNo++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            String[] f = line.split("\\s+", 7);
+            if (f.length < 6) {
+                throw new IllegalArgumentException("Manifeste ligne " + lineNo + " : 6 champs attendus");
+            }
+            String[] zone = f[4].split("-");
+            programs.add(new Program(dir.resolve(f[0]), Integer.parseInt(f[1], 16), Integer.parseInt(f[2], 16),
+                    Long.parseLong(f[3]), Integer.parseInt(zone[0], 16), Integer.parseInt(zone[1], 16),
+                    Long.parseLong(f[5], 16), f.length > 6 ? f[6] : ""));
+        }
+        return programs;
+    }
+
+    // ===== EXECUTION =====
+    // Chaque répétition repart d'un CPU neuf ; on garde le temps le plus court
+    static Result runBest(Program program, String engine, int repeat) throws IOException {
+        Result best = null;
+        for (int i = 0; i < repeat; i++) {
+            Result r = run(program, engine);
+            if (best == null || r.nanos() < best.nanos()) best = r;
+        }
+        return best;
+    }
+
+    static Result run(Program program, String engine) throws IOException {
+        CPU cpu = new CPU(ExecutionEngine.forName(engine));
+        Keyboard6809 keyboard = new Keyboard6809(cpu);
+        cpu.attachKeyboard(keyboard);
+        ExitPort exit = new ExitPort(cpu);
+        cpu.mem.mapIo(EXIT_PORT, EXIT_PORT, exit);
+
+        BinaryLoader.loadImage(program.file().toFile(), cpu.mem, program.load());
+        cpu.reg.PC = program.entry();
+        cpu.reg.SP = DEFAULT_SP;
+
+        String input = program.input();
+        int typed = 0;
+        long start = System.nanoTime();
+        StopReason reason;
+        while (true) {
+            reason = cpu.run(program.limit() - cpu.getInstructionsExecuted());
+            if (reason == StopReason.IRQ) continue;
+            // En attente en SYNC : touche suivante, sauf si le programme est sorti par le port
+            if (reason == StopReason.HALTED && !exit.done && typed < input.length()) {
+                keyboard.pressKey(input.charAt(typed++));
+                continue;
+            }
+            break;
+        }
+        long nanos = System.nanoTime() - start;
+
+        CRC32 crc = new CRC32();
+        for (int a = program.start(); a <= program.end(); a++) crc.update(cpu.peekByte(a));
+
+        String status = exit.done ? String.format("EXIT=%02X", exit.code)
+                : reason == StopReason.HALTED ? "SYNC" : reason.name();
+        return new Result(program, status, cpu.getInstructionsExecuted(), cpu.getCycles(), nanos, crc.getValue());
+    }
+
+    // Port de sortie : une écriture arrête le CPU, la valeur écrite est le code de sortie
+    private static final class ExitPort implements Memory.IoHandler {
+        private final CPU cpu;
+        boolean done;
+        int code;
+
+        ExitPort(CPU cpu) {
+            this.cpu = cpu;
+        }
+
+        @Override
+        public int read(int address) {
+            return code;
+        }
+
+        @Override
+        public void write(int address, int value) {
+            code = value & 0xFF;
+            done = true;
+            cpu.setHalted(true);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package app;
 
-import cpu.CPU;
+import cpu.CpuSnapshot;
+import cpu.EmulationThread;
+import cpu.Memory;
 import javax.swing.*;
 import java.awt.*;
 
@@ -12,13 +14,12 @@ public class DebugPanel extends JPanel {
     private final DefaultListModel<String> stackModel = new DefaultListModel<>();
     private final JList<String> stackList = new JList<>(stackModel);
     private final JTextArea disassembly = new JTextArea();
-    private final CPU cpu;
+    private int shownSp = -1;                     // SP de la pile affichée (-1 : aucune)
 
     
      // Initialise le panneau avec la pile et le désassemblage.
      
-    public DebugPanel(CPU cpu) {
-        this.cpu = cpu;
+    public DebugPanel() {
         setLayout(new BorderLayout());
 
         JScrollPane stackScroll = new JScrollPane(stackList);
@@ -34,61 +35,34 @@ public class DebugPanel extends JPanel {
     }
 
     
-     // Met à jour l'affichage du panneau.
+     // Met à jour l'affichage du panneau à partir d'une image publiée par le thread d'émulation.
     
-    public void refresh() {
-        refreshStack();
-        refreshDisassembly();
+    public void refresh(EmulationThread.Frame f) {
+        refreshStack(f.state(), f.changes());
+        refreshDisassembly(f);
     }
 
     
-     // Met à jour le contenu de la pile à partir du registre SP.
+     // Met à jour le contenu de la pile à partir du registre SP (même SP, aucune ligne
+     // modifiée : rien à faire). Les octets viennent de l'instantané, pas de la mémoire vive.
      
-    private void refreshStack() {
+    private void refreshStack(CpuSnapshot s, Memory.DirtySet changes) {
+        int sp = s.sp & 0xFFFF;
+        if (sp == shownSp && !changes.changed(sp, sp + 7)) return;
+        shownSp = sp;
         stackModel.clear();
-        int sp = cpu.reg.SP & 0xFFFF;
 
         for (int i = 0; i < 8; i++) {
             int addr = (sp + i) & 0xFFFF;
-            int val = cpu.readByte(addr);
+            int val = s.readByte(addr);
             stackModel.addElement(String.format("%04X : %02X", addr, val));
         }
     }
 
     
-     // Met à jour le désassemblage à partir du PC.
+     // Désassemblage à partir du PC, calculé par le thread d'émulation.
      
-    private void refreshDisassembly() {
-        disassembly.setText("");
-        int pc = cpu.reg.PC & 0xFFFF;
-
-        for (int i = 0; i < 6; i++) {
-            int opcode = cpu.readByte(pc);
-            String name = cpu.getInstructionSet().getName(opcode);
-            String line = name;
-
-            if ((opcode & 0xF0) == 0x80) {
-                int operand = cpu.readByte(pc + 1);
-                line = name + String.format(" #%02X", operand);
-                disassembly.append(
-                        String.format("%04X : %02X %02X  %s%n", pc, opcode, operand, line)
-                );
-                pc += 2;
-            } else {
-                disassembly.append(
-                        String.format("%04X : %02X     %s%n", pc, opcode, line)
-                );
-                pc += 1;
-            }
-        }
-    }
-
-    
-     //Retourne la taille d'une instruction selon son opcode.
-     
-    private int getInstructionLength(int opcode) {
-        if ((opcode & 0xF0) == 0x80) return 2;
-        if (opcode == 0x10 || opcode == 0x11) return 2;
-        return 1;
+    private void refreshDisassembly(EmulationThread.Frame f) {
+        disassembly.setText(f.disassembly());
     }
 }
@@ -1,21 +1,31 @@
 package app;
 
+import cpu.BreakpointManager;
 import cpu.CPU;
+import cpu.StopReason;
+import cpu.TraceRecorder;
 
 import java.io.File;
-import java.util.HashSet;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
-import java.util.Set;
 
 
   //Émulateur console du microprocesseur Motorola 6809. Permet de charger un programme, exécuter les instructions et gérer des breakpoints en mode texte.
  
 public class Emulator {
 
+    // Instructions exécutées d'un coup en mode continu avant de rendre la main
+    private static final long RUN_BUDGET = 100_000_000L;
+
+    // Trace binaire (commande t), à décoder avec app.TraceDecoder
+    private static final Path TRACE_FILE = Path.of("trace.bin");
+    private static final int TRACE_CAPACITY = 1 << 16;
+
     public static void main(String[] args) {
         CPU cpu = new CPU();
         Scanner sc = new Scanner(System.in);
-        Set<Integer> breakpoints = new HashSet<>();
+        BreakpointManager breakpoints = cpu.getBreakpointManager();
 
         System.out.println("=== EMULATEUR CONSOLE Motorola 6809 ===");
         System.out.println("1) Charger programme TEST");
@@ -40,7 +50,7 @@ public class Emulator {
                     }
                     BinaryLoader.loadFileIntoMemory(file, cpu.mem, 0x8000);
                     cpu.reg.PC = 0x8000;
-                    cpu.halted = false;
+                    cpu.setHalted(false);
                     System.out.println("✓ Programme chargé (PC = 8000h)");
                 } catch (Exception e) {
                     System.out.println("✗ Erreur : " + e.getMessage());
@@ -61,66 +71,83 @@ public class Emulator {
         boolean running = true;
         boolean continuous = false;
         int stepCount = 0;
+        int breakpointShown = -1;
 
         while (running) {
 
-            if (cpu.halted) {
+            if (cpu.isHalted()) {
                 System.out.println("\nCPU HALTED — fin de l'exécution");
-                System.out.println("Instructions exécutées : " + stepCount);
+                System.out.println("Instructions exécutées : " + cpu.getInstructionsExecuted());
                 break;
             }
 
-            if (!continuous && breakpoints.contains(cpu.reg.PC & 0xFFFF)) {
+            if (continuous) {
+                // Exécution d'un bloc jusqu'à breakpoint, arrêt ou fin de budget
+                StopReason reason = cpu.run(RUN_BUDGET);
+                switch (reason) {
+                    case BREAKPOINT:
+                        continuous = false;
+                        System.out.println("\nBreakpoint atteint");
+                        break;
+                    case BUDGET:
+                        continuous = false;
+                        System.out.println("\nBudget de " + RUN_BUDGET + " instructions atteint");
+                        cpu.dumpState();
+                        break;
+                    default:
+                        break;
+                }
+                continue;
+            }
+
+            // Menu affiché une fois par arrivée sur un breakpoint (on peut ensuite repartir)
+            if (breakpoints.contains(cpu.reg.PC) && cpu.reg.PC != breakpointShown) {
+                breakpointShown = cpu.reg.PC;
                 System.out.println("\n=== BREAKPOINT @ PC=" +
                         String.format("%04X", cpu.reg.PC) + " ===");
                 cpu.dumpState();
                 if (!menuInteractif(cpu, sc, breakpoints)) break;
                 continue;
             }
+            breakpointShown = -1;
 
-            int currentPC = cpu.reg.PC & 0xFFFF;
-            int opcode = cpu.readByte(currentPC);
-            String instName = cpu.getInstructionSet().getName(opcode);
-
-            System.out.printf("\n[STEP %d] PC=%04X : %s (%02X)%n",
-                    ++stepCount, currentPC, instName, opcode);
+            System.out.printf("\n[STEP %d] %s%n", ++stepCount, cpu.getDisassembler().line(cpu.reg.PC));
 
             cpu.step();
             cpu.dumpState();
 
-            if (!continuous) {
-                System.out.print("\n[n]ext  [c]ontinue  [b]reakpoint  [m]emory  [q]uit : ");
-                String cmd = sc.nextLine().trim().toLowerCase();
-
-                switch (cmd) {
-                    case "n":
-                    case "":
-                        break;
-                    case "c":
-                        continuous = true;
-                        System.out.println("Mode continu activé");
-                        break;
-                    case "b":
-                        manageBreakpoints(sc, breakpoints, cpu);
-                        break;
-                    case "m":
-                        editMemory(cpu, sc);
-                        break;
-                    case "q":
-                        running = false;
-                        break;
-                    default:
-                        System.out.println("Commande inconnue");
-                }
-            } else if (breakpoints.contains(cpu.reg.PC & 0xFFFF)) {
-                continuous = false;
-                System.out.println("\nBreakpoint atteint");
+            System.out.print("\n[n]ext  [c]ontinue  [b]reakpoint  [m]emory  [t]race  [q]uit : ");
+            String cmd = sc.nextLine().trim().toLowerCase();
+
+            switch (cmd) {
+                case "n":
+                case "":
+                    break;
+                case "c":
+                    continuous = true;
+                    System.out.println("Mode continu activé");
+                    break;
+                case "b":
+                    manageBreakpoints(sc, breakpoints, cpu);
+                    break;
+                case "m":
+                    editMemory(cpu, sc);
+                    break;
+                case "t":
+                    toggleTrace(cpu);
+                    break;
+                case "q":
+                    running = false;
+                    break;
+                default:
+                    System.out.println("Commande inconnue");
             }
         }
 
+        if (cpu.getTracer() != null) toggleTrace(cpu);
         sc.close();
         System.out.println("\nSimulation terminée");
-        System.out.println("Total instructions exécutées : " + stepCount);
+        System.out.println("Total instructions exécutées : " + cpu.getInstructionsExecuted());
     }
 
     
@@ -142,7 +169,7 @@ public class Emulator {
 
         cpu.reg.PC = base;
         cpu.reg.SP = 0xFF00;
-        cpu.halted = false;
+        cpu.setHalted(false);
 
         System.out.println("✓ Programme TEST chargé @ 8000h");
     }
@@ -158,7 +185,7 @@ public class Emulator {
         BinaryLoader.loadBinaryString(hexProgram, cpu.mem, 0x8000);
         cpu.reg.PC = 0x8000;
         cpu.reg.SP = 0xFF00;
-        cpu.halted = false;
+        cpu.setHalted(false);
 
         System.out.println("✓ Programme de démonstration chargé @ 8000h");
     }
@@ -166,7 +193,7 @@ public class Emulator {
     
      // Menu affiché lorsqu'un breakpoint est atteint.
      
-    private static boolean menuInteractif(CPU cpu, Scanner sc, Set<Integer> breakpoints) {
+    private static boolean menuInteractif(CPU cpu, Scanner sc, BreakpointManager breakpoints) {
         System.out.println("\nOptions :");
         System.out.println(" s : step");
         System.out.println(" c : continuer");
@@ -193,8 +220,7 @@ public class Emulator {
                 System.out.print("Adresse (hex) : ");
                 try {
                     int addr = Integer.parseInt(sc.nextLine(), 16);
-                    breakpoints.add(addr & 0xFFFF);
-                    cpu.addBreakpoint(addr);
+                    breakpoints.add(addr);
                     System.out.println("Breakpoint ajouté");
                 } catch (NumberFormatException e) {
                     System.out.println("Adresse invalide");
@@ -204,8 +230,7 @@ public class Emulator {
                 System.out.print("Adresse (hex) : ");
                 try {
                     int addr = Integer.parseInt(sc.nextLine(), 16);
-                    breakpoints.remove(addr & 0xFFFF);
-                    cpu.removeBreakpoint(addr);
+                    breakpoints.remove(addr);
                     System.out.println("Breakpoint supprimé");
                 } catch (NumberFormatException e) {
                     System.out.println("Adresse invalide");
@@ -225,7 +250,7 @@ public class Emulator {
     
      // Menu de gestion des breakpoints.
      
-    private static void manageBreakpoints(Scanner sc, Set<Integer> breakpoints, CPU cpu) {
+    private static void manageBreakpoints(Scanner sc, BreakpointManager breakpoints, CPU cpu) {
         System.out.println("\n1) Ajouter");
         System.out.println("2) Supprimer");
         System.out.println("3) Lister");
@@ -237,8 +262,7 @@ public class Emulator {
                 System.out.print("Adresse (hex) : ");
                 try {
                     int addr = Integer.parseInt(sc.nextLine(), 16);
-                    breakpoints.add(addr & 0xFFFF);
-                    cpu.addBreakpoint(addr);
+                    breakpoints.add(addr);
                     System.out.println("Breakpoint ajouté");
                 } catch (NumberFormatException e) {
                     System.out.println("Adresse invalide");
@@ -249,8 +273,7 @@ public class Emulator {
                 System.out.print("Adresse (hex) : ");
                 try {
                     int addr = Integer.parseInt(sc.nextLine(), 16);
-                    breakpoints.remove(addr & 0xFFFF);
-                    cpu.removeBreakpoint(addr);
+                    breakpoints.remove(addr);
                     System.out.println("Breakpoint supprimé");
                 } catch (NumberFormatException e) {
                     System.out.println("Adresse invalide");
@@ -261,7 +284,7 @@ public class Emulator {
                 if (breakpoints.isEmpty()) {
                     System.out.println("(aucun breakpoint)");
                 } else {
-                    for (int bp : breakpoints) {
+                    for (int bp : breakpoints.list()) {
                         System.out.println(String.format("%04X", bp));
                     }
                 }
@@ -270,6 +293,25 @@ public class Emulator {
     }
 
     
+     // Démarre ou arrête l'enregistrement de la trace binaire dans TRACE_FILE.
+     
+    private static void toggleTrace(CPU cpu) {
+        try {
+            TraceRecorder tracer = cpu.getTracer();
+            if (tracer == null) {
+                cpu.setTracer(new TraceRecorder(TRACE_FILE, TRACE_CAPACITY, TraceRecorder.Policy.BLOCK));
+                System.out.println("Trace activée → " + TRACE_FILE);
+            } else {
+                cpu.setTracer(null);
+                tracer.close();
+                System.out.println("Trace arrêtée : " + tracer.getRecorded() + " instructions dans " + TRACE_FILE);
+            }
+        } catch (IOException e) {
+            System.out.println("✗ Erreur de trace : " + e.getMessage());
+        }
+    }
+
+    
      //Lecture et modification d'une case mémoire.
      
     private static void editMemory(CPU cpu, Scanner sc) {
@@ -277,7 +319,7 @@ public class Emulator {
         try {
             int addr = Integer.parseInt(sc.nextLine(), 16);
             System.out.println("Valeur = " +
-                    String.format("%02X", cpu.readByte(addr)));
+                    String.format("%02X", cpu.peekByte(addr)));
 
             System.out.print("Nouvelle valeur (hex, vide = inchangé) : ");
             String valStr = sc.nextLine().trim();
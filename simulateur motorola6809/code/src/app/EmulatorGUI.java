@@ -1,10 +1,14 @@
 package app;
 
 import cpu.CPU;
+import cpu.EmulationThread;
+import cpu.SnapshotPublisher;
+import gui.ConsoleArea;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
+import java.nio.file.Files;
 
 
   //Interface graphique pour le simulateur Motorola 6809. Permet de visualiser la mémoire, les registres, la console et le panneau de debug.
@@ -17,9 +21,8 @@ public class EmulatorGUI extends JFrame {
     private final MemoryTableModel memModel;
     private final JTable memTable;
     private final RegisterPanel regPanel;
-    private final JTextArea console;
-    private Thread runner;
-    private volatile boolean runFlag = false;
+    private final ConsoleArea console;        // console bornée, alimentable depuis tout thread
+    private final EmulationThread emu;        // seul thread qui modifie le CPU (exécution à 1 MHz, état publié à 30 Hz)
 
     
     // initialise tous les composants et charge un programme test.
@@ -27,8 +30,10 @@ public class EmulatorGUI extends JFrame {
     public EmulatorGUI(CPU cpu) {
         super("Simulateur Motorola 6809 - GUI");
         this.cpu = cpu;
+        this.emu = new EmulationThread(cpu, SnapshotPublisher.HZ_30,
+                () -> SwingUtilities.invokeLater(this::render));
 
-        // Petit programme test dans la mémoire
+        // Petit programme test dans la mémoire (le thread d'émulation n'est pas encore lancé)
         cpu.writeByte(0x8000, 0x86);
         cpu.writeByte(0x8001, 0x05);
         cpu.writeByte(0x8002, 0x8B);
@@ -44,7 +49,7 @@ public class EmulatorGUI extends JFrame {
         setLayout(new BorderLayout());
 
         // Table mémoire
-        memModel = new MemoryTableModel(cpu.mem);
+        memModel = new MemoryTableModel(emu);
         memTable = new JTable(memModel);
         memTable.setFont(new Font("Monospaced", Font.PLAIN, 12));
         memTable.setRowHeight(20);
@@ -55,7 +60,9 @@ public class EmulatorGUI extends JFrame {
         regPanel = new RegisterPanel(cpu);
 
         // Console texte
-        console = new JTextArea(8, 80);
+        console = new ConsoleArea();
+        console.setRows(8);
+        console.setColumns(80);
         console.setEditable(false);
         console.setFont(new Font("Monospaced", Font.PLAIN, 12));
         JScrollPane consoleScroll = new JScrollPane(console);
@@ -84,50 +91,47 @@ public class EmulatorGUI extends JFrame {
         console.append("GUI prête. Charger un programme ou utiliser les tests intégrés.\n");
 
         // Ajouter le panneau de debug à droite
-        debugPanel = new DebugPanel(cpu);
+        debugPanel = new DebugPanel();
         add(debugPanel, BorderLayout.EAST);
+
+        // À partir d'ici, le CPU n'est plus modifié que par des commandes
+        emu.setStopListener(reason -> console.append("Arrêt : " + reason + "\n"));
+        emu.start();
+        emu.refresh();
     }
 
     
-     // Exécute une instruction unique et met à jour l'affichage.
+     // Exécute une instruction unique (sur le thread d'émulation, qui publie ensuite l'état).
      
     private void step() {
-        if (cpu.halted) {
-            console.append("CPU halted.\n");
-            return;
-        }
+        emu.submit(cpu -> {
+            if (cpu.isHalted()) {
+                console.append("CPU halted.\n");
+                return;
+            }
 
-        int pcBefore = cpu.reg.PC & 0xFFFF;
-        int opcode = cpu.readByte(pcBefore);
-        String name = cpu.getInstructionSet().getName(opcode);
+            int pcBefore = cpu.reg.PC & 0xFFFF;
+            int opcode = cpu.peekByte(pcBefore);
+            String name = cpu.getDisassembler().text(pcBefore);
 
-        cpu.step();
-        updateUI();
+            cpu.step();
 
-        console.append(String.format("PC=%04X: %s (opcode %02X)%n", pcBefore, name, opcode));
+            console.append(String.format("PC=%04X: %s (opcode %02X)%n", pcBefore, name, opcode));
 
-        // Affiche info supp si instruction a PostByte
-        if (cpu.getLastPostByte() != 0) {
-            console.append(String.format("  PostByte=%02X EA=%04X%n", cpu.getLastPostByte(), cpu.getLastEffectiveAddress()));
-        }
+            // Affiche info supp si instruction a PostByte
+            if (cpu.getLastPostByte() != 0) {
+                console.append(String.format("  PostByte=%02X EA=%04X%n", cpu.getLastPostByte(), cpu.getLastEffectiveAddress()));
+            }
+        });
     }
 
     
      //Lance le CPU  
      
     private void run() {
-        if (runFlag || cpu.halted) return;
-
-        runFlag = true;
-        runner = new Thread(() -> {
-            while (runFlag && !cpu.halted) {
-                cpu.step();
-                SwingUtilities.invokeLater(this::updateUI);
-                try { Thread.sleep(10); } catch (InterruptedException ignored) {}
-            }
-            runFlag = false;
-        });
-        runner.start();
+        if (emu.isRunning()) return;
+
+        emu.run();
         console.append("Exécution démarrée...\n");
     }
 
@@ -135,32 +139,29 @@ public class EmulatorGUI extends JFrame {
      // Arrête l'exécution continue du CPU.
      
     private void stopRun() {
-        runFlag = false;
-        if (runner != null) runner.interrupt();
-        console.append("Exécution arrêtée.\n");
+        emu.stop();
+        console.append(String.format("Exécution arrêtée (vitesse : %.0f %% de 1 MHz).%n",
+                emu.getGovernor().getAchievedPercent()));
     }
 
     
       //Réinitialise le CPU et met à jour l'affichage.
      
     private void reset() {
-        cpu.reset();
-        updateUI();
+        emu.submit(cpu -> cpu.reset());
         console.setText("");
         console.append("CPU réinitialisé.\n");
     }
 
     
-     //Charge un fichier binaire choisi par l'utilisateur.
+     //Charge un fichier binaire choisi par l'utilisateur (lu ici, copié en mémoire par le thread d'émulation).
      
     private void loadBinary() {
         JFileChooser chooser = new JFileChooser(".");
         if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File f = chooser.getSelectedFile();
             try {
-                app.BinaryLoader.loadFileIntoMemory(f, cpu.mem, 0x8000);
-                cpu.reg.PC = 0x8000;
-                updateUI();
+                emu.load(0x8000, Files.readAllBytes(f.toPath()), 0x8000);
                 console.append("Fichier chargé: " + f.getName() + "\n");
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "Erreur: " + e.getMessage());
@@ -169,18 +170,33 @@ public class EmulatorGUI extends JFrame {
     }
 
     
+     // Fréquence de rafraîchissement pendant l'exécution (SnapshotPublisher.HZ_30 ou HZ_60).
+     
+    public void setRefreshRate(int hz) {
+        emu.setRate(hz);
+    }
+
+    
+     // Affiche la dernière image publiée par le thread d'émulation (les précédentes sont ignorées).
+     
+    private void render() {
+        EmulationThread.Frame f = emu.take();
+        if (f != null) updateUI(f);
+    }
+
+    
      // Met à jour la mémoire, les registres et le panneau de debug.
      
-    private void updateUI() {
-        memModel.fireTableDataChanged();
-        regPanel.refresh();
-        highlightPC();
-        debugPanel.refresh();
+    private void updateUI(EmulationThread.Frame f) {
+        memModel.refresh(f.state(), f.changes());
+        regPanel.refresh(f.state());
+        highlightPC(f.state().pc);
+        debugPanel.refresh(f);
     }
 
     
-    private void highlightPC() {
-        int pc = cpu.reg.PC & 0xFFFF;
+    private void highlightPC(int pc) {
+        pc &= 0xFFFF;
         int row = pc / 16;
         int col = (pc % 16) + 1;
 
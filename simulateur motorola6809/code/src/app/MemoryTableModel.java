@@ -1,5 +1,7 @@
 package app;
 
+import cpu.CpuSnapshot;
+import cpu.EmulationThread;
 import cpu.Memory;
 import javax.swing.table.AbstractTableModel;
 
@@ -7,17 +9,34 @@ import javax.swing.table.AbstractTableModel;
 // Chaque ligne = 16 octets, première colonne = adresse
 public class MemoryTableModel extends AbstractTableModel {
 
-    private final Memory mem; // mémoire du CPU
+    private static final int ROWS = 65536 / 16; // 64 Ko, 16 octets par ligne
 
-    // Constructeur : prend la mémoire à afficher
-    public MemoryTableModel(Memory mem) {
-        this.mem = mem;
+    private final EmulationThread emu; // les écritures passent par le thread d'émulation
+    private CpuSnapshot shown;         // instantané affiché (la table ne lit jamais la mémoire vive)
+
+    // Constructeur : prend le thread qui possède la mémoire
+    public MemoryTableModel(EmulationThread emu) {
+        this.emu = emu;
+    }
+
+    // Affiche un instantané ; ne redessine que les lignes modifiées depuis le précédent
+    // (une ligne de la table = une ligne de 16 octets du suivi des modifications)
+    public void refresh(CpuSnapshot s, Memory.DirtySet changes) {
+        CpuSnapshot previous = shown;
+        shown = s;
+        if (previous == null) {
+            fireTableRowsUpdated(0, ROWS - 1);
+            return;
+        }
+        for (Memory.Range r : changes.ranges()) {
+            fireTableRowsUpdated(r.start() / 16, r.end() / 16);
+        }
     }
 
     // Nombre de lignes = taille mémoire / 16
     @Override
     public int getRowCount() {
-        return mem.size() / 16;
+        return ROWS;
     }
 
     // Nombre de colonnes = 1 adresse + 16 octets
@@ -38,9 +57,9 @@ public class MemoryTableModel extends AbstractTableModel {
     public Object getValueAt(int rowIndex, int columnIndex) {
         int base = rowIndex * 16; // adresse de départ de la ligne
         if (columnIndex == 0) return String.format("%04X", base); // colonne adresse
+        if (shown == null) return ""; // aucun instantané reçu
         int addr = base + (columnIndex - 1); // adresse mémoire
-        int v = Byte.toUnsignedInt(mem.readByte(addr)); // lire octet
-        return String.format("%02X", v); // affichage hex
+        return String.format("%02X", shown.readByte(addr)); // octet de l'instantané, en hex
     }
 
     // Colonnes éditables : seules les colonnes mémoire
@@ -50,13 +69,14 @@ public class MemoryTableModel extends AbstractTableModel {
     }
 
     // Met à jour la mémoire si l'utilisateur change une valeur
+    // (la ligne est redessinée par refresh() quand l'écriture a eu lieu)
     @Override
     public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
         if (columnIndex <= 0) return; // ignore adresse
         try {
             int addr = rowIndex * 16 + (columnIndex - 1); // calcul adresse
             int val = Integer.parseInt(aValue.toString(), 16) & 0xFF; // hex -> byte
-            mem.writeByte(addr, (byte) val); // écrire en mémoire
+            emu.poke(addr, val); // écriture faite par le thread d'émulation
         } catch (NumberFormatException ignored) {} // ignore erreur saisie
     }
 }
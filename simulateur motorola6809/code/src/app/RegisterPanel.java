@@ -1,21 +1,18 @@
 package app;
 
 import cpu.CPU;
+import cpu.CpuSnapshot;
 import javax.swing.*;
 import java.awt.*;
 
 // Panneau pour afficher les registres du CPU 6809
 public class RegisterPanel extends JPanel {
 
-    private final CPU cpu; // CPU dont on affiche les registres
-
     // Labels pour chaque registre et infos supplémentaires
     private final JLabel pcLabel, aLabel, bLabel, dLabel, xLabel, yLabel, spLabel, uLabel, dpLabel, ccLabel, eaLabel, postLabel;
 
     // Constructeur : initialise les labels et la mise en page
     public RegisterPanel(CPU cpu) {
-        this.cpu = cpu;
-
         setLayout(new GridLayout(0, 1)); // grille verticale
         setBorder(BorderFactory.createTitledBorder("Registres")); // bordure avec titre
 
@@ -47,7 +44,7 @@ public class RegisterPanel extends JPanel {
         add(eaLabel);
         add(postLabel);
 
-        refresh(); // afficher l'état initial des registres
+        refresh(cpu.snapshot()); // afficher l'état initial des registres
     }
 
     // Crée un JLabel pour un registre avec style uniforme
@@ -57,19 +54,19 @@ public class RegisterPanel extends JPanel {
         return l;
     }
 
-    // Met à jour les labels avec les valeurs actuelles du CPU
-    public void refresh() {
-        pcLabel.setText(String.format("PC = %04X", cpu.reg.PC & 0xFFFF));
-        aLabel.setText(String.format("A  = %02X", cpu.reg.A & 0xFF));
-        bLabel.setText(String.format("B  = %02X", cpu.reg.B & 0xFF));
-        dLabel.setText(String.format("D  = %04X", cpu.reg.D() & 0xFFFF));
-        xLabel.setText(String.format("X  = %04X", cpu.reg.X & 0xFFFF));
-        yLabel.setText(String.format("Y  = %04X", cpu.reg.Y & 0xFFFF));
-        spLabel.setText(String.format("SP = %04X", cpu.reg.SP & 0xFFFF));
-        uLabel.setText(String.format("U  = %04X", cpu.reg.U & 0xFFFF));
-        dpLabel.setText(String.format("DP = %02X", cpu.reg.DP & 0xFF));
-        ccLabel.setText(String.format("CC = %02X", cpu.reg.CC & 0xFF));
-        eaLabel.setText(String.format("EA = %04X", cpu.getLastEffectiveAddress() & 0xFFFF));
-        postLabel.setText(String.format("PostByte = %02X", cpu.getLastPostByte() & 0xFF));
+    // Met à jour les labels à partir d'un instantané du CPU
+    public void refresh(CpuSnapshot s) {
+        pcLabel.setText(String.format("PC = %04X", s.pc & 0xFFFF));
+        aLabel.setText(String.format("A  = %02X", s.a & 0xFF));
+        bLabel.setText(String.format("B  = %02X", s.b & 0xFF));
+        dLabel.setText(String.format("D  = %04X", (s.a & 0xFF) << 8 | (s.b & 0xFF)));
+        xLabel.setText(String.format("X  = %04X", s.x & 0xFFFF));
+        yLabel.setText(String.format("Y  = %04X", s.y & 0xFFFF));
+        spLabel.setText(String.format("SP = %04X", s.sp & 0xFFFF));
+        uLabel.setText(String.format("U  = %04X", s.u & 0xFFFF));
+        dpLabel.setText(String.format("DP = %02X", s.dp & 0xFF));
+        ccLabel.setText(String.format("CC = %02X", s.cc & 0xFF));
+        eaLabel.setText(String.format("EA = %04X", s.lastEffectiveAddress & 0xFFFF));
+        postLabel.setText(String.format("PostByte = %02X", s.lastPostByte & 0xFF));
     }
 }
@@ -0,0 +1,88 @@
+package app;
+
+import cpu.InstructionSet;
+import cpu.TraceRecorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static cpu.TraceRecorder.*;
+
+
+ // Outil hors ligne : décode une trace binaire (TraceRecorder) en texte, une ligne par instruction.
+ // Usage : java app.TraceDecoder trace.bin [nombre max d'instructions]
+ 
+public class TraceDecoder {
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage : java app.TraceDecoder <trace.bin> [max]");
+            return;
+        }
+        long max = args.length > 1 ? Long.parseLong(args[1]) : Long.MAX_VALUE;
+        try {
+            decode(Path.of(args[0]), System.out, max);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("✗ Erreur : " + e.getMessage());
+        }
+    }
+
+    
+     // Décode au plus max enregistrements de la trace vers out
+     
+    public static void decode(Path file, PrintStream out, long max) throws IOException {
+        InstructionSet iset = InstructionSet.INSTANCE;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header);
+            if (header.getLong(0) != MAGIC || header.getInt(8) != RECORD_SIZE) {
+                throw new IllegalArgumentException("Fichier de trace invalide : " + file);
+            }
+
+            out.println("      CYCLES  PC    OP    INSTR         A  B  DP CC  X    Y    U    S     EA");
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE * 4096).order(ByteOrder.LITTLE_ENDIAN);
+            long count = 0;
+            while (count < max && channel.read(buf) > 0) {
+                buf.flip();
+                while (buf.remaining() >= RECORD_SIZE && count < max) {
+                    int base = buf.position();
+                    printRecord(buf, base, iset, out);
+                    buf.position(base + RECORD_SIZE);
+                    count++;
+                }
+                buf.compact();
+            }
+            out.println("Instructions décodées : " + count);
+        }
+    }
+
+    private static void printRecord(ByteBuffer b, int base, InstructionSet iset, PrintStream out) {
+        int lost = b.getInt(base + OFF_LOST);
+        if (lost > 0) out.println("... " + lost + " instruction(s) perdue(s)");
+
+        int opcode = b.getShort(base + OFF_OPCODE) & 0xFFFF;
+        String ea = (b.getShort(base + OFF_FLAGS) & FLAG_EA) != 0
+                ? String.format("%04X", b.getShort(base + OFF_EA) & 0xFFFF) : "-";
+        out.printf("%12d  %04X  %-4s  %-12s  %02X %02X %02X %02X  %04X %04X %04X %04X  %s%n",
+                b.getLong(base + OFF_CYCLES),
+                b.getShort(base + OFF_PC) & 0xFFFF,
+                String.format(opcode > 0xFF ? "%04X" : "%02X", opcode),
+                iset.getName(opcode),
+                b.get(base + OFF_A) & 0xFF, b.get(base + OFF_B) & 0xFF,
+                b.get(base + OFF_DP) & 0xFF, b.get(base + OFF_CC) & 0xFF,
+                b.getShort(base + OFF_X) & 0xFFFF, b.getShort(base + OFF_Y) & 0xFFFF,
+                b.getShort(base + OFF_U) & 0xFFFF, b.getShort(base + OFF_S) & 0xFFFF,
+                ea);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) throw new IllegalArgumentException("Fichier de trace tronqué");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package cpu;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Mémoire à banques avec MMU, dans le style du GIME du CoCo 3 :
+// 512 Ko à 2 Mo de RAM physique découpés en blocs de 8 Ko, vus par le CPU
+// à travers 8 fenêtres de 8 Ko ($0000-$1FFF, ..., $E000-$FFFF).
+//
+// Registres MMU (mappés en mémoire) :
+//   $FF90 INIT0 : bit 6 = MMU active
+//   $FF91 INIT1 : bit 0 = jeu de registres (tâche 0 ou 1)
+//   $FFA0-$FFA7 : bloc de chaque fenêtre pour la tâche 0
+//   $FFA8-$FFAF : bloc de chaque fenêtre pour la tâche 1
+// MMU inactive, le CPU voit les 64 derniers Ko de la RAM physique.
+// La page $FF00-$FFFF (registres et vecteurs) reste fixe.
+//
+// La RAM physique est un seul buffer hors tas. Une tranche est préparée par page
+// physique : changer de banque ne fait que réécrire 32 entrées de la table de pages.
+public class BankedMemory extends OffHeapMemory {
+
+    public static final int BLOCK_SIZE = 8192;
+    public static final int WINDOWS = 8;
+    private static final int PAGES_PER_BLOCK = BLOCK_SIZE / PAGE_SIZE;
+
+    public static final int INIT0 = 0xFF90;
+    public static final int INIT1 = 0xFF91;
+    public static final int MMU_REGISTERS = 0xFFA0; // 16 registres
+
+    private final ByteBuffer physical;          // RAM physique contiguë
+    private final ByteBuffer[] physicalPages;   // une tranche de 256 octets par page physique
+    private final int blocks;                   // nombre de blocs de 8 Ko
+
+    // Etat de la MMU
+    private final int[] registers = new int[2 * WINDOWS];
+    private int init0, init1;
+    private final int[] mapped = new int[WINDOWS]; // bloc actuellement vu dans chaque fenêtre
+
+    // size : taille de la RAM physique : 512 Ko, 1 Mo ou 2 Mo
+    public BankedMemory(int size) {
+        super(false); // toutes les pages sont branchées sur la RAM physique ci-dessous
+        if (size < 512 * 1024 || size > 2048 * 1024 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Taille de RAM physique invalide : " + size);
+        }
+        blocks = size / BLOCK_SIZE;
+        physical = ByteBuffer.allocateDirect(size);
+        physicalPages = new ByteBuffer[size / PAGE_SIZE];
+        for (int i = 0; i < physicalPages.length; i++) {
+            physicalPages[i] = physical.slice(i * PAGE_SIZE, PAGE_SIZE);
+        }
+
+        Arrays.fill(mapped, -1);
+        remapAll();
+        remapPage(0xFF, physicalPages[physicalPages.length - 1]); // page fixe
+
+        Mmu mmu = new Mmu();
+        mapIo(INIT0, INIT1, mmu);
+        mapIo(MMU_REGISTERS, MMU_REGISTERS + 2 * WINDOWS - 1, mmu);
+    }
+
+    // ===== MMU =====
+    private final class Mmu implements IoHandler {
+        @Override
+        public int read(int address) {
+            if (address == INIT0) return init0;
+            if (address == INIT1) return init1;
+            return registers[address - MMU_REGISTERS];
+        }
+
+        @Override
+        public void write(int address, int value) {
+            if (address == INIT0) {
+                init0 = value;
+                remapAll();
+            } else if (address == INIT1) {
+                init1 = value;
+                remapAll();
+            } else {
+                int index = address - MMU_REGISTERS;
+                registers[index] = value & (blocks - 1);
+                if (mmuEnabled() && index / WINDOWS == task()) remapWindow(index % WINDOWS);
+            }
+        }
+    }
+
+    private boolean mmuEnabled() {
+        return (init0 & 0x40) != 0;
+    }
+
+    private int task() {
+        return init1 & 0x01;
+    }
+
+    // Bloc physique vu dans une fenêtre selon l'état de la MMU
+    private int blockFor(int window) {
+        if (!mmuEnabled()) return blocks - WINDOWS + window;
+        return registers[task() * WINDOWS + window];
+    }
+
+    private void remapAll() {
+        for (int window = 0; window < WINDOWS; window++) remapWindow(window);
+    }
+
+    // Page physique vue à une adresse CPU (page : 0-255)
+    private int physicalPage(int page) {
+        if (page == 0xFF) return physicalPages.length - 1;
+        return mapped[page / PAGES_PER_BLOCK] * PAGES_PER_BLOCK + page % PAGES_PER_BLOCK;
+    }
+
+    // Fin d'une projection ROM ou NVRAM : la page revient sur la banque de sa fenêtre
+    @Override
+    protected ByteBuffer ramPage(int page) {
+        return physicalPages[physicalPage(page)];
+    }
+
+    // Réécrit les 32 entrées de page d'une fenêtre (rien si le bloc n'a pas changé)
+    private void remapWindow(int window) {
+        int block = blockFor(window);
+        if (mapped[window] == block) return;
+        mapped[window] = block;
+        int firstPage = window * PAGES_PER_BLOCK;
+        for (int i = 0; i < PAGES_PER_BLOCK; i++) {
+            int page = firstPage + i;
+            if (page == 0xFF) continue; // page fixe
+            remapPage(page, physicalPages[block * PAGES_PER_BLOCK + i]);
+        }
+    }
+
+    // ===== ACCES =====
+    // Bloc physique actuellement vu dans une fenêtre (0-7)
+    public int getBlock(int window) {
+        return mapped[window];
+    }
+
+    public int getPhysicalSize() {
+        return physical.capacity();
+    }
+
+    // Lecture directe de la RAM physique (débogueur)
+    public byte readPhysical(int physicalAddress) {
+        return physical.get(physicalAddress);
+    }
+
+    // Efface toute la RAM physique et remet la MMU à l'état de démarrage.
+    // Toutes les pages visibles ont pu changer, y compris celles dont la banque ne bouge pas :
+    // chaque fenêtre est rebranchée (une notification par page), plus la page fixe.
+    @Override
+    public void clear() {
+        byte[] zero = new byte[BLOCK_SIZE];
+        for (int block = 0; block < blocks; block++) physical.put(block * BLOCK_SIZE, zero);
+        Arrays.fill(registers, 0);
+        init0 = 0;
+        init1 = 0;
+        Arrays.fill(mapped, -1);
+        remapAll();
+        contentsChanged(0xFF);
+    }
+}
@@ -0,0 +1,436 @@
+package cpu;
+
+import java.util.Arrays;
+
+// Moteur à cache de traduction : chaque bloc de base est décodé une seule fois
+// (opcode, mode et opérandes déjà lus), puis réexécuté tant que le code n'est pas modifié.
+//
+// - les blocs sont indexés par leur PC de départ (table par page, allouée à la demande) ;
+// - un bloc se termine sur un branchement, un saut, un retour, SYNC ou un opcode illégal ;
+// - les écritures dans une page contenant du code invalident les blocs touchés
+//   (code auto-modifiant), via la surveillance des pages de Memory ;
+// - le nombre d'instructions en cache est borné, l'éviction suit l'algorithme CLOCK.
+public class BlockCacheEngine implements ExecutionEngine {
+
+    public static final int DEFAULT_CAPACITY = 65536; // instructions en cache par défaut
+
+    static final int MAX_BLOCK_INSTRUCTIONS = 32;     // taille max d'un bloc
+    static final int MAX_INSTRUCTION_BYTES = 5;       // préfixe + opcode + postbyte + 2 octets
+    static final int MAX_BLOCK_BYTES = MAX_BLOCK_INSTRUCTIONS * MAX_INSTRUCTION_BYTES;
+
+    // Sémantique spécialisée par opcode : l'opérande pré-décodé est complété à l'exécution
+    // pour les modes qui dépendent des registres (DP pour le direct, X, Y, U, S ou PC pour l'indexé)
+    private static final InstructionSet.Operation[] HANDLERS1 = specializeAll(InstructionSet.MODES1, InstructionSet.OPS1);
+    private static final InstructionSet.Operation[] HANDLERS2 = specializeAll(InstructionSet.MODES2, InstructionSet.OPS2);
+    private static final InstructionSet.Operation[] HANDLERS3 = specializeAll(InstructionSet.MODES3, InstructionSet.OPS3);
+
+    // Piège pour un opcode non défini (opérande = opcode complet)
+    private static final InstructionSet.Operation ILLEGAL = CPU::illegalOpcode;
+
+    // ===== BLOC =====
+    // Bloc de base pré-décodé : un handler, un opérande et le PC suivant par instruction
+    static final class Block {
+        final int start;                       // adresse de la première instruction
+        final int end;                         // adresse qui suit la dernière instruction
+        final InstructionSet.Operation[] handlers;
+        final int[] operands;
+        final int[] next;
+        final int[] cycles;                    // cycles de base cumulés jusqu'à l'instruction i incluse
+        boolean valid = true;                  // faux dès que le code est modifié ou évincé
+        boolean referenced = true;             // bit de référence pour CLOCK
+        int hotness;                           // exécutions complètes (moteur recompilateur)
+        volatile CompiledBlock compiled;       // version recompilée, null tant qu'elle n'existe pas
+
+        Block(int start, int end, InstructionSet.Operation[] handlers, int[] operands, int[] next, int[] cycles) {
+            this.start = start;
+            this.end = end;
+            this.handlers = handlers;
+            this.operands = operands;
+            this.next = next;
+            this.cycles = cycles;
+        }
+
+        int size() {
+            return handlers.length;
+        }
+    }
+
+    private final Block[][] blocks = new Block[256][];    // PC de départ -> bloc, par page
+    private final int[] pageBlocks = new int[256];         // nombre de blocs qui touchent chaque page
+    private final long[] codeBytes = new long[65536 / 64]; // octets couverts par un bloc (approximation haute)
+
+    private final int capacity;     // nombre max d'instructions en cache
+    private int cachedInstructions; // instructions actuellement en cache
+    private Block[] clock = new Block[64]; // blocs en cache (anneau CLOCK, peut contenir des blocs
+                                           // invalidés), agrandi jusqu'à capacity
+    private int clockHand;          // position de l'aiguille
+    private int clockSize;          // nombre d'entrées dans l'anneau
+
+    private CPU cpu;                // CPU propriétaire
+    private int watchSlot;          // numéro d'observateur dans Memory
+
+    // Statistiques
+    private long translations, invalidations, evictions;
+
+    public BlockCacheEngine() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // capacity : nombre max d'instructions pré-décodées gardées en mémoire
+    public BlockCacheEngine(int capacity) {
+        this.capacity = Math.max(capacity, MAX_BLOCK_INSTRUCTIONS);
+    }
+
+    @Override
+    public void attach(CPU cpu) {
+        if (this.cpu != null) throw new IllegalStateException("Moteur déjà attaché à un CPU");
+        this.cpu = cpu;
+        this.watchSlot = cpu.mem.addWatcher(new Watcher());
+    }
+
+    @Override
+    public void reset() {
+        flush();
+    }
+
+    // ===== EXECUTION =====
+    @Override
+    public void step(CPU cpu) {
+        Block block = lookup(cpu.reg.PC);
+        block.referenced = true;
+        cpu.reg.PC = block.next[0];
+        cpu.cycles += block.cycles[0];
+        block.handlers[0].apply(cpu, block.operands[0]);
+    }
+
+    @Override
+    public int execute(CPU cpu, int max) {
+        int done = 0;
+        while (done < max) {
+            Block block = lookup(cpu.reg.PC);
+            block.referenced = true;
+            done += runBlock(cpu, block, max - done);
+            if (cpu.needsService()) break;
+        }
+        return done;
+    }
+
+    // Interprète au plus max instructions du bloc, retourne le nombre exécuté.
+    // Les cycles de base sont ajoutés en une fois à la sortie du bloc.
+    // Comme l'interpréteur, on rend la main dès qu'une instruction demande l'attention
+    // du CPU (écriture sur un port qui l'arrête, IRQ levée par un périphérique...).
+    int runBlock(CPU cpu, Block block, int max) {
+        InstructionSet.Operation[] handlers = block.handlers;
+        int[] operands = block.operands;
+        int[] next = block.next;
+        int n = Math.min(handlers.length, max);
+
+        for (int i = 0; i < n; i++) {
+            int pc = next[i];
+            cpu.reg.PC = pc;
+            handlers[i].apply(cpu, operands[i]);
+            // Saut pris, bloc modifié par sa propre exécution ou CPU à servir : on sort du bloc
+            if (cpu.reg.PC != pc || !block.valid || cpu.needsService()) {
+                cpu.cycles += block.cycles[i];
+                return i + 1;
+            }
+        }
+        if (n > 0) cpu.cycles += block.cycles[n - 1];
+        return n;
+    }
+
+    // Bloc qui commence à pc (traduit s'il n'est pas en cache)
+    private Block lookup(int pc) {
+        Block[] page = blocks[(pc & 0xFFFF) >>> 8];
+        Block block = page != null ? page[pc & 0xFF] : null;
+        if (block == null) block = translate(pc & 0xFFFF);
+        return block;
+    }
+
+    // ===== TRADUCTION =====
+    private Block translate(int start) {
+        InstructionSet.Operation[] handlers = new InstructionSet.Operation[MAX_BLOCK_INSTRUCTIONS];
+        int[] operands = new int[MAX_BLOCK_INSTRUCTIONS];
+        int[] next = new int[MAX_BLOCK_INSTRUCTIONS];
+        int[] cycles = new int[MAX_BLOCK_INSTRUCTIONS];
+
+        int pc = start;
+        int total = 0;
+        int count = 0;
+        boolean endOfBlock = false;
+
+        while (count < MAX_BLOCK_INSTRUCTIONS && !endOfBlock) {
+            int opcode = cpu.peekByte(pc);
+            pc = (pc + 1) & 0xFFFF;
+
+            AddressingMode[] modes = InstructionSet.MODES1;
+            InstructionSet.Operation[] table = HANDLERS1;
+            byte[] timing = InstructionSet.CYCLES1;
+            if (opcode == 0x10 || opcode == 0x11) {
+                modes = opcode == 0x10 ? InstructionSet.MODES2 : InstructionSet.MODES3;
+                table = opcode == 0x10 ? HANDLERS2 : HANDLERS3;
+                timing = opcode == 0x10 ? InstructionSet.CYCLES2 : InstructionSet.CYCLES3;
+                opcode = (opcode << 8) | cpu.peekByte(pc);
+                pc = (pc + 1) & 0xFFFF;
+            }
+
+            InstructionSet.Operation handler = table[opcode & 0xFF];
+            int operand;
+            if (handler == null) {
+                // Opcode illégal : le piège arrête le CPU, fin du bloc
+                handler = ILLEGAL;
+                operand = opcode;
+                endOfBlock = true;
+            } else {
+                AddressingMode mode = modes[opcode & 0xFF];
+                switch (mode) {
+                    case IMMEDIATE, DIRECT -> {
+                        operand = cpu.peekByte(pc);
+                        pc = (pc + 1) & 0xFFFF;
+                    }
+                    case INDEXED -> {
+                        // postbyte, puis déplacement 8/16 bits éventuel dans les bits 8-23
+                        int postByte = cpu.peekByte(pc);
+                        pc = (pc + 1) & 0xFFFF;
+                        int bytes = IndexedPostByte.operandBytes(postByte);
+                        int offset = bytes == 1 ? cpu.peekByte(pc) : bytes == 2 ? peekWord(cpu, pc) : 0;
+                        pc = (pc + bytes) & 0xFFFF;
+                        operand = postByte | offset << 8;
+                    }
+                    case IMMEDIATE_16, EXTENDED -> {
+                        operand = peekWord(cpu, pc);
+                        pc = (pc + 2) & 0xFFFF;
+                    }
+                    case RELATIVE -> {
+                        int offset = (byte) cpu.peekByte(pc);
+                        pc = (pc + 1) & 0xFFFF;
+                        operand = (pc + offset) & 0xFFFF;
+                    }
+                    case RELATIVE_16 -> {
+                        int offset = (short) peekWord(cpu, pc);
+                        pc = (pc + 2) & 0xFFFF;
+                        operand = (pc + offset) & 0xFFFF;
+                    }
+                    default -> operand = 0;
+                }
+                endOfBlock = endsBlock(opcode, mode, operand);
+            }
+
+            total += timing[opcode & 0xFF];
+            handlers[count] = handler;
+            operands[count] = operand;
+            next[count] = pc;
+            cycles[count] = total;
+            count++;
+        }
+
+        Block block = new Block(start, pc, Arrays.copyOf(handlers, count),
+                Arrays.copyOf(operands, count), Arrays.copyOf(next, count), Arrays.copyOf(cycles, count));
+        insert(block);
+        translations++;
+        return block;
+    }
+
+    // Lecture du code sans effet de bord (le code n'est pas encore exécuté)
+    private static int peekWord(CPU cpu, int pc) {
+        return (cpu.peekByte(pc) << 8) | cpu.peekByte(pc + 1);
+    }
+
+    // Vrai si l'instruction peut changer PC ou arrêter le CPU
+    private static boolean endsBlock(int opcode, AddressingMode mode, int operand) {
+        if (mode == AddressingMode.RELATIVE || mode == AddressingMode.RELATIVE_16) return true;
+        return switch (opcode) {
+            case 0x13, 0x39, 0x3B -> true;                                     // SYNC, RTS, RTI
+            case 0x3C, 0x3F, 0x103F, 0x113F -> true;                           // CWAI, SWI, SWI2, SWI3
+            case 0x0E, 0x6E, 0x7E, 0x9D, 0xAD, 0xBD -> true;                   // JMP, JSR
+            case 0x35, 0x37 -> (operand & 0x80) != 0;                          // PULS/PULU ..,PC
+            case 0x1E -> ((operand >> 4) & 0x0F) == 5 || (operand & 0x0F) == 5; // EXG avec PC
+            case 0x1F -> (operand & 0x0F) == 5;                                // TFR r,PC
+            default -> false;
+        };
+    }
+
+    // ===== GESTION DU CACHE =====
+    private void insert(Block block) {
+        while (cachedInstructions + block.size() > capacity || clockSize == capacity) evictOne();
+        if (clockSize == clock.length) growClock();
+
+        Block[] page = blocks[block.start >>> 8];
+        if (page == null) page = blocks[block.start >>> 8] = new Block[256];
+        page[block.start & 0xFF] = block;
+        clock[(clockHand + clockSize) % clock.length] = block;
+        clockSize++;
+        cachedInstructions += block.size();
+
+        // Les pages couvertes sont surveillées tant qu'un bloc y réside
+        forEachPage(block, +1);
+        for (int a = block.start; a != block.end; a = (a + 1) & 0xFFFF) {
+            codeBytes[a >>> 6] |= 1L << a;
+        }
+    }
+
+    // Éviction CLOCK : on donne une seconde chance aux blocs référencés.
+    // Les entrées de blocs déjà invalidés sont simplement retirées de l'anneau.
+    private void evictOne() {
+        while (true) {
+            Block block = clock[clockHand];
+            clock[clockHand] = null;
+            clockHand = (clockHand + 1) % clock.length;
+            clockSize--;
+            if (block.valid && block.referenced) {
+                // Seconde chance : le bloc repasse en queue de l'anneau
+                block.referenced = false;
+                clock[(clockHand + clockSize) % clock.length] = block;
+                clockSize++;
+                continue;
+            }
+            if (block.valid) {
+                remove(block);
+                evictions++;
+            }
+            return;
+        }
+    }
+
+    // Anneau plein mais sous la capacité : on double sa taille, dans l'ordre de l'aiguille
+    private void growClock() {
+        Block[] grown = new Block[(int) Math.min((long) clock.length * 2, capacity)];
+        for (int i = 0; i < clockSize; i++) grown[i] = clock[(clockHand + i) % clock.length];
+        clock = grown;
+        clockHand = 0;
+    }
+
+    // Retire un bloc de la table (son entrée dans l'anneau est nettoyée par CLOCK)
+    private void remove(Block block) {
+        block.valid = false;
+        blocks[block.start >>> 8][block.start & 0xFF] = null;
+        cachedInstructions -= block.size();
+        forEachPage(block, -1);
+    }
+
+    // Ajuste le compteur de blocs des pages couvertes et la surveillance mémoire
+    private void forEachPage(Block block, int delta) {
+        int first = block.start >>> 8;
+        int last = ((block.end - 1) & 0xFFFF) >>> 8;
+        for (int page = first; ; page = (page + 1) & 0xFF) {
+            pageBlocks[page] += delta;
+            cpu.mem.watchPage(watchSlot, page, pageBlocks[page] > 0);
+            if (page == last) break;
+        }
+    }
+
+    // Observateur mémoire : écriture d'un octet, ou page entière remplacée
+    private final class Watcher implements Memory.WriteWatcher {
+        @Override
+        public void written(int address) {
+            BlockCacheEngine.this.written(address);
+        }
+
+        @Override
+        public void pageWritten(int page) {
+            BlockCacheEngine.this.pageWritten(page);
+        }
+    }
+
+    // Appelé par Memory pour chaque écriture dans une page surveillée
+    private void written(int address) {
+        if ((codeBytes[address >>> 6] & (1L << address)) == 0) return; // donnée, pas du code
+
+        // Un bloc qui couvre address commence au plus MAX_BLOCK_BYTES octets avant
+        for (int back = 0; back < MAX_BLOCK_BYTES; back++) {
+            int start = (address - back) & 0xFFFF;
+            Block[] page = blocks[start >>> 8];
+            Block block = page != null ? page[start & 0xFF] : null;
+            if (block == null) continue;
+            if (covers(block, address)) {
+                remove(block);
+                invalidations++;
+            }
+        }
+        codeBytes[address >>> 6] &= ~(1L << address); // plus aucun bloc ne couvre cet octet
+    }
+
+    // Page remplacée d'un bloc : un seul passage sur les débuts de bloc possibles
+    // (jusqu'à MAX_BLOCK_BYTES octets avant la page), au lieu d'un passage par octet
+    private void pageWritten(int page) {
+        int base = page << 8;
+        for (int back = MAX_BLOCK_BYTES - 1; back > -Memory.PAGE_SIZE; back--) {
+            int start = (base - back) & 0xFFFF;
+            Block[] blocksOfPage = blocks[start >>> 8];
+            Block block = blocksOfPage != null ? blocksOfPage[start & 0xFF] : null;
+            if (block == null) continue;
+            if (back <= 0 || covers(block, base)) {
+                remove(block);
+                invalidations++;
+            }
+        }
+        Arrays.fill(codeBytes, page * 4, page * 4 + 4, 0L); // les 256 octets de la page
+    }
+
+    // Vrai si l'adresse fait partie des octets du bloc
+    private static boolean covers(Block block, int address) {
+        return ((address - block.start) & 0xFFFF) < ((block.end - block.start) & 0xFFFF);
+    }
+
+    // Vide entièrement le cache
+    public void flush() {
+        if (cpu == null || clockSize == 0) return; // rien n'a été inséré depuis le dernier vidage
+        for (int i = 0; i < clockSize; i++) {
+            int slot = (clockHand + i) % clock.length;
+            if (clock[slot].valid) remove(clock[slot]);
+            clock[slot] = null;
+        }
+        clockSize = 0;
+        clockHand = 0;
+        Arrays.fill(codeBytes, 0L);
+    }
+
+    // ===== SPECIALISATION =====
+    private static InstructionSet.Operation[] specializeAll(AddressingMode[] modes, InstructionSet.Operation[] ops) {
+        InstructionSet.Operation[] result = new InstructionSet.Operation[256];
+        for (int op = 0; op < 256; op++) {
+            if (ops[op] != null) result[op] = specialize(modes[op], ops[op]);
+        }
+        return result;
+    }
+
+    // Le direct et l'indexé dépendent des registres : l'adresse effective est calculée à l'exécution
+    private static InstructionSet.Operation specialize(AddressingMode mode, InstructionSet.Operation op) {
+        return switch (mode) {
+            case DIRECT -> (cpu, offset) -> op.apply(cpu, cpu.directAddress(offset));
+            case INDEXED -> (cpu, operand) -> op.apply(cpu, cpu.indexedAddress(operand & 0xFF, operand >>> 8));
+            default -> op;
+        };
+    }
+
+    // ===== STATISTIQUES =====
+    public long getTranslations() {
+        return translations;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getCachedInstructions() {
+        return cachedInstructions;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String getName() {
+        return "block";
+    }
+
+    @Override
+    public ExecutionEngine copy() {
+        return new BlockCacheEngine(capacity);
+    }
+}
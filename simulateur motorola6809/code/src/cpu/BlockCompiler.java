@@ -0,0 +1,306 @@
+package cpu;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+// Traduit un bloc de base en bytecode JVM, chargé comme classe cachée (defineHiddenClass).
+//
+// La classe générée implémente CompiledBlock. Pour chaque instruction i du bloc, run() fait :
+//     cpu.reg.PC = next[i];
+//     block.handlers[i].apply(cpu, operand[i]);   // opérande en constante
+//     if (cpu.reg.PC != next[i] || !block.valid || cpu.needsService()) { cpu.cycles += cycles[i]; return i + 1; }
+// Ce sont exactement les étapes de BlockCacheEngine.runBlock : Registers, CC et la mémoire
+// évoluent de la même façon. Chaque appel a son propre site d'appel, donc un profil monomorphe :
+// le JIT inline les sémantiques et compile le bloc 6809 d'un seul tenant.
+final class BlockCompiler {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String CPU = "cpu/CPU";
+    private static final String REGISTERS = "cpu/Registers";
+    private static final String BLOCK = "cpu/BlockCacheEngine$Block";
+    private static final String OPERATION = "cpu/InstructionSet$Operation";
+
+    // ===== OPCODES JVM =====
+    private static final int ALOAD_0 = 0x2A, ALOAD_1 = 0x2B, ALOAD_2 = 0x2C;
+    private static final int BIPUSH = 0x10, LDC_W = 0x13, LDC2_W = 0x14, AALOAD = 0x32;
+    private static final int DUP = 0x59, LADD = 0x61;
+    private static final int IFEQ = 0x99, IFNE = 0x9A, IF_ICMPNE = 0xA0;
+    private static final int IRETURN = 0xAC, RETURN = 0xB1;
+    private static final int GETFIELD = 0xB4, PUTFIELD = 0xB5;
+    private static final int INVOKEVIRTUAL = 0xB6, INVOKESPECIAL = 0xB7, INVOKEINTERFACE = 0xB9;
+
+    private BlockCompiler() {
+    }
+
+    // Compile le bloc et retourne une instance de la classe cachée
+    static CompiledBlock compile(BlockCacheEngine.Block block) {
+        try {
+            byte[] bytes = generate(block);
+            MethodHandles.Lookup hidden = LOOKUP.defineHiddenClass(bytes, true);
+            return (CompiledBlock) hidden.findConstructor(hidden.lookupClass(),
+                    MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Recompilation du bloc $"
+                    + String.format("%04X", block.start) + " impossible", e);
+        }
+    }
+
+    // ===== GENERATION DE LA CLASSE =====
+    static byte[] generate(BlockCacheEngine.Block block) throws IOException {
+        ConstantPool cp = new ConstantPool();
+        int thisClass = cp.classRef("cpu/RecompiledBlock");
+        int superClass = cp.classRef("java/lang/Object");
+        int iface = cp.classRef("cpu/CompiledBlock");
+        int objectInit = cp.memberRef(10, "java/lang/Object", "<init>", "()V");
+        int regField = cp.memberRef(9, CPU, "reg", "Lcpu/Registers;");
+        int pcField = cp.memberRef(9, REGISTERS, "PC", "I");
+        int handlersField = cp.memberRef(9, BLOCK, "handlers", "[L" + OPERATION + ";");
+        int validField = cp.memberRef(9, BLOCK, "valid", "Z");
+        int cyclesField = cp.memberRef(9, CPU, "cycles", "J");
+        int apply = cp.memberRef(11, OPERATION, "apply", "(Lcpu/CPU;I)V");
+        int needsService = cp.memberRef(10, CPU, "needsService", "()Z");
+        int codeAttr = cp.utf8("Code");
+        int stackMapAttr = cp.utf8("StackMapTable");
+        int initName = cp.utf8("<init>");
+        int initDesc = cp.utf8("()V");
+        int runName = cp.utf8("run");
+        int runDesc = cp.utf8("(Lcpu/CPU;L" + BLOCK + ";)I");
+
+        // ----- corps de run() -----
+        int n = block.size();
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(code);
+        int[] exitJumps = new int[3 * n]; // positions des sauts vers les sorties anticipées
+        int jumps = 0;
+
+        for (int i = 0; i < n; i++) {
+            int next = cp.integer(block.next[i]);
+
+            // cpu.reg.PC = next[i]
+            out.writeByte(ALOAD_1);
+            out.writeByte(GETFIELD); out.writeShort(regField);
+            out.writeByte(LDC_W); out.writeShort(next);
+            out.writeByte(PUTFIELD); out.writeShort(pcField);
+
+            // block.handlers[i].apply(cpu, operand[i])
+            out.writeByte(ALOAD_2);
+            out.writeByte(GETFIELD); out.writeShort(handlersField);
+            out.writeByte(BIPUSH); out.writeByte(i);
+            out.writeByte(AALOAD);
+            out.writeByte(ALOAD_1);
+            out.writeByte(LDC_W); out.writeShort(cp.integer(block.operands[i]));
+            out.writeByte(INVOKEINTERFACE); out.writeShort(apply); out.writeByte(3); out.writeByte(0);
+
+            if (i == n - 1) break; // après la dernière instruction : on retourne n
+
+            // if (cpu.reg.PC != next[i]) return i + 1
+            out.writeByte(ALOAD_1);
+            out.writeByte(GETFIELD); out.writeShort(regField);
+            out.writeByte(GETFIELD); out.writeShort(pcField);
+            out.writeByte(LDC_W); out.writeShort(next);
+            exitJumps[jumps++] = (code.size() << 8) | i;
+            out.writeByte(IF_ICMPNE); out.writeShort(0);
+
+            // if (!block.valid) return i + 1
+            out.writeByte(ALOAD_2);
+            out.writeByte(GETFIELD); out.writeShort(validField);
+            exitJumps[jumps++] = (code.size() << 8) | i;
+            out.writeByte(IFEQ); out.writeShort(0);
+
+            // if (cpu.needsService()) return i + 1
+            out.writeByte(ALOAD_1);
+            out.writeByte(INVOKEVIRTUAL); out.writeShort(needsService);
+            exitJumps[jumps++] = (code.size() << 8) | i;
+            out.writeByte(IFNE); out.writeShort(0);
+        }
+        exit(out, cp, cyclesField, block.cycles[n - 1], n);
+
+        // Sorties anticipées : "return i + 1", une par instruction sauf la dernière
+        int[] exitOffsets = new int[Math.max(n - 1, 0)];
+        for (int i = 0; i < n - 1; i++) {
+            exitOffsets[i] = code.size();
+            exit(out, cp, cyclesField, block.cycles[i], i + 1);
+        }
+        byte[] body = code.toByteArray();
+        for (int j = 0; j < jumps; j++) {
+            int at = exitJumps[j] >>> 8;
+            int delta = exitOffsets[exitJumps[j] & 0xFF] - at;
+            body[at + 1] = (byte) (delta >> 8);
+            body[at + 2] = (byte) delta;
+        }
+
+        // Table des frames : les locaux (this, cpu, block) ne changent jamais et la pile
+        // est vide à chaque sortie, donc une "same_frame" par cible de saut suffit
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        DataOutputStream fout = new DataOutputStream(frames);
+        int previous = -1;
+        for (int offset : exitOffsets) {
+            int delta = offset - previous - 1;
+            if (delta < 64) {
+                fout.writeByte(delta);              // same_frame
+            } else {
+                fout.writeByte(251);                // same_frame_extended
+                fout.writeShort(delta);
+            }
+            previous = offset;
+        }
+
+        // ----- fichier .class -----
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream cls = new DataOutputStream(bytes);
+        cls.writeInt(0xCAFEBABE);
+        cls.writeShort(0);                 // version mineure
+        cls.writeShort(52);                // Java 8 : StackMapTable obligatoire
+        cp.writeTo(cls);
+        cls.writeShort(0x0030);            // ACC_FINAL | ACC_SUPER
+        cls.writeShort(thisClass);
+        cls.writeShort(superClass);
+        cls.writeShort(1);
+        cls.writeShort(iface);
+        cls.writeShort(0);                 // aucun champ
+        cls.writeShort(2);                 // <init> et run
+
+        // public <init>() { super(); }
+        cls.writeShort(0x0001);
+        cls.writeShort(initName);
+        cls.writeShort(initDesc);
+        cls.writeShort(1);
+        cls.writeShort(codeAttr);
+        cls.writeInt(12 + 5);
+        cls.writeShort(1);                 // max_stack
+        cls.writeShort(1);                 // max_locals
+        cls.writeInt(5);
+        cls.writeByte(ALOAD_0);
+        cls.writeByte(INVOKESPECIAL); cls.writeShort(objectInit);
+        cls.writeByte(RETURN);
+        cls.writeShort(0);                 // exceptions
+        cls.writeShort(0);                 // attributs
+
+        // public int run(CPU cpu, Block block)
+        byte[] frameBytes = frames.toByteArray();
+        boolean hasFrames = exitOffsets.length > 0;
+        int stackMapLength = hasFrames ? 6 + 2 + frameBytes.length : 0;
+        cls.writeShort(0x0001);
+        cls.writeShort(runName);
+        cls.writeShort(runDesc);
+        cls.writeShort(1);
+        cls.writeShort(codeAttr);
+        cls.writeInt(12 + body.length + stackMapLength);
+        cls.writeShort(5);                 // max_stack : cpu, cpu.cycles (long), constante (long)
+        cls.writeShort(3);                 // max_locals : this, cpu, block
+        cls.writeInt(body.length);
+        cls.write(body);
+        cls.writeShort(0);                 // exceptions
+        if (hasFrames) {
+            cls.writeShort(1);
+            cls.writeShort(stackMapAttr);
+            cls.writeInt(2 + frameBytes.length);
+            cls.writeShort(exitOffsets.length);
+            cls.write(frameBytes);
+        } else {
+            cls.writeShort(0);
+        }
+
+        cls.writeShort(0);                 // attributs de classe
+        return bytes.toByteArray();
+    }
+
+    // cpu.cycles += cycles; return executed;
+    private static void exit(DataOutputStream out, ConstantPool cp, int cyclesField,
+                             int cycles, int executed) throws IOException {
+        int constant = cp.longConst(cycles);
+        out.writeByte(ALOAD_1);
+        out.writeByte(DUP);
+        out.writeByte(GETFIELD); out.writeShort(cyclesField);
+        out.writeByte(LDC2_W); out.writeShort(constant);
+        out.writeByte(LADD);
+        out.writeByte(PUTFIELD); out.writeShort(cyclesField);
+        out.writeByte(BIPUSH); out.writeByte(executed);
+        out.writeByte(IRETURN);
+    }
+
+    // ===== POOL DE CONSTANTES =====
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String s) throws IOException {
+            Integer index = entries.get("U" + s);
+            if (index != null) return index;
+            out.writeByte(1);
+            out.writeUTF(s);
+            return register("U" + s);
+        }
+
+        int integer(int value) throws IOException {
+            Integer index = entries.get("I" + value);
+            if (index != null) return index;
+            out.writeByte(3);
+            out.writeInt(value);
+            return register("I" + value);
+        }
+
+        // Une constante long occupe deux entrées du pool
+        int longConst(long value) throws IOException {
+            Integer index = entries.get("J" + value);
+            if (index != null) return index;
+            out.writeByte(5);
+            out.writeLong(value);
+            int registered = register("J" + value);
+            count++;
+            return registered;
+        }
+
+        int classRef(String name) throws IOException {
+            Integer index = entries.get("C" + name);
+            if (index != null) return index;
+            int nameIndex = utf8(name);
+            out.writeByte(7);
+            out.writeShort(nameIndex);
+            return register("C" + name);
+        }
+
+        // tag 9 = champ, 10 = méthode, 11 = méthode d'interface
+        int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = "M" + tag + owner + "." + name + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            int ownerIndex = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+            return register(key);
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            String key = "N" + name + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            int nameIndex = utf8(name);
+            int descIndex = utf8(descriptor);
+            out.writeByte(12);
+            out.writeShort(nameIndex);
+            out.writeShort(descIndex);
+            return register(key);
+        }
+
+        private int register(String key) {
+            entries.put(key, count);
+            return count++;
+        }
+
+        void writeTo(DataOutputStream cls) throws IOException {
+            cls.writeShort(count);
+            cls.write(bytes.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package cpu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Gestionnaire unique des breakpoints du CPU et des interfaces.
+// Bitmap de 64K bits (un bit par adresse) : le test coûte une seule lecture de tableau,
+// quel que soit le nombre de breakpoints posés.
+public class BreakpointManager {
+
+    private final long[] bits = new long[65536 / 64]; // 1024 mots de 64 bits
+    private int count = 0;                             // nombre de breakpoints posés
+
+    // Vrai si un breakpoint est posé à cette adresse
+    public boolean contains(int addr) {
+        int a = addr & 0xFFFF;
+        return (bits[a >>> 6] & (1L << a)) != 0;
+    }
+
+    // Pose un breakpoint, retourne faux s'il existait déjà
+    public boolean add(int addr) {
+        int a = addr & 0xFFFF;
+        long mask = 1L << a;
+        if ((bits[a >>> 6] & mask) != 0) return false;
+        bits[a >>> 6] |= mask;
+        count++;
+        return true;
+    }
+
+    // Retire un breakpoint, retourne faux s'il n'existait pas
+    public boolean remove(int addr) {
+        int a = addr & 0xFFFF;
+        long mask = 1L << a;
+        if ((bits[a >>> 6] & mask) == 0) return false;
+        bits[a >>> 6] &= ~mask;
+        count--;
+        return true;
+    }
+
+    // Retire tous les breakpoints
+    public void clear() {
+        if (count == 0) return;
+        java.util.Arrays.fill(bits, 0L);
+        count = 0;
+    }
+
+    // Nombre de breakpoints posés
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // Adresses des breakpoints, triées par ordre croissant
+    public List<Integer> list() {
+        List<Integer> result = new ArrayList<>(count);
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                result.add((w << 6) | bit);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+}
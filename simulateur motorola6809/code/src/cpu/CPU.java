@@ -1,6 +1,6 @@
 package cpu;
 
-import java.util.*;
+import java.util.List;
 import device.Keyboard6809;
 
 // CPU Motorola 6809
@@ -8,34 +8,53 @@ public class CPU {
 
     // ===== COEUR =====
     public final Registers reg = new Registers(); // registres
-    public final Memory mem = new Memory();       // mémoire
-    private final InstructionSet iset = new InstructionSet(); // jeu d'instructions
+    public final Memory mem;                      // mémoire (sur le tas par défaut)
+    private final ExecutionEngine engine;                     // moteur d'exécution
 
-    public boolean halted = false;                // état halt
+    private boolean halted = false;               // état halt
     private boolean waitingForInterrupt = false;  // attente interruption
+    private boolean illegalTrap = false;          // arrêt sur opcode illégal
 
-    // ===== IRQ =====
-    private boolean irqPending = false;           // IRQ en attente
+    // Une seule condition testée par les boucles d'exécution : vraie dès que
+    // halt, attente, IRQ ou opcode illégal demandent de sortir de la boucle
+    private volatile boolean attention = false;
 
-    // ===== PERIPHERIQUES =====
-    private Keyboard6809 keyboard;                // clavier
+    // ===== IRQ =====
+    private volatile boolean irqPending = false;  // IRQ en attente (peut venir d'un autre thread)
 
     // ===== DEBUG =====
-    private final List<Integer> breakpoints = new ArrayList<>(); // breakpoints
-    private int instructionsExecuted = 0;         // compteur instructions
+    private final BreakpointManager breakpoints = new BreakpointManager(); // breakpoints
+    private long instructionsExecuted = 0;        // compteur instructions
+    long cycles = 0;                              // cycles écoulés (mis à jour par les moteurs)
     private int lastPostByte = 0;                  // dernier postbyte
     private int lastEffectiveAddress = 0;          // dernière adresse effective
+    private ExecutionJournal journal = null;       // débogage à rebours (null = désactivé)
+    private TraceRecorder tracer = null;           // trace binaire (null = désactivée)
+    private Disassembler disassembler = null;      // créé à la première demande
 
     // ===== CONSTRUCTEUR =====
-    // Initialise le CPU
+    // Initialise le CPU avec le moteur par table
     public CPU() {
+        this(new TableEngine());
+    }
+
+    // Initialise le CPU avec un moteur d'exécution donné
+    public CPU(ExecutionEngine engine) {
+        this(engine, new Memory());
+    }
+
+    // Initialise le CPU avec un moteur et une mémoire donnés (ex. OffHeapMemory)
+    public CPU(ExecutionEngine engine, Memory mem) {
+        this.mem = mem;
+        this.engine = engine;
+        engine.attach(this);
         reset();
     }
 
     // ===== ATTACHEMENTS =====
-    // Attache le clavier
+    // Attache le clavier : ses registres DATA/STATUS sont branchés sur le bus
     public void attachKeyboard(Keyboard6809 kb) {
-        this.keyboard = kb;
+        mem.mapIo(Keyboard6809.DATA, Keyboard6809.STATUS, kb);
     }
 
     // ===== RESET =====
@@ -45,11 +64,16 @@ public class CPU {
         mem.clear();
         halted = false;
         waitingForInterrupt = false;
+        illegalTrap = false;
         instructionsExecuted = 0;
+        cycles = 0;
         breakpoints.clear();
         lastPostByte = 0;
         lastEffectiveAddress = 0;
         irqPending = false;
+        updateAttention();
+        if (journal != null) journal.clear();
+        engine.reset();
     }
 
     // ===== IRQ =====
@@ -57,24 +81,48 @@ public class CPU {
     public void triggerIRQ() {
         if (!reg.getFlag(Registers.FLAG_I)) {
             irqPending = true;
+            attention = true;
         }
     }
 
+    // ===== ETAT =====
+    public boolean isHalted() {
+        return halted;
+    }
+
+    // Arrête ou relance le CPU (relancer efface aussi l'arrêt sur opcode illégal)
+    public void setHalted(boolean halted) {
+        this.halted = halted;
+        if (!halted) {
+            waitingForInterrupt = false;
+            illegalTrap = false;
+        }
+        updateAttention();
+    }
+
+    private void updateAttention() {
+        attention = halted || waitingForInterrupt || irqPending;
+    }
+
     // ===== BREAKPOINTS =====
     // Ajoute un breakpoint
     public void addBreakpoint(int addr) {
-        int a = addr & 0xFFFF;
-        if (!breakpoints.contains(a)) breakpoints.add(a);
+        breakpoints.add(addr);
     }
 
     // Supprime un breakpoint
     public void removeBreakpoint(int addr) {
-        breakpoints.remove(Integer.valueOf(addr & 0xFFFF));
+        breakpoints.remove(addr);
     }
 
     // Retourne les breakpoints
     public List<Integer> getBreakpoints() {
-        return new ArrayList<>(breakpoints);
+        return breakpoints.list();
+    }
+
+    // Gestionnaire partagé avec les interfaces (console, GUI)
+    public BreakpointManager getBreakpointManager() {
+        return breakpoints;
     }
 
     // ===== FETCH =====
@@ -93,13 +141,14 @@ public class CPU {
     }
 
     // ===== MEMOIRE =====
-    // Lecture octet mémoire
+    // Lecture octet mémoire (les pages de périphériques sont aiguillées par le bus)
     public int readByte(int addr) {
-        addr &= 0xFFFF;
-        if (keyboard != null && (addr == 0xFF00 || addr == 0xFF01)) {
-            return keyboard.read(addr);
-        }
-        return Byte.toUnsignedInt(mem.readByte(addr));
+        return mem.readByte(addr) & 0xFF;
+    }
+
+    // Lecture sans effet de bord sur les périphériques (affichage, débogueur)
+    public int peekByte(int addr) {
+        return mem.peekByte(addr) & 0xFF;
     }
 
     // Lecture mot 16 bits
@@ -111,6 +160,7 @@ public class CPU {
 
     // Écriture octet mémoire
     public void writeByte(int addr, int val) {
+        if (journal != null) journal.recordWrite(addr & 0xFFFF, peekByte(addr));
         mem.writeByte(addr & 0xFFFF, (byte) (val & 0xFF));
     }
 
@@ -124,6 +174,7 @@ public class CPU {
     // Push octet
     public void pushStack(int v) {
         reg.SP = (reg.SP - 1) & 0xFFFF;
+        if (journal != null) journal.recordWrite(reg.SP, peekByte(reg.SP));
         mem.writeByte(reg.SP, (byte) (v & 0xFF));
     }
 
@@ -134,54 +185,175 @@ public class CPU {
         return v;
     }
 
-    // Push mot
+    // Push mot (octet fort à l'adresse basse, comme le 6809)
     public void pushWord(int v) {
-        pushStack((v >> 8) & 0xFF);
         pushStack(v & 0xFF);
+        pushStack((v >> 8) & 0xFF);
     }
 
     // Pop mot
     public int popWord() {
-        int lo = popStack();
         int hi = popStack();
+        int lo = popStack();
+        return ((hi << 8) | lo) & 0xFFFF;
+    }
+
+    // Pile utilisateur (U) : mêmes règles, écritures par le bus normal
+    private void pushUser(int v) {
+        reg.U = (reg.U - 1) & 0xFFFF;
+        writeByte(reg.U, v);
+    }
+
+    private void pushUserWord(int v) {
+        pushUser(v & 0xFF);
+        pushUser((v >> 8) & 0xFF);
+    }
+
+    private int pullUser() {
+        int v = readByte(reg.U);
+        reg.U = (reg.U + 1) & 0xFFFF;
+        return v;
+    }
+
+    private int pullUserWord() {
+        int hi = pullUser();
+        int lo = pullUser();
         return ((hi << 8) | lo) & 0xFFFF;
     }
 
     // ===== EXECUTION =====
-    // Exécute une instruction
+    // Exécute une instruction (ou prend l'IRQ en attente, qui réveille aussi un SYNC).
+    // Un breakpoint sur PC n'empêche pas le pas à pas : on passe dessus.
     public void step() {
-        if (halted || waitingForInterrupt) return;
+        if (illegalTrap) return;
 
         if (irqPending) {
-            handleIRQ();
-            irqPending = false;
+            takeIRQ();
             return;
         }
 
-        if (breakpoints.contains(reg.PC & 0xFFFF)) return;
+        if (halted || waitingForInterrupt) return;
 
-        int opcode = fetchByte();
-        InstructionSet.Instruction inst = iset.get(opcode);
+        executeOne();
+    }
+
+    // Une instruction, avec journal et trace s'ils sont actifs
+    private void executeOne() {
+        if (journal != null) journal.record(this, stateBits());
+        if (tracer == null) {
+            engine.step(this);
+        } else {
+            int pc = reg.PC;
+            long before = cycles;
+            int opcode = peekByte(pc);
+            if (opcode == 0x10 || opcode == 0x11) opcode = (opcode << 8) | peekByte(pc + 1);
+            engine.step(this);
+            tracer.record(this, pc, opcode, before);
+        }
+        instructionsExecuted++;
+    }
 
-        if (inst == null && opcode == 0x10)
-            inst = iset.get(0x100 | fetchByte());
-        else if (inst == null && opcode == 0x11)
-            inst = iset.get(0x1100 | fetchByte());
+    // Exécute jusqu'à budget instructions d'affilée (blocs enchaînés selon le moteur)
+    // et retourne la raison de l'arrêt. L'instruction au PC de départ est exécutée même
+    // si un breakpoint y est posé, pour pouvoir repartir d'un breakpoint.
+    public StopReason run(long budget) {
+        long done = 0;
+        StopReason reason = StopReason.BUDGET;
+
+        while (done < budget) {
+            if (attention) {
+                reason = service();
+                if (reason != null) break;
+                reason = StopReason.BUDGET;
+            }
+            if (breakpoints.isEmpty() && journal == null && tracer == null) {
+                int n = engine.execute(this, (int) Math.min(budget - done, Integer.MAX_VALUE));
+                done += n;
+                instructionsExecuted += n;
+            } else {
+                // Breakpoints posés, journal ou trace actifs : une instruction à la fois
+                if (done > 0 && breakpoints.contains(reg.PC)) {
+                    reason = StopReason.BREAKPOINT;
+                    break;
+                }
+                executeOne();
+                done++;
+            }
+        }
 
-        if (inst == null) {
-            System.err.printf("Opcode inconnu %02X @ %04X%n",
-                    opcode, (reg.PC - 1) & 0xFFFF);
-            halted = true;
-            return;
+        // Budget épuisé pile sur un arrêt : c'est l'arrêt qui compte
+        if (reason == StopReason.BUDGET && (halted || waitingForInterrupt)) {
+            reason = illegalTrap ? StopReason.ILLEGAL_OPCODE : StopReason.HALTED;
         }
+        return reason;
+    }
+
+    // Comme run(), mais le budget est en cycles. Le dernier bloc exécuté peut
+    // dépasser un peu la cible : l'appelant lit getCycles() pour le temps réel écoulé.
+    public StopReason runCycles(long budget) {
+        long target = cycles + budget;
+        while (cycles < target) {
+            // Au moins 2 cycles par instruction : viser le quart du reste
+            // garde le dépassement faible tout en avançant par gros paquets
+            StopReason reason = run(Math.max(1, (target - cycles) >> 2));
+            if (reason != StopReason.BUDGET) return reason;
+        }
+        return StopReason.BUDGET;
+    }
 
-        inst.execute(this);
-        instructionsExecuted++;
+    // Traite la condition signalée par attention ; null si l'exécution peut continuer
+    private StopReason service() {
+        if (illegalTrap) return StopReason.ILLEGAL_OPCODE;
+        if (irqPending) {
+            takeIRQ();
+            return StopReason.IRQ;
+        }
+        if (halted || waitingForInterrupt) return StopReason.HALTED;
+        updateAttention();
+        return null;
+    }
+
+    // Vrai si la boucle d'exécution du moteur doit rendre la main
+    boolean needsService() {
+        return attention;
+    }
+
+    // Piège d'opcode illégal : signale l'opcode et arrête le CPU
+    void illegalOpcode(int opcode) {
+        int length = opcode > 0xFF ? 2 : 1;
+        System.err.printf("Opcode inconnu %02X @ %04X%n",
+                opcode, (reg.PC - length) & 0xFFFF);
+        illegalTrap = true;
+        halted = true;
+        attention = true;
     }
 
     // ===== IRQ HANDLER =====
-    // Gère une interruption IRQ
+    private static final int IRQ_CYCLES = 19; // empilement de l'état complet + vecteur
+
+    // Prend l'IRQ en attente
+    private void takeIRQ() {
+        if (journal != null) journal.record(this, stateBits());
+        irqPending = false;
+        handleIRQ();
+        updateAttention();
+    }
+
+    // Gère une interruption IRQ. Après CWAI, l'état est déjà empilé (cycles comptés par CWAI)
     private void handleIRQ() {
+        if (waitingForInterrupt) {
+            waitingForInterrupt = false;
+        } else {
+            pushEntireState();
+            cycles += IRQ_CYCLES;
+        }
+        reg.setFlag(Registers.FLAG_I, true);
+        reg.PC = readWord(0xFFF8);
+        halted = false;
+    }
+
+    // Empile tous les registres sur S, E levé dans le CC empilé (IRQ, SWI, CWAI)
+    private void pushEntireState() {
         reg.setFlag(Registers.FLAG_E, true);
 
         pushWord(reg.PC);
@@ -191,18 +363,196 @@ public class CPU {
         pushStack(reg.DP);
         pushStack(reg.B);
         pushStack(reg.A);
-        pushStack(reg.CC);
+        pushStack(reg.getCC());
+    }
 
-        reg.setFlag(Registers.FLAG_I, true);
-        reg.PC = readWord(0xFFF8);
-        halted = false;
+    // SWI, SWI2, SWI3 : état complet empilé, puis saut au vecteur ($FFFA, $FFF4, $FFF2).
+    // Seul SWI masque IRQ et FIRQ.
+    void softwareInterrupt(int vector, boolean mask) {
+        pushEntireState();
+        if (mask) {
+            reg.setFlag(Registers.FLAG_I, true);
+            reg.setFlag(Registers.FLAG_F, true);
+        }
+        reg.PC = readWord(vector);
+    }
+
+    // CWAI : CC &= masque, état complet empilé, puis attente d'une interruption
+    // (l'IRQ qui réveille le CPU n'empile plus rien)
+    void waitForInterrupt(int mask) {
+        reg.setCC(reg.getCC() & mask);
+        pushEntireState();
+        waitingForInterrupt = true;
+        attention = true;
+    }
+
+    // ===== INSTANTANES =====
+    // Etat complet du CPU ; la mémoire est partagée en copie sur écriture (voir Memory)
+    public CpuSnapshot snapshot() {
+        return new CpuSnapshot(this, waitingForInterrupt, illegalTrap, irqPending, mem.snapshot());
+    }
+
+    // Revient à un instantané ; seules les pages mémoire qui diffèrent sont touchées.
+    // L'historique du débogage à rebours est effacé.
+    public void restore(CpuSnapshot s) {
+        restoreSnapshot(s);
+        if (journal != null) journal.clear();
+    }
+
+    private void restoreSnapshot(CpuSnapshot s) {
+        mem.restore(s.memory);
+        reg.A = s.a;
+        reg.B = s.b;
+        reg.X = s.x;
+        reg.Y = s.y;
+        reg.U = s.u;
+        reg.SP = s.sp;
+        reg.PC = s.pc;
+        reg.DP = s.dp;
+        reg.setCC(s.cc);
+        halted = s.halted;
+        waitingForInterrupt = s.waitingForInterrupt;
+        illegalTrap = s.illegalTrap;
+        irqPending = s.irqPending;
+        instructionsExecuted = s.instructionsExecuted;
+        cycles = s.cycles;
+        updateAttention();
+    }
+
+    // Nouveau CPU dans le même état, avec une copie du moteur (mêmes réglages) et de la
+    // mémoire (Memory.fork : même plan mémoire, ROM comprise). Les deux CPU partagent leurs
+    // pages mémoire jusqu'à ce que l'un d'eux y écrive. Breakpoints recopiés, périphériques
+    // non recopiés (ils restent branchés sur ce CPU).
+    public CPU fork() {
+        CpuSnapshot state = snapshot();
+        CPU child = new CPU(engine.copy(), mem.fork());
+        child.restore(state);
+        for (int addr : breakpoints.list()) child.breakpoints.add(addr);
+        return child;
+    }
+
+    // ===== DEBOGAGE A REBOURS =====
+    public static final long DEFAULT_REVERSE_BUDGET = 16L << 20; // 16 Mo
+
+    // Active le journal d'exécution dans la limite de budgetBytes octets (journal et
+    // points de reprise). Tant qu'il est actif, run() avance instruction par instruction.
+    public void enableReverse(long budgetBytes) {
+        journal = new ExecutionJournal(budgetBytes);
+    }
+
+    public void disableReverse() {
+        journal = null;
+    }
+
+    public boolean isReverseEnabled() {
+        return journal != null;
+    }
+
+    // Plus ancienne instruction encore atteignable en arrière
+    public long getReverseHorizon() {
+        requireJournal();
+        return journal.horizon(instructionsExecuted);
+    }
+
+    // Recule de n instructions (moins si l'historique ne remonte pas assez loin) ;
+    // retourne le nombre d'instructions effectivement défaites
+    public long stepBack(long n) {
+        requireJournal();
+        long start = instructionsExecuted;
+        seek(Math.max(start - n, journal.horizon(start)));
+        return start - instructionsExecuted;
+    }
+
+    // Remonte l'exécution jusqu'au breakpoint précédent. Faux si aucun breakpoint
+    // n'est rencontré : le CPU est alors au début de l'historique.
+    public boolean runBackward() {
+        requireJournal();
+        // Dans le journal : on défait les entrées une à une
+        while (!journal.isEmpty()) {
+            journal.undo(this);
+            if (!irqPending && breakpoints.contains(reg.PC)) return true;
+        }
+        // Au-delà : chaque intervalle entre deux points de reprise est rejoué en
+        // notant le dernier passage sur un breakpoint, du plus récent au plus ancien
+        long end = instructionsExecuted;
+        CpuSnapshot cp = journal.checkpointAtOrBefore(end - 1);
+        while (cp != null) {
+            restoreSnapshot(cp);
+            journal.rewindTo(cp);
+            long hit = -1;
+            while (instructionsExecuted < end && canAdvance()) {
+                if (!irqPending && breakpoints.contains(reg.PC)) hit = instructionsExecuted;
+                step();
+            }
+            if (hit >= 0) {
+                seek(hit);
+                return true;
+            }
+            end = cp.instructionsExecuted;
+            cp = journal.checkpointAtOrBefore(end - 1);
+        }
+        seek(journal.horizon(instructionsExecuted));
+        return false;
+    }
+
+    // Va à l'instruction target : retour par le journal, ou point de reprise puis rejeu
+    private void seek(long target) {
+        if (journal.isEmpty() || target < journal.oldestCount()) {
+            CpuSnapshot cp = journal.checkpointAtOrBefore(target);
+            if (cp != null) {
+                restoreSnapshot(cp);
+                journal.rewindTo(cp);
+                while (instructionsExecuted < target && canAdvance()) step();
+                return;
+            }
+        }
+        while (!journal.isEmpty() && instructionsExecuted > target) journal.undo(this);
+    }
+
+    // Faux si step() ne peut plus faire avancer l'exécution
+    private boolean canAdvance() {
+        return irqPending || !(halted || waitingForInterrupt);
+    }
+
+    private void requireJournal() {
+        if (journal == null) throw new IllegalStateException("Débogage à rebours non activé");
+    }
+
+    // Etat hors registres, compacté pour le journal
+    int stateBits() {
+        return (halted ? 1 : 0) | (waitingForInterrupt ? 2 : 0) | (illegalTrap ? 4 : 0) | (irqPending ? 8 : 0);
+    }
+
+    void restoreState(int state, long instructions, long cycles) {
+        halted = (state & 1) != 0;
+        waitingForInterrupt = (state & 2) != 0;
+        illegalTrap = (state & 4) != 0;
+        irqPending = (state & 8) != 0;
+        instructionsExecuted = instructions;
+        this.cycles = cycles;
+        updateAttention();
+    }
+
+    // ===== TRACE =====
+    // Branche (ou débranche avec null) une trace binaire. Tant qu'elle est branchée,
+    // run() avance instruction par instruction. La fermeture reste à l'appelant.
+    public void setTracer(TraceRecorder tracer) {
+        this.tracer = tracer;
+    }
+
+    public TraceRecorder getTracer() {
+        return tracer;
     }
 
     // ===== DEBUG =====
-    public int getInstructionsExecuted() {
+    public long getInstructionsExecuted() {
         return instructionsExecuted;
     }
 
+    public long getCycles() {
+        return cycles;
+    }
+
     public int getLastPostByte() {
         return lastPostByte;
     }
@@ -212,7 +562,18 @@ public class CPU {
     }
 
     public InstructionSet getInstructionSet() {
-        return iset;
+        return InstructionSet.INSTANCE;
+    }
+
+    // Désassembleur de la mémoire de ce CPU, partagé par tous les affichages.
+    // Créé à la demande : un CPU sans affichage ne surveille aucune page.
+    public Disassembler getDisassembler() {
+        if (disassembler == null) disassembler = new Disassembler(mem);
+        return disassembler;
+    }
+
+    public ExecutionEngine getEngine() {
+        return engine;
     }
 
     public void dumpState() {
@@ -221,13 +582,75 @@ public class CPU {
 
     // ===== ADRESSES =====
     public int calculateDirectAddress() {
-        int offset = fetchByte();
-        return ((reg.DP & 0xFF) << 8) | (offset & 0xFF);
+        return directAddress(fetchByte());
     }
 
+    // Lit le postbyte et son éventuel déplacement (8 ou 16 bits) à PC
     public int calculateIndexedAddress() {
-        int offset = (byte) fetchByte();
-        return (reg.X + offset) & 0xFFFF;
+        int postByte = fetchByte();
+        int offset = switch (IndexedPostByte.operandBytes(postByte)) {
+            case 1 -> fetchByte();
+            case 2 -> fetchWord();
+            default -> 0;
+        };
+        return indexedAddress(postByte, offset);
+    }
+
+    // Adresse directe à partir de l'octet d'opérande déjà lu
+    public int directAddress(int offset) {
+        return lastEffectiveAddress = ((reg.DP & 0xFF) << 8) | (offset & 0xFF);
+    }
+
+    // Adresse indexée à partir du postbyte et du déplacement déjà lus (0 si la forme n'en a pas).
+    // Pour les formes relatives à PC, PC pointe déjà après l'instruction.
+    public int indexedAddress(int postByte, int offset) {
+        int e = IndexedPostByte.DECODE[postByte & 0xFF];
+        cycles += IndexedPostByte.cycles(e);
+        lastPostByte = postByte & 0xFF;
+
+        int r = IndexedPostByte.base(e);
+        int base = indexRegister(r);
+        int step = IndexedPostByte.step(e);
+        if (step < 0) {
+            base = (base + step) & 0xFFFF;                    // ,-R  ,--R
+            setIndexRegister(r, base);
+        } else if (step > 0) {
+            setIndexRegister(r, (base + step) & 0xFFFF);      // ,R+  ,R++
+        }
+
+        int ea = switch (IndexedPostByte.offsetKind(e)) {
+            case IndexedPostByte.OFFSET_5 -> base + IndexedPostByte.constant(e);
+            case IndexedPostByte.OFFSET_8 -> base + (byte) offset;
+            case IndexedPostByte.OFFSET_16 -> base + offset;
+            case IndexedPostByte.OFFSET_A -> base + (byte) reg.A;
+            case IndexedPostByte.OFFSET_B -> base + (byte) reg.B;
+            case IndexedPostByte.OFFSET_D -> base + (short) reg.D();
+            default -> base;
+        } & 0xFFFF;
+        if (IndexedPostByte.indirect(e)) ea = readWord(ea);
+        return lastEffectiveAddress = ea;
+    }
+
+    // Registre de base d'une entrée de IndexedPostByte
+    private int indexRegister(int r) {
+        return switch (r) {
+            case IndexedPostByte.BASE_X -> reg.X;
+            case IndexedPostByte.BASE_Y -> reg.Y;
+            case IndexedPostByte.BASE_U -> reg.U;
+            case IndexedPostByte.BASE_S -> reg.SP;
+            case IndexedPostByte.BASE_PC -> reg.PC;
+            default -> 0;
+        };
+    }
+
+    // Auto-incrément / décrément (seuls X, Y, U et S en ont)
+    private void setIndexRegister(int r, int value) {
+        switch (r) {
+            case IndexedPostByte.BASE_X -> reg.X = value;
+            case IndexedPostByte.BASE_Y -> reg.Y = value;
+            case IndexedPostByte.BASE_U -> reg.U = value;
+            default -> reg.SP = value;
+        }
     }
 
     public int calculateExtendedAddress() {
@@ -243,11 +666,11 @@ public class CPU {
         if ((mask & 0x08) != 0) pushStack(reg.DP);
         if ((mask & 0x04) != 0) pushStack(reg.B);
         if ((mask & 0x02) != 0) pushStack(reg.A);
-        if ((mask & 0x01) != 0) pushStack(reg.CC);
+        if ((mask & 0x01) != 0) pushStack(reg.getCC());
     }
 
     public void pullMultiple(int mask) {
-        if ((mask & 0x01) != 0) reg.CC = popStack();
+        if ((mask & 0x01) != 0) reg.setCC(popStack());
         if ((mask & 0x02) != 0) reg.A  = popStack();
         if ((mask & 0x04) != 0) reg.B  = popStack();
         if ((mask & 0x08) != 0) reg.DP = popStack();
@@ -257,6 +680,29 @@ public class CPU {
         if ((mask & 0x80) != 0) reg.PC = popWord();
     }
 
+    // PSHU / PULU : le bit 6 du masque désigne S au lieu de U
+    public void pushUserMultiple(int mask) {
+        if ((mask & 0x80) != 0) pushUserWord(reg.PC);
+        if ((mask & 0x40) != 0) pushUserWord(reg.SP);
+        if ((mask & 0x20) != 0) pushUserWord(reg.Y);
+        if ((mask & 0x10) != 0) pushUserWord(reg.X);
+        if ((mask & 0x08) != 0) pushUser(reg.DP);
+        if ((mask & 0x04) != 0) pushUser(reg.B);
+        if ((mask & 0x02) != 0) pushUser(reg.A);
+        if ((mask & 0x01) != 0) pushUser(reg.getCC());
+    }
+
+    public void pullUserMultiple(int mask) {
+        if ((mask & 0x01) != 0) reg.setCC(pullUser());
+        if ((mask & 0x02) != 0) reg.A  = pullUser();
+        if ((mask & 0x04) != 0) reg.B  = pullUser();
+        if ((mask & 0x08) != 0) reg.DP = pullUser();
+        if ((mask & 0x10) != 0) reg.X  = pullUserWord();
+        if ((mask & 0x20) != 0) reg.Y  = pullUserWord();
+        if ((mask & 0x40) != 0) reg.SP = pullUserWord();
+        if ((mask & 0x80) != 0) reg.PC = pullUserWord();
+    }
+
     // ===== REGISTRES =====
     public void exchangeRegisters(int r1, int r2) {
         int v1 = getRegisterValue(r1);
@@ -279,7 +725,7 @@ public class CPU {
             case 5 -> reg.PC;
             case 8 -> reg.A;
             case 9 -> reg.B;
-            case 10 -> reg.CC;
+            case 10 -> reg.getCC();
             case 11 -> reg.DP;
             default -> 0;
         };
@@ -295,7 +741,7 @@ public class CPU {
             case 5 -> reg.PC = value;
             case 8 -> reg.A = value;
             case 9 -> reg.B = value;
-            case 10 -> reg.CC = value;
+            case 10 -> reg.setCC(value);
             case 11 -> reg.DP = value;
         }
     }
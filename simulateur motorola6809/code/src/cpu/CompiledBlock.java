@@ -0,0 +1,8 @@
+package cpu;
+
+// Bloc de base recompilé en bytecode JVM (classe cachée générée par BlockCompiler).
+// Exécute tout le bloc et retourne le nombre d'instructions exécutées :
+// moins que la taille du bloc si un saut est pris ou si le bloc est invalidé en cours de route.
+interface CompiledBlock {
+    int run(CPU cpu, BlockCacheEngine.Block block);
+}
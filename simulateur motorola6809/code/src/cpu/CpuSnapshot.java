@@ -0,0 +1,50 @@
+package cpu;
+
+// Etat complet et immuable d'un CPU à un instant donné (voir CPU.snapshot()).
+// La mémoire est un Memory.Snapshot : les pages sont partagées, rien n'est copié.
+public final class CpuSnapshot {
+
+    // ===== REGISTRES =====
+    public final int a, b, x, y, u, sp, pc, dp, cc;
+
+    // ===== ETAT =====
+    public final boolean halted;
+    final boolean waitingForInterrupt;
+    final boolean illegalTrap;
+    final boolean irqPending;
+    public final long instructionsExecuted;
+    public final long cycles;
+    public final int lastPostByte;
+    public final int lastEffectiveAddress;
+
+    // ===== MEMOIRE =====
+    final Memory.Snapshot memory;
+
+    CpuSnapshot(CPU cpu, boolean waitingForInterrupt, boolean illegalTrap, boolean irqPending,
+                Memory.Snapshot memory) {
+        Registers r = cpu.reg;
+        this.a = r.A;
+        this.b = r.B;
+        this.x = r.X;
+        this.y = r.Y;
+        this.u = r.U;
+        this.sp = r.SP;
+        this.pc = r.PC;
+        this.dp = r.DP;
+        this.cc = r.getCC();
+        this.halted = cpu.isHalted();
+        this.waitingForInterrupt = waitingForInterrupt;
+        this.illegalTrap = illegalTrap;
+        this.irqPending = irqPending;
+        this.instructionsExecuted = cpu.getInstructionsExecuted();
+        this.cycles = cpu.getCycles();
+        this.lastPostByte = cpu.getLastPostByte();
+        this.lastEffectiveAddress = cpu.getLastEffectiveAddress();
+        this.memory = memory;
+    }
+
+    // Octet mémoire au moment de l'instantané
+    public int readByte(int address) {
+        return memory.readByte(address) & 0xFF;
+    }
+}
@@ -0,0 +1,315 @@
+package cpu;
+
+// Désassembleur partagé par la fenêtre principale, le panneau de débogage et le mode pas à pas.
+//
+// Le décodage suit les métadonnées d'InstructionSet (mode d'adressage de chaque opcode)
+// et la table des postbytes indexés : la longueur d'une instruction est donc toujours
+// exacte, préfixe $10/$11 et octets de déplacement compris.
+//
+// Chaque ligne décodée est gardée en cache par adresse de départ. Les pages qui portent
+// une ligne en cache sont surveillées (observateur Memory) : une écriture n'invalide que
+// les lignes dont elle touche les octets. Rafraîchir la liste après un pas, ou la faire
+// défiler sur du code déjà vu, ne décode donc plus rien.
+//
+// Les méthodes sont synchronisées : l'interface lit le cache pendant que le thread
+// d'exécution l'invalide.
+public final class Disassembler {
+
+    // Préfixe + opcode + postbyte + déplacement 16 bits
+    public static final int MAX_LENGTH = 5;
+
+    // Au-delà, le cache est vidé (évite de surveiller toute la mémoire après un long défilement)
+    private static final int MAX_LINES = 4096;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final String[] TFR_REGISTERS = {
+            "D", "X", "Y", "U", "S", "PC", "?", "?", "A", "B", "CC", "DP", "?", "?", "?", "?"
+    };
+    private static final String[] INDEX_REGISTERS = {"X", "Y", "U", "S", "PCR"};
+
+    // Une instruction décodée
+    public record Line(int address, int length, String text, String listing) {
+        @Override
+        public String toString() {
+            return listing;
+        }
+    }
+
+    private final Memory mem;
+    private final int watchSlot;                      // numéro d'observateur dans Memory
+
+    private final Line[][] lines = new Line[256][];   // adresse de départ -> ligne, par page
+    private final int[] pageLines = new int[256];     // nombre de lignes qui touchent chaque page
+    private int cachedLines;
+
+    public Disassembler(Memory mem) {
+        this.mem = mem;
+        this.watchSlot = mem.addWatcher(new Watcher());
+    }
+
+    // ===== LECTURE =====
+    // Ligne décodée à une adresse (depuis le cache si possible)
+    public synchronized Line line(int address) {
+        int a = address & 0xFFFF;
+        Line[] page = lines[a >>> 8];
+        Line line = page != null ? page[a & 0xFF] : null;
+        if (line == null) line = cache(a);
+        return line;
+    }
+
+    // Mnémonique et opérande (ex. "LDA #$12")
+    public String text(int address) {
+        return line(address).text();
+    }
+
+    // Longueur en octets de l'instruction à cette adresse
+    public int length(int address) {
+        return line(address).length();
+    }
+
+    // Adresse de l'instruction suivante
+    public int next(int address) {
+        return (address + length(address)) & 0xFFFF;
+    }
+
+    // count lignes consécutives à partir de start, une par ligne de texte
+    public synchronized String listing(int start, int count) {
+        StringBuilder sb = new StringBuilder(count * 40);
+        int a = start & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            Line line = line(a);
+            sb.append(line.listing()).append('\n');
+            a = (a + line.length()) & 0xFFFF;
+        }
+        return sb.toString();
+    }
+
+    // Vide le cache et rend toutes les pages surveillées au chemin rapide
+    public synchronized void flush() {
+        for (int page = 0; page < 256; page++) {
+            lines[page] = null;
+            if (pageLines[page] > 0) {
+                pageLines[page] = 0;
+                mem.watchPage(watchSlot, page, false);
+            }
+        }
+        cachedLines = 0;
+    }
+
+    // ===== CACHE =====
+    private Line cache(int a) {
+        if (cachedLines >= MAX_LINES) flush();
+
+        // Surveillance posée avant de lire les octets : une écriture concurrente
+        // attend la fin du décodage puis invalide la ligne
+        int first = a >>> 8;
+        int last = ((a + MAX_LENGTH - 1) & 0xFFFF) >>> 8;
+        watch(first, 1);
+        if (last != first) watch(last, 1);
+
+        Line line = decode(a);
+        if (last != first && ((a + line.length() - 1) & 0xFFFF) >>> 8 == first) watch(last, -1);
+
+        Line[] page = lines[first];
+        if (page == null) page = lines[first] = new Line[256];
+        page[a & 0xFF] = line;
+        cachedLines++;
+        return line;
+    }
+
+    private void remove(Line line) {
+        int a = line.address();
+        lines[a >>> 8][a & 0xFF] = null;
+        cachedLines--;
+        int first = a >>> 8;
+        int last = ((a + line.length() - 1) & 0xFFFF) >>> 8;
+        watch(first, -1);
+        if (last != first) watch(last, -1);
+    }
+
+    private void watch(int page, int delta) {
+        int before = pageLines[page];
+        pageLines[page] += delta;
+        if ((before > 0) != (pageLines[page] > 0)) mem.watchPage(watchSlot, page, pageLines[page] > 0);
+    }
+
+    // Observateur mémoire : écriture d'un octet, ou page entière remplacée
+    private final class Watcher implements Memory.WriteWatcher {
+        @Override
+        public void written(int address) {
+            Disassembler.this.written(address);
+        }
+
+        @Override
+        public void pageWritten(int page) {
+            Disassembler.this.pageWritten(page);
+        }
+    }
+
+    // Appelé par Memory pour chaque écriture dans une page surveillée :
+    // une ligne qui couvre address commence au plus MAX_LENGTH - 1 octets avant
+    private synchronized void written(int address) {
+        for (int back = 0; back < MAX_LENGTH; back++) {
+            int start = (address - back) & 0xFFFF;
+            Line[] page = lines[start >>> 8];
+            Line line = page != null ? page[start & 0xFF] : null;
+            if (line != null && line.length() > back) remove(line);
+        }
+    }
+
+    // Page remplacée d'un bloc : les lignes qui commencent dans la page ou la chevauchent
+    // depuis la précédente, en un seul passage
+    private synchronized void pageWritten(int page) {
+        int base = page << 8;
+        for (int back = MAX_LENGTH - 1; back > -Memory.PAGE_SIZE; back--) {
+            int start = (base - back) & 0xFFFF;
+            Line[] linesOfPage = lines[start >>> 8];
+            Line line = linesOfPage != null ? linesOfPage[start & 0xFF] : null;
+            if (line != null && line.length() > back) remove(line);
+        }
+    }
+
+    // ===== DECODAGE =====
+    private Line decode(int a) {
+        int opcode = peek(a);
+        int size = 1;
+        if (opcode == 0x10 || opcode == 0x11) {
+            opcode = opcode << 8 | peek(a + 1);
+            size = 2;
+        }
+        AddressingMode mode = InstructionSet.modeOf(opcode);
+        if (mode == null) return line(a, 1, "FCB $" + hex2(peek(a)));
+
+        String name = InstructionSet.INSTANCE.getName(opcode);
+        int space = name.indexOf(' ');
+        StringBuilder text = new StringBuilder(24).append(space < 0 ? name : name.substring(0, space));
+        int o = a + size; // premier octet d'opérande
+
+        switch (mode) {
+            case INHERENT -> { }
+            case IMMEDIATE -> {
+                int value = peek(o);
+                size += 1;
+                text.append(' ');
+                if (opcode == 0x1E || opcode == 0x1F) {
+                    text.append(TFR_REGISTERS[value >>> 4]).append(',').append(TFR_REGISTERS[value & 0x0F]);
+                } else if (opcode >= 0x34 && opcode <= 0x37) {
+                    appendRegisterList(text, value, opcode >= 0x36 ? "S" : "U");
+                } else {
+                    text.append("#$").append(hex2(value));
+                }
+            }
+            case IMMEDIATE_16 -> {
+                size += 2;
+                text.append(" #$").append(hex4(peekWord(o)));
+            }
+            case DIRECT -> {
+                size += 1;
+                text.append(" <$").append(hex2(peek(o)));
+            }
+            case EXTENDED -> {
+                size += 2;
+                text.append(" $").append(hex4(peekWord(o)));
+            }
+            case RELATIVE -> {
+                size += 1;
+                text.append(" $").append(hex4(a + size + (byte) peek(o)));
+            }
+            case RELATIVE_16 -> {
+                size += 2;
+                text.append(" $").append(hex4(a + size + (short) peekWord(o)));
+            }
+            case INDEXED -> {
+                int postByte = peek(o);
+                int extra = IndexedPostByte.operandBytes(postByte);
+                size += 1 + extra;
+                int offset = extra == 2 ? peekWord(o + 1) : extra == 1 ? peek(o + 1) : 0;
+                text.append(' ');
+                appendIndexed(text, postByte, offset, a + size);
+            }
+            default -> throw new IllegalStateException("Mode non supporté : " + mode);
+        }
+        return line(a, size, text.toString());
+    }
+
+    // Opérande indexé : n,R  ,R+  ,--R  A,R  n,PCR  [n,R]  [n]
+    private static void appendIndexed(StringBuilder sb, int postByte, int offset, int next) {
+        int e = IndexedPostByte.DECODE[postByte];
+        int base = IndexedPostByte.base(e);
+        boolean indirect = IndexedPostByte.indirect(e);
+        if (indirect) sb.append('[');
+
+        if (base == IndexedPostByte.BASE_NONE) {
+            sb.append('$').append(hex4(offset));
+        } else {
+            String r = INDEX_REGISTERS[base];
+            switch (IndexedPostByte.offsetKind(e)) {
+                case IndexedPostByte.OFFSET_NONE -> {
+                    int step = IndexedPostByte.step(e);
+                    sb.append(',');
+                    if (step == -1) sb.append('-');
+                    if (step == -2) sb.append("--");
+                    sb.append(r);
+                    if (step == 1) sb.append('+');
+                    if (step == 2) sb.append("++");
+                }
+                case IndexedPostByte.OFFSET_5 -> sb.append(IndexedPostByte.constant(e)).append(',').append(r);
+                case IndexedPostByte.OFFSET_A -> sb.append("A,").append(r);
+                case IndexedPostByte.OFFSET_B -> sb.append("B,").append(r);
+                case IndexedPostByte.OFFSET_D -> sb.append("D,").append(r);
+                default -> {
+                    // 8 ou 16 bits ; relatif au PC : on affiche l'adresse visée
+                    int n = IndexedPostByte.offsetKind(e) == IndexedPostByte.OFFSET_8 ? (byte) offset : (short) offset;
+                    if (base == IndexedPostByte.BASE_PC) {
+                        sb.append('$').append(hex4(next + n));
+                    } else {
+                        if (n < 0) sb.append('-');
+                        sb.append('$').append(Math.abs(n) > 0xFF ? hex4(Math.abs(n)) : hex2(Math.abs(n)));
+                    }
+                    sb.append(',').append(r);
+                }
+            }
+        }
+        if (indirect) sb.append(']');
+    }
+
+    // Liste de registres de PSHS/PULS/PSHU/PULU (other = U pour la pile S, S pour la pile U)
+    private static void appendRegisterList(StringBuilder sb, int mask, String other) {
+        String[] names = {"CC", "A", "B", "DP", "X", "Y", other, "PC"};
+        boolean first = true;
+        for (int bit = 0; bit < 8; bit++) {
+            if ((mask & (1 << bit)) == 0) continue;
+            if (!first) sb.append(',');
+            sb.append(names[bit]);
+            first = false;
+        }
+    }
+
+    // Ligne complète : adresse, octets de l'instruction, texte
+    private Line line(int a, int size, String text) {
+        StringBuilder sb = new StringBuilder(20 + MAX_LENGTH * 3 + text.length());
+        sb.append(hex4(a)).append(" : ");
+        for (int i = 0; i < MAX_LENGTH; i++) {
+            if (i < size) sb.append(hex2(peek(a + i))).append(' ');
+            else sb.append("   ");
+        }
+        sb.append(' ').append(text);
+        return new Line(a, size, text, sb.toString());
+    }
+
+    private int peek(int address) {
+        return mem.peekByte(address & 0xFFFF) & 0xFF;
+    }
+
+    private int peekWord(int address) {
+        return peek(address) << 8 | peek(address + 1);
+    }
+
+    private static String hex2(int v) {
+        return new String(new char[]{HEX[(v >>> 4) & 0xF], HEX[v & 0xF]});
+    }
+
+    private static String hex4(int v) {
+        return new String(new char[]{HEX[(v >>> 12) & 0xF], HEX[(v >>> 8) & 0xF], HEX[(v >>> 4) & 0xF], HEX[v & 0xF]});
+    }
+}
@@ -0,0 +1,196 @@
+package cpu;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Thread d'émulation : le seul thread qui touche au CPU (registres, mémoire, breakpoints,
+// désassembleur) une fois start() appelé.
+//
+// Les actions de l'interface (pas à pas, exécution, écriture mémoire, chargement,
+// breakpoints...) sont des commandes déposées dans une file sans verrou à plusieurs
+// producteurs (ConcurrentLinkedQueue). Le thread les exécute entre deux tranches
+// d'instructions, dans l'ordre de dépôt : aucune écriture concurrente, aucun état à moitié
+// modifié.
+//
+// Dans l'autre sens, l'état sort sous forme d'images immuables (Frame : instantané du CPU,
+// lignes mémoire modifiées, instruction courante, désassemblage) publiées par
+// SnapshotPublisher dans un dépôt à une place échangé atomiquement. Le thread d'émulation
+// n'attend jamais l'interface, et l'interface ne bloque jamais l'émulation : elle lit la
+// dernière image publiée. Une image remplacée avant d'être lue lui lègue ses lignes
+// modifiées, donc l'interface ne perd aucune modification.
+public final class EmulationThread {
+
+    // Lignes de désassemblage jointes à chaque image
+    public static final int DISASSEMBLY_LINES = 8;
+
+    // Action exécutée sur le thread d'émulation, avec accès exclusif au CPU
+    public interface Command {
+        void run(CPU cpu);
+    }
+
+    // État publié vers l'interface (immuable). changes : lignes écrites depuis l'image
+    // précédente, relevées au moment de l'instantané
+    public record Frame(CpuSnapshot state, Memory.DirtySet changes, boolean running,
+                        String instruction, String disassembly) {
+
+        // Remplace une image non lue : ses lignes modifiées s'ajoutent aux nôtres
+        Frame after(Frame unread) {
+            return new Frame(state, unread.changes.union(changes), running, instruction, disassembly);
+        }
+    }
+
+    private final CPU cpu;
+    private final SpeedGovernor governor;
+    private final SnapshotPublisher<Frame> publisher;
+    private final Memory.DirtySubscriber dirty;
+    private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+
+    private volatile boolean running;   // exécution continue (écrit par le thread d'émulation)
+    private volatile boolean shutdown;
+    private volatile Consumer<StopReason> stopListener = reason -> { };
+
+    // wake est appelé (depuis le thread d'émulation) quand une image attend d'être lue.
+    // Chaque image porte un instantané de la mémoire : une mémoire hors tas (OffHeapMemory,
+    // BankedMemory) est refusée ici plutôt que de faire mourir le thread à la première image.
+    public EmulationThread(CPU cpu, int hz, Runnable wake) {
+        if (!cpu.mem.supportsSnapshots()) {
+            throw new IllegalArgumentException("Instantanés non supportés par " + cpu.mem.getClass().getSimpleName());
+        }
+        this.cpu = cpu;
+        this.governor = new SpeedGovernor(cpu, SpeedGovernor.MHZ_1);
+        this.dirty = cpu.mem.subscribeDirty();
+        this.publisher = new SnapshotPublisher<>(this::capture, (unread, next) -> next.after(unread), hz, wake);
+        this.thread = new Thread(this::loop, "6809-emulation");
+        this.thread.setDaemon(true);
+    }
+
+    // ===== CYCLE DE VIE =====
+    // Avant start(), le CPU peut encore être préparé directement par le thread appelant
+    public void start() {
+        thread.start();
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(thread);
+    }
+
+    // ===== COMMANDES (tout thread) =====
+    public void submit(Command command) {
+        commands.add(command);
+        LockSupport.unpark(thread);
+    }
+
+    // Lance l'exécution continue, au rythme du régulateur
+    public void run() {
+        submit(c -> {
+            if (running) return;
+            governor.restart();
+            running = true;
+        });
+    }
+
+    // Arrête l'exécution continue
+    public void stop() {
+        submit(c -> running = false);
+    }
+
+    // Écrit un octet en mémoire
+    public void poke(int address, int value) {
+        submit(c -> c.writeByte(address & 0xFFFF, value & 0xFF));
+    }
+
+    // Copie une image en mémoire et place le PC sur son point d'entrée
+    public void load(int address, byte[] data, int entry) {
+        byte[] copy = data.clone();
+        submit(c -> {
+            c.mem.load(address & 0xFFFF, copy, 0, copy.length);
+            c.reg.PC = entry & 0xFFFF;
+        });
+    }
+
+    // Republie l'état courant (affichage initial, changement de fenêtre...)
+    public void refresh() {
+        submit(c -> { });
+    }
+
+    // Appelé sur le thread d'émulation quand l'exécution continue s'arrête d'elle-même
+    // (breakpoint, HALT, opcode illégal) : le CPU peut y être lu sans risque
+    public void setStopListener(Consumer<StopReason> listener) {
+        stopListener = listener != null ? listener : reason -> { };
+    }
+
+    // ===== ETAT (tout thread) =====
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Réglages de vitesse et mesures (volatiles)
+    public SpeedGovernor getGovernor() {
+        return governor;
+    }
+
+    public void setRate(int hz) {
+        publisher.setRate(hz);
+    }
+
+    // Dernière image publiée, null si elle a déjà été lue
+    public Frame take() {
+        return publisher.take();
+    }
+
+    // ===== THREAD D'EMULATION =====
+    private void loop() {
+        while (!shutdown) {
+            boolean executed = drain();
+            if (running) {
+                StopReason reason = slice();
+                if (reason == StopReason.BUDGET || reason == StopReason.IRQ) {
+                    if (executed) publisher.publish();
+                    else publisher.offer();
+                } else {
+                    running = false;
+                    publisher.publish();
+                    stopListener.accept(reason);
+                }
+            } else {
+                if (executed) publisher.publish();
+                if (commands.isEmpty() && !shutdown) LockSupport.park(this);
+            }
+        }
+    }
+
+    // Exécute les commandes en attente ; une commande qui échoue n'arrête pas le thread
+    private boolean drain() {
+        boolean executed = false;
+        Command command;
+        while ((command = commands.poll()) != null) {
+            executed = true;
+            try {
+                command.run(cpu);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        return executed;
+    }
+
+    private StopReason slice() {
+        try {
+            return governor.runSlice();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            cpu.setHalted(true);
+            return StopReason.HALTED;
+        }
+    }
+
+    private Frame capture() {
+        CpuSnapshot s = cpu.snapshot();
+        Memory.DirtySet changes = dirty.poll();
+        Disassembler dis = cpu.getDisassembler();
+        return new Frame(s, changes, running, dis.text(s.pc), dis.listing(s.pc, DISASSEMBLY_LINES));
+    }
+}
@@ -0,0 +1,49 @@
+package cpu;
+
+// Moteur d'exécution du CPU : décode et exécute l'instruction située à PC.
+// Le moteur est choisi à la construction du CPU (voir CPU(ExecutionEngine)).
+public interface ExecutionEngine {
+
+    // Exécute une instruction complète (préfixe, opcode et opérandes)
+    void step(CPU cpu);
+
+    // Exécute jusqu'à max instructions d'affilée et retourne le nombre exécuté.
+    // S'arrête plus tôt si le CPU s'arrête ou si une IRQ est en attente.
+    default int execute(CPU cpu, int max) {
+        int done = 0;
+        while (done < max) {
+            step(cpu);
+            done++;
+            if (cpu.needsService()) break;
+        }
+        return done;
+    }
+
+    // Appelé une fois par le CPU qui utilise ce moteur
+    default void attach(CPU cpu) {
+    }
+
+    // Appelé à chaque reset du CPU (vider les caches éventuels)
+    default void reset() {
+    }
+
+    // Nom court du moteur (affichage, mesures)
+    String getName();
+
+    // Nouveau moteur du même type et avec les mêmes réglages, pas encore attaché (CPU.fork).
+    // À redéfinir par un moteur qui a des réglages.
+    default ExecutionEngine copy() {
+        return forName(getName());
+    }
+
+    // Retourne le moteur correspondant à un nom : "table", "switch", "block" ou "recompiler"
+    static ExecutionEngine forName(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "table" -> new TableEngine();
+            case "switch" -> new SwitchEngine();
+            case "block" -> new BlockCacheEngine();
+            case "recompiler" -> new RecompilingEngine();
+            default -> throw new IllegalArgumentException("Moteur inconnu : " + name);
+        };
+    }
+}
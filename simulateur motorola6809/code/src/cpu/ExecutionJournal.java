@@ -0,0 +1,185 @@
+package cpu;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+// Journal d'exécution pour le débogage à rebours (voir CPU.enableReverse).
+//
+// - une entrée par instruction (ou prise d'IRQ) : les registres et l'état avant exécution,
+//   compactés dans des tableaux de long préalloués ;
+// - une entrée par octet écrit : adresse et ancienne valeur, dans un tableau d'int ;
+// - des points de reprise complets (CpuSnapshot, copie sur écriture) à intervalle régulier.
+//
+// Revenir en arrière dans le journal se fait en défaisant les écritures. Au-delà, on repart
+// du point de reprise le plus proche et on rejoue jusqu'à l'instruction voulue : le rejeu
+// suppose qu'aucune entrée extérieure (clavier, IRQ) n'est arrivée entre-temps.
+final class ExecutionJournal {
+
+    private static final int ENTRY_BYTES = 5 * Long.BYTES;  // regs (2), instructions, cycles, écritures
+    private static final int WRITES_PER_ENTRY = 2;          // moyenne prévue d'octets écrits
+
+    // ===== INSTRUCTIONS =====
+    private final long[] regs1;        // PC, SP, X, Y
+    private final long[] regs2;        // U, A, B, DP, CC, état
+    private final long[] counts;       // instructions exécutées avant l'entrée
+    private final long[] cycles;       // cycles avant l'entrée
+    private final long[] writeMarks;   // position dans le journal des écritures
+    private final int entryMask;
+    private long head;                 // entrées enregistrées (indice absolu)
+    private long tail;                 // plus ancienne entrée encore valide
+
+    // ===== ECRITURES =====
+    private final int[] writes;        // (adresse << 8) | ancienne valeur
+    private final int writeMask;
+    private long writeHead;
+
+    // ===== POINTS DE REPRISE =====
+    private final ArrayDeque<CpuSnapshot> checkpoints = new ArrayDeque<>();
+    private final ArrayDeque<Long> checkpointCosts = new ArrayDeque<>();
+    private final long checkpointBudget;
+    private final long checkpointInterval;
+    private long checkpointBytes;
+
+    // Budget mémoire en octets : une moitié pour le journal, l'autre pour les points de reprise
+    ExecutionJournal(long budgetBytes) {
+        long half = budgetBytes / 2;
+        int entries = Integer.highestOneBit((int) Math.max(64,
+                Math.min(1 << 24, half / (ENTRY_BYTES + WRITES_PER_ENTRY * Integer.BYTES))));
+        regs1 = new long[entries];
+        regs2 = new long[entries];
+        counts = new long[entries];
+        cycles = new long[entries];
+        writeMarks = new long[entries];
+        entryMask = entries - 1;
+        writes = new int[entries * WRITES_PER_ENTRY];
+        writeMask = writes.length - 1;
+        checkpointBudget = half;
+        // Un point de reprise par demi-journal : le rejeu reste court
+        checkpointInterval = entries / 2;
+    }
+
+    // ===== ENREGISTREMENT =====
+    // Avant chaque instruction ou prise d'IRQ
+    void record(CPU cpu, int state) {
+        long count = cpu.getInstructionsExecuted();
+        CpuSnapshot last = checkpoints.peekLast();
+        if (last == null || count - last.instructionsExecuted >= checkpointInterval) {
+            checkpoint(cpu);
+        }
+
+        Registers r = cpu.reg;
+        int i = (int) (head & entryMask);
+        regs1[i] = r.PC | (long) r.SP << 16 | (long) r.X << 32 | (long) r.Y << 48;
+        regs2[i] = r.U | (long) r.A << 16 | (long) r.B << 24 | (long) r.DP << 32
+                | (long) r.getCC() << 40 | (long) state << 48;
+        counts[i] = count;
+        cycles[i] = cpu.cycles;
+        writeMarks[i] = writeHead;
+        if (++head - tail > entries()) tail++;
+    }
+
+    // Avant chaque écriture mémoire du CPU
+    void recordWrite(int address, int old) {
+        writes[(int) (writeHead++ & writeMask)] = address << 8 | old;
+        // Ecritures écrasées : les entrées qui en dépendaient ne peuvent plus être défaites
+        while (tail < head && writeHead - writeMarks[(int) (tail & entryMask)] > writes.length) tail++;
+    }
+
+    private void checkpoint(CPU cpu) {
+        if (!cpu.mem.supportsSnapshots()) return;
+        CpuSnapshot s = cpu.snapshot();
+        CpuSnapshot last = checkpoints.peekLast();
+        // Coût estimé : les pages recopiées depuis le point précédent, plus la table de pages
+        long cost = Memory.PAGES * 8L
+                + (last == null ? Memory.PAGES : s.memory.differingPages(last.memory)) * (long) Memory.PAGE_SIZE;
+        checkpoints.addLast(s);
+        checkpointCosts.addLast(cost);
+        checkpointBytes += cost;
+        while (checkpointBytes > checkpointBudget && checkpoints.size() > 1) {
+            checkpoints.removeFirst();
+            checkpointBytes -= checkpointCosts.removeFirst();
+        }
+    }
+
+    // ===== RETOUR ARRIERE =====
+    private int entries() {
+        return entryMask + 1;
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    // Nombre d'instructions avant la plus ancienne entrée du journal
+    long oldestCount() {
+        return counts[(int) (tail & entryMask)];
+    }
+
+    // Plus ancienne instruction atteignable (journal ou point de reprise)
+    long horizon(long current) {
+        long h = isEmpty() ? current : oldestCount();
+        CpuSnapshot first = checkpoints.peekFirst();
+        return first != null ? Math.min(h, first.instructionsExecuted) : h;
+    }
+
+    // Défait la dernière entrée : écritures à rebours, puis registres et état
+    void undo(CPU cpu) {
+        int i = (int) (--head & entryMask);
+        for (long w = writeHead - 1; w >= writeMarks[i]; w--) {
+            int e = writes[(int) (w & writeMask)];
+            cpu.mem.writeByte(e >>> 8, (byte) e);
+        }
+        writeHead = writeMarks[i];
+
+        Registers r = cpu.reg;
+        long r1 = regs1[i], r2 = regs2[i];
+        r.PC = (int) r1 & 0xFFFF;
+        r.SP = (int) (r1 >>> 16) & 0xFFFF;
+        r.X = (int) (r1 >>> 32) & 0xFFFF;
+        r.Y = (int) (r1 >>> 48) & 0xFFFF;
+        r.U = (int) r2 & 0xFFFF;
+        r.A = (int) (r2 >>> 16) & 0xFF;
+        r.B = (int) (r2 >>> 24) & 0xFF;
+        r.DP = (int) (r2 >>> 32) & 0xFF;
+        r.setCC((int) (r2 >>> 40) & 0xFF);
+        cpu.restoreState((int) (r2 >>> 48), counts[i], cycles[i]);
+    }
+
+    // PC avant la dernière entrée
+    int lastPc() {
+        return (int) regs1[(int) ((head - 1) & entryMask)] & 0xFFFF;
+    }
+
+    long lastCount() {
+        return counts[(int) ((head - 1) & entryMask)];
+    }
+
+    // Point de reprise le plus récent à ou avant count, null s'il n'y en a pas
+    CpuSnapshot checkpointAtOrBefore(long count) {
+        Iterator<CpuSnapshot> it = checkpoints.descendingIterator();
+        while (it.hasNext()) {
+            CpuSnapshot s = it.next();
+            if (s.instructionsExecuted <= count) return s;
+        }
+        return null;
+    }
+
+    // Après un retour à un point de reprise : le journal repart de zéro et
+    // les points de reprise postérieurs (un futur abandonné) sont oubliés
+    void rewindTo(CpuSnapshot s) {
+        head = tail = 0;
+        writeHead = 0;
+        while (checkpoints.peekLast() != s) {
+            checkpoints.removeLast();
+            checkpointBytes -= checkpointCosts.removeLast();
+        }
+    }
+
+    void clear() {
+        head = tail = 0;
+        writeHead = 0;
+        checkpoints.clear();
+        checkpointCosts.clear();
+        checkpointBytes = 0;
+    }
+}
@@ -0,0 +1,98 @@
+package cpu;
+
+// Décodage du postbyte du mode indexé, calculé une fois pour les 256 valeurs.
+// Chaque entrée tient dans un int :
+//   bits 0-2    registre de base (X, Y, U, S, PC, ou aucun pour [n16])
+//   bits 3-5    déplacement : aucun, constante 5 bits, 8 ou 16 bits lus après le postbyte, A, B ou D
+//   bit  6      indirection (l'adresse calculée contient l'adresse effective)
+//   bits 8-11   cycles ajoutés aux cycles de base de l'instruction
+//   bits 16-23  constante 5 bits (signée)
+//   bits 24-31  effet de bord sur le registre (signé) : +1/+2 après le calcul, -1/-2 avant
+// L'adresse effective se calcule alors par une lecture de table et un peu d'arithmétique.
+// Les formes non définies par Motorola se comportent comme ,R (aucun cycle ajouté).
+final class IndexedPostByte {
+
+    static final int BASE_X = 0, BASE_Y = 1, BASE_U = 2, BASE_S = 3, BASE_PC = 4, BASE_NONE = 5;
+    static final int OFFSET_NONE = 0, OFFSET_5 = 1, OFFSET_8 = 2, OFFSET_16 = 3,
+            OFFSET_A = 4, OFFSET_B = 5, OFFSET_D = 6;
+
+    private static final int INDIRECT = 0x40;
+
+    static final int[] DECODE = new int[256];
+
+    static {
+        for (int pb = 0; pb < 256; pb++) DECODE[pb] = decode(pb);
+    }
+
+    private IndexedPostByte() {
+    }
+
+    private static int decode(int pb) {
+        int r = (pb >> 5) & 3;
+        if ((pb & 0x80) == 0) {
+            return entry(r, OFFSET_5, false, 1, (pb << 27) >> 27, 0);     // n5,R
+        }
+        boolean indirect = (pb & 0x10) != 0;
+        return switch (pb & 0x0F) {
+            case 0x0 -> indirect ? undefined(r) : entry(r, OFFSET_NONE, false, 2, 0, 1);   // ,R+
+            case 0x1 -> entry(r, OFFSET_NONE, indirect, 3, 0, 2);                           // ,R++
+            case 0x2 -> indirect ? undefined(r) : entry(r, OFFSET_NONE, false, 2, 0, -1);  // ,-R
+            case 0x3 -> entry(r, OFFSET_NONE, indirect, 3, 0, -2);                          // ,--R
+            case 0x4 -> entry(r, OFFSET_NONE, indirect, 0, 0, 0);                           // ,R
+            case 0x5 -> entry(r, OFFSET_B, indirect, 1, 0, 0);                              // B,R
+            case 0x6 -> entry(r, OFFSET_A, indirect, 1, 0, 0);                              // A,R
+            case 0x8 -> entry(r, OFFSET_8, indirect, 1, 0, 0);                              // n8,R
+            case 0x9 -> entry(r, OFFSET_16, indirect, 4, 0, 0);                             // n16,R
+            case 0xB -> entry(r, OFFSET_D, indirect, 4, 0, 0);                              // D,R
+            case 0xC -> entry(BASE_PC, OFFSET_8, indirect, 1, 0, 0);                        // n8,PCR
+            case 0xD -> entry(BASE_PC, OFFSET_16, indirect, 5, 0, 0);                       // n16,PCR
+            case 0xF -> indirect ? entry(BASE_NONE, OFFSET_16, true, 2, 0, 0) : undefined(r); // [n16]
+            default -> undefined(r);                                                        // 7, A, E
+        };
+    }
+
+    // L'indirection coûte 3 cycles de plus que la forme directe
+    private static int entry(int base, int offset, boolean indirect, int cycles, int constant, int step) {
+        if (indirect) cycles += 3;
+        return base | offset << 3 | (indirect ? INDIRECT : 0) | cycles << 8
+                | (constant & 0xFF) << 16 | step << 24;
+    }
+
+    private static int undefined(int base) {
+        return entry(base, OFFSET_NONE, false, 0, 0, 0);
+    }
+
+    // ===== CHAMPS D'UNE ENTREE =====
+    static int base(int e) {
+        return e & 7;
+    }
+
+    static int offsetKind(int e) {
+        return (e >> 3) & 7;
+    }
+
+    static boolean indirect(int e) {
+        return (e & INDIRECT) != 0;
+    }
+
+    static int cycles(int e) {
+        return (e >> 8) & 0x0F;
+    }
+
+    static int constant(int e) {
+        return (byte) (e >> 16);
+    }
+
+    static int step(int e) {
+        return e >> 24;
+    }
+
+    // Octets de déplacement qui suivent le postbyte (0, 1 ou 2)
+    static int operandBytes(int postByte) {
+        return switch (offsetKind(DECODE[postByte & 0xFF])) {
+            case OFFSET_8 -> 1;
+            case OFFSET_16 -> 2;
+            default -> 0;
+        };
+    }
+}
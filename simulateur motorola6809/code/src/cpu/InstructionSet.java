@@ -1,7 +1,8 @@
 package cpu;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+
+import static cpu.AddressingMode.*;
 
 // Jeu d'instructions du Motorola 6809
 public class InstructionSet {
@@ -12,62 +13,145 @@ public class InstructionSet {
         void execute(CPU cpu);
     }
 
-    private final Map<Integer, Instruction> instructions = new HashMap<>(); // opcode -> instruction
-    private final Map<Integer, String> names = new HashMap<>();// opcode -> nom
+    // Sémantique d'une instruction, l'opérande étant déjà décodé :
+    // valeur immédiate, adresse effective ou cible de branchement selon le mode
+    @FunctionalInterface
+    interface Operation {
+        void apply(CPU cpu, int operand);
+    }
 
-    // Constructeur
-    public InstructionSet() {
+    // ===== TABLES DE DECODAGE =====
+    // Trois tables denses indexées par l'octet d'opcode :
+    // page 1 (sans préfixe), page 2 (préfixe $10) et page 3 (préfixe $11).
+    // Construites une seule fois au chargement de la classe et partagées par tous les CPU.
+    static final Instruction[] PAGE1 = new Instruction[256];
+    static final Instruction[] PAGE2 = new Instruction[256];
+    static final Instruction[] PAGE3 = new Instruction[256];
+
+    // Métadonnées pour les moteurs qui pré-décodent (cache de blocs) :
+    // mode d'adressage et sémantique de chaque opcode, null si non défini
+    static final AddressingMode[] MODES1 = new AddressingMode[256];
+    static final AddressingMode[] MODES2 = new AddressingMode[256];
+    static final AddressingMode[] MODES3 = new AddressingMode[256];
+    static final Operation[] OPS1 = new Operation[256];
+    static final Operation[] OPS2 = new Operation[256];
+    static final Operation[] OPS3 = new Operation[256];
+
+    // Cycles de base de chaque opcode (préfixe compris pour les pages 2 et 3).
+    // Les cycles variables (indexé, PSHS/PULS, RTI) sont ajoutés à l'exécution.
+    static final byte[] CYCLES1 = new byte[256];
+    static final byte[] CYCLES2 = new byte[256];
+    static final byte[] CYCLES3 = new byte[256];
+
+    // Noms des instructions, parallèles aux tables ci-dessus
+    private static final String[] NAMES1 = new String[256];
+    private static final String[] NAMES2 = new String[256];
+    private static final String[] NAMES3 = new String[256];
+
+    private static int count = 0; // nombre d'instructions définies
+
+    static {
         loadAllInstructions();
     }
 
-    // Retourne l'instruction associée à un opcode
+    // Instance unique : les tables sont statiques et immuables une fois chargées
+    public static final InstructionSet INSTANCE = new InstructionSet();
+
+    private InstructionSet() {
+    }
+
+    // Retourne l'instruction associée à un opcode ($xx, $10xx ou $11xx)
     public Instruction get(int opcode) {
-        return instructions.get(opcode);
+        return switch (opcode >> 8) {
+            case 0x00 -> PAGE1[opcode & 0xFF];
+            case 0x10 -> PAGE2[opcode & 0xFF];
+            case 0x11 -> PAGE3[opcode & 0xFF];
+            default -> null;
+        };
+    }
+
+    // Mode d'adressage d'un opcode (préfixe compris), null si non défini
+    static AddressingMode modeOf(int opcode) {
+        return switch (opcode >> 8) {
+            case 0x00 -> MODES1[opcode & 0xFF];
+            case 0x10 -> MODES2[opcode & 0xFF];
+            case 0x11 -> MODES3[opcode & 0xFF];
+            default -> null;
+        };
     }
 
     // Retourne le nom de l'instruction
     public String getName(int opcode) {
-        return names.getOrDefault(opcode, "UNKNOWN");
+        return switch (opcode >> 8) {
+            case 0x00 -> NAMES1[opcode & 0xFF];
+            case 0x10 -> NAMES2[opcode & 0xFF];
+            case 0x11 -> NAMES3[opcode & 0xFF];
+            default -> "UNKNOWN";
+        };
+    }
+
+    // Nombre d'instructions définies (hors préfixes et pièges)
+    public int size() {
+        return count;
     }
 
     //  FLAGS 
+    // Les flags sont paresseux : on enregistre l'opération, Registers les calcule à la lecture de CC
+    private static final int NZ = Registers.FLAG_N | Registers.FLAG_Z;
+    private static final int NZV = NZ | Registers.FLAG_V;
+    private static final int NZC = NZ | Registers.FLAG_C;
+    private static final int NZVC = NZ | Registers.FLAG_V | Registers.FLAG_C;
+    private static final int NZVCH = NZVC | Registers.FLAG_H;
+
     // Met à jour N et Z pour une valeur 8 bits
-    private void setNZ8(CPU cpu, int val) {
-        int v = val & 0xFF;
-        cpu.reg.setFlag(Registers.FLAG_N, (v & 0x80) != 0);
-        cpu.reg.setFlag(Registers.FLAG_Z, v == 0);
+    private static void setNZ8(CPU cpu, int val) {
+        cpu.reg.recordFlags(Registers.OP_NZ8, NZ, 0, 0, val);
+    }
+
+    // N et Z pour une valeur 8 bits, V effacé (chargement, rangement, logique)
+    private static void setNZ8_clearV(CPU cpu, int val) {
+        cpu.reg.recordFlags(Registers.OP_NZ8, NZV, 0, 0, val);
     }
 
     // Met à jour N et Z pour une valeur 16 bits
-    private void setNZ16(CPU cpu, int val) {
-        int v = val & 0xFFFF;
-        cpu.reg.setFlag(Registers.FLAG_N, (v & 0x8000) != 0);
-        cpu.reg.setFlag(Registers.FLAG_Z, v == 0);
+    private static void setNZ16(CPU cpu, int val) {
+        cpu.reg.recordFlags(Registers.OP_NZ16, NZ, 0, 0, val);
+    }
+
+    // N et Z pour une valeur 16 bits, V effacé
+    private static void setNZ16_clearV(CPU cpu, int val) {
+        cpu.reg.recordFlags(Registers.OP_NZ16, NZV, 0, 0, val);
     }
 
     // Flags pour addition 8 bits
-    private void setNZVC8_add(CPU cpu, int a, int operand, int result) {
-        int res8 = result & 0xFF;
-        cpu.reg.setFlag(Registers.FLAG_N, (res8 & 0x80) != 0);
-        cpu.reg.setFlag(Registers.FLAG_Z, res8 == 0);
-        cpu.reg.setFlag(Registers.FLAG_C, (result & 0x100) != 0);
-        boolean v = (((a ^ operand) & 0x80) == 0) && (((a ^ res8) & 0x80) != 0);
-        cpu.reg.setFlag(Registers.FLAG_V, v);
-        cpu.reg.setFlag(Registers.FLAG_H, ((a ^ operand ^ res8) & 0x10) != 0);
-    }
-
-    // Flags pour soustraction 8 bits
-    private void setNZVC8_sub(CPU cpu, int a, int operand, int result) {
-        int res8 = result & 0xFF;
-        cpu.reg.setFlag(Registers.FLAG_N, (res8 & 0x80) != 0);
-        cpu.reg.setFlag(Registers.FLAG_Z, res8 == 0);
-        cpu.reg.setFlag(Registers.FLAG_C, (result & 0x100) != 0);
-        boolean v = (((a ^ operand) & 0x80) != 0) && (((a ^ res8) & 0x80) != 0);
-        cpu.reg.setFlag(Registers.FLAG_V, v);
+    private static void setNZVC8_add(CPU cpu, int a, int operand, int result) {
+        cpu.reg.recordFlags(Registers.OP_ADD8, NZVCH, a, operand, result);
+    }
+
+    // Flags pour soustraction 8 bits (H inchangé)
+    private static void setNZVC8_sub(CPU cpu, int a, int operand, int result) {
+        cpu.reg.recordFlags(Registers.OP_SUB8, NZVC, a, operand, result);
+    }
+
+    // Flags pour addition / soustraction 16 bits
+    private static void setNZVC16_add(CPU cpu, int a, int operand, int result) {
+        cpu.reg.recordFlags(Registers.OP_ADD16, NZVC, a, operand, result);
+    }
+
+    private static void setNZVC16_sub(CPU cpu, int a, int operand, int result) {
+        cpu.reg.recordFlags(Registers.OP_SUB16, NZVC, a, operand, result);
+    }
+
+    private static int carry(CPU cpu) {
+        return cpu.reg.getFlag(Registers.FLAG_C) ? 1 : 0;
     }
 
     //  CHARGEMENT DES INSTRUCTIONS 
-    private void loadAllInstructions() {
+    private static void loadAllInstructions() {
+        Arrays.fill(NAMES1, "UNKNOWN");
+        Arrays.fill(NAMES2, "UNKNOWN");
+        Arrays.fill(NAMES3, "UNKNOWN");
+
         loadArithmeticInstructions();
         loadShiftInstructions();
         loadLogicalInstructions();
@@ -78,167 +162,780 @@ public class InstructionSet {
         loadBranchJumpInstructions();
         loadPointerInstructions();
         loadInterruptInstructions();
-        System.out.println("InstructionSet: " + instructions.size() + " instructions chargées");
+        loadPrefixesAndTraps();
     }
 
-    // Ajoute une instruction
-    private void add(int opcode, String name, Instruction inst) {
-        instructions.put(opcode, inst);
-        names.put(opcode, name);
+    // Ajoute une instruction ($xx, $10xx ou $11xx) avec ses cycles de base
+    private static void add(int opcode, String name, AddressingMode mode, int cycles, Operation operation) {
+        Instruction inst = bind(mode, cycles, operation);
+        int op = opcode & 0xFF;
+        byte c = (byte) cycles;
+        switch (opcode >> 8) {
+            case 0x00 -> { PAGE1[op] = inst; NAMES1[op] = name; MODES1[op] = mode; OPS1[op] = operation; CYCLES1[op] = c; }
+            case 0x10 -> { PAGE2[op] = inst; NAMES2[op] = name; MODES2[op] = mode; OPS2[op] = operation; CYCLES2[op] = c; }
+            case 0x11 -> { PAGE3[op] = inst; NAMES3[op] = name; MODES3[op] = mode; OPS3[op] = operation; CYCLES3[op] = c; }
+            default -> throw new IllegalArgumentException(
+                    String.format("Opcode invalide %X", opcode));
+        }
+        count++;
+    }
+
+    // ===== FAMILLES D'OPCODES =====
+    // La plupart des instructions existent en immédiat, direct, indexé et étendu, aux
+    // opcodes base, base + $10, base + $20 et base + $30. Cycles du direct et de l'indexé :
+    // immédiat + 2 ; étendu : immédiat + 3 (l'indexé ajoute ses cycles à l'exécution).
+
+    // Opérande 8 bits : la sémantique reçoit la valeur (lue en mémoire hors immédiat)
+    private static void addRead8(int base, String name, int cycles, Operation op) {
+        add(base, name + " #", IMMEDIATE, cycles, op);
+        addMemory(base + 0x10, name, cycles + 2, (cpu, ea) -> op.apply(cpu, cpu.readByte(ea)));
+    }
+
+    // Opérande 16 bits
+    private static void addRead16(int base, String name, int cycles, Operation op) {
+        add(base, name + " #", IMMEDIATE_16, cycles, op);
+        addMemory(base + 0x10, name, cycles + 2, (cpu, ea) -> op.apply(cpu, cpu.readWord(ea)));
+    }
+
+    // Direct, indexé et étendu : la sémantique reçoit l'adresse effective
+    private static void addMemory(int direct, String name, int cycles, Operation op) {
+        add(direct, name + " direct", DIRECT, cycles, op);
+        add(direct + 0x10, name + " indexed", INDEXED, cycles, op);
+        add(direct + 0x20, name + " extended", EXTENDED, cycles + 1, op);
+    }
+
+    // Opération sur un octet : retourne le résultat et enregistre ses flags
+    @FunctionalInterface
+    interface Unary {
+        int apply(CPU cpu, int value);
+    }
+
+    // Opérations sur A ($4x), B ($5x) et en mémoire : direct ($0x), indexé ($6x), étendu ($7x)
+    private static void addUnary(int low, String name, Unary op, boolean writeBack) {
+        add(0x40 | low, name + "A", INHERENT, 2, (cpu, u) -> cpu.reg.A = op.apply(cpu, cpu.reg.A));
+        add(0x50 | low, name + "B", INHERENT, 2, (cpu, u) -> cpu.reg.B = op.apply(cpu, cpu.reg.B));
+        Operation memory = writeBack
+                ? (cpu, ea) -> cpu.writeByte(ea, op.apply(cpu, cpu.readByte(ea)))
+                : (cpu, ea) -> op.apply(cpu, cpu.readByte(ea));
+        add(low, name + " direct", DIRECT, 6, memory);
+        add(0x60 | low, name + " indexed", INDEXED, 6, memory);
+        add(0x70 | low, name + " extended", EXTENDED, 7, memory);
+    }
+
+    // Associe le décodage de l'opérande (selon le mode) et les cycles de base à la sémantique
+    private static Instruction bind(AddressingMode mode, int cycles, Operation op) {
+        return switch (mode) {
+            case INHERENT -> cpu -> {
+                cpu.cycles += cycles;
+                op.apply(cpu, 0);
+            };
+            case IMMEDIATE -> cpu -> {
+                cpu.cycles += cycles;
+                op.apply(cpu, cpu.fetchByte());
+            };
+            case IMMEDIATE_16 -> cpu -> {
+                cpu.cycles += cycles;
+                op.apply(cpu, cpu.fetchWord());
+            };
+            case DIRECT -> cpu -> {
+                cpu.cycles += cycles;
+                op.apply(cpu, cpu.calculateDirectAddress());
+            };
+            case EXTENDED -> cpu -> {
+                cpu.cycles += cycles;
+                op.apply(cpu, cpu.calculateExtendedAddress());
+            };
+            case INDEXED -> cpu -> {
+                cpu.cycles += cycles;
+                op.apply(cpu, cpu.calculateIndexedAddress());
+            };
+            case RELATIVE -> cpu -> {
+                cpu.cycles += cycles;
+                int offset = (byte) cpu.fetchByte();
+                op.apply(cpu, (cpu.reg.PC + offset) & 0xFFFF);
+            };
+            case RELATIVE_16 -> cpu -> {
+                cpu.cycles += cycles;
+                int offset = (short) cpu.fetchWord();
+                op.apply(cpu, (cpu.reg.PC + offset) & 0xFFFF);
+            };
+            default -> throw new IllegalArgumentException("Mode non supporté : " + mode);
+        };
+    }
+
+    // ===== PREFIXES / OPCODES ILLEGAUX =====
+    // Les préfixes $10 et $11 aiguillent vers les pages 2 et 3,
+    // et chaque case vide reçoit un piège qui arrête le CPU.
+    private static void loadPrefixesAndTraps() {
+        PAGE1[0x10] = cpu -> PAGE2[cpu.fetchByte()].execute(cpu);
+        PAGE1[0x11] = cpu -> PAGE3[cpu.fetchByte()].execute(cpu);
+        NAMES1[0x10] = "PAGE2";
+        NAMES1[0x11] = "PAGE3";
+
+        for (int op = 0; op < 256; op++) {
+            if (PAGE1[op] == null) PAGE1[op] = illegal(op);
+            if (PAGE2[op] == null) PAGE2[op] = illegal(0x1000 | op);
+            if (PAGE3[op] == null) PAGE3[op] = illegal(0x1100 | op);
+        }
+    }
+
+    // Piège pour un opcode non défini
+    private static Instruction illegal(int opcode) {
+        return cpu -> cpu.illegalOpcode(opcode);
     }
 
     //  ARITHMETIQUE 
-    private void loadArithmeticInstructions() {
-
-        add(0x8B, "ADDA #", cpu -> { 
-            int imm = cpu.fetchByte();
-            int a = cpu.reg.A & 0xFF;
-            int r = a + imm;
-            cpu.reg.A = r & 0xFF;
-            setNZVC8_add(cpu, a, imm, r);
-        });
-
-        add(0xCB, "ADDB #", cpu -> { 
-            int imm = cpu.fetchByte();
-            int b = cpu.reg.B & 0xFF;
-            int r = b + imm;
-            cpu.reg.B = r & 0xFF;
-            setNZVC8_add(cpu, b, imm, r);
-        });
-
-        add(0x80, "SUBA #", cpu -> { // A = A - imm
-            int imm = cpu.fetchByte();
-            int a = cpu.reg.A & 0xFF;
-            int r = a - imm;
-            cpu.reg.A = r & 0xFF;
-            setNZVC8_sub(cpu, a, imm, r);
-        });
-
-        add(0x3D, "MUL", cpu -> { // A * B -> D
-            int r = (cpu.reg.A & 0xFF) * (cpu.reg.B & 0xFF);
-            cpu.reg.setD(r & 0xFFFF);
-            cpu.reg.setFlag(Registers.FLAG_C, (r & 0x80) != 0);
-            setNZ16(cpu, cpu.reg.D());
-        });
+    private static void loadArithmeticInstructions() {
+        addRead8(0x8B, "ADDA", 2, InstructionSet::adda);
+        addRead8(0xCB, "ADDB", 2, InstructionSet::addb);
+        addRead8(0x89, "ADCA", 2, InstructionSet::adca);
+        addRead8(0xC9, "ADCB", 2, InstructionSet::adcb);
+        addRead8(0x80, "SUBA", 2, InstructionSet::suba);
+        addRead8(0xC0, "SUBB", 2, InstructionSet::subb);
+        addRead8(0x82, "SBCA", 2, InstructionSet::sbca);
+        addRead8(0xC2, "SBCB", 2, InstructionSet::sbcb);
+        addRead8(0x81, "CMPA", 2, InstructionSet::cmpa);
+        addRead8(0xC1, "CMPB", 2, InstructionSet::cmpb);
+        addRead16(0xC3, "ADDD", 4, InstructionSet::addd);
+        addRead16(0x83, "SUBD", 4, InstructionSet::subd);
+        addRead16(0x8C, "CMPX", 4, InstructionSet::cmpx);
+        addRead16(0x1083, "CMPD", 5, InstructionSet::cmpd);
+        addRead16(0x108C, "CMPY", 5, InstructionSet::cmpy);
+        addRead16(0x1183, "CMPU", 5, InstructionSet::cmpu);
+        addRead16(0x118C, "CMPS", 5, InstructionSet::cmps);
+        add(0x3D, "MUL", INHERENT, 11, InstructionSet::mul);
+        add(0x3A, "ABX", INHERENT, 3, InstructionSet::abx);
+        add(0x1D, "SEX", INHERENT, 2, InstructionSet::sex);
+        add(0x19, "DAA", INHERENT, 2, InstructionSet::daa);
+    }
+
+    // A = A + m
+    static void adda(CPU cpu, int m) {
+        int a = cpu.reg.A & 0xFF;
+        int r = a + m;
+        cpu.reg.A = r & 0xFF;
+        setNZVC8_add(cpu, a, m, r);
+    }
+
+    // B = B + m
+    static void addb(CPU cpu, int m) {
+        int b = cpu.reg.B & 0xFF;
+        int r = b + m;
+        cpu.reg.B = r & 0xFF;
+        setNZVC8_add(cpu, b, m, r);
+    }
+
+    // A = A + m + C
+    static void adca(CPU cpu, int m) {
+        int a = cpu.reg.A & 0xFF;
+        int r = a + m + carry(cpu);
+        cpu.reg.A = r & 0xFF;
+        setNZVC8_add(cpu, a, m, r);
+    }
+
+    // B = B + m + C
+    static void adcb(CPU cpu, int m) {
+        int b = cpu.reg.B & 0xFF;
+        int r = b + m + carry(cpu);
+        cpu.reg.B = r & 0xFF;
+        setNZVC8_add(cpu, b, m, r);
+    }
+
+    // A = A - m
+    static void suba(CPU cpu, int m) {
+        int a = cpu.reg.A & 0xFF;
+        int r = a - m;
+        cpu.reg.A = r & 0xFF;
+        setNZVC8_sub(cpu, a, m, r);
+    }
+
+    // B = B - m
+    static void subb(CPU cpu, int m) {
+        int b = cpu.reg.B & 0xFF;
+        int r = b - m;
+        cpu.reg.B = r & 0xFF;
+        setNZVC8_sub(cpu, b, m, r);
+    }
+
+    // A = A - m - C
+    static void sbca(CPU cpu, int m) {
+        int a = cpu.reg.A & 0xFF;
+        int r = a - m - carry(cpu);
+        cpu.reg.A = r & 0xFF;
+        setNZVC8_sub(cpu, a, m, r);
+    }
+
+    // B = B - m - C
+    static void sbcb(CPU cpu, int m) {
+        int b = cpu.reg.B & 0xFF;
+        int r = b - m - carry(cpu);
+        cpu.reg.B = r & 0xFF;
+        setNZVC8_sub(cpu, b, m, r);
+    }
+
+    // flags de A - m
+    static void cmpa(CPU cpu, int m) {
+        int a = cpu.reg.A & 0xFF;
+        setNZVC8_sub(cpu, a, m, a - m);
+    }
+
+    // flags de B - m
+    static void cmpb(CPU cpu, int m) {
+        int b = cpu.reg.B & 0xFF;
+        setNZVC8_sub(cpu, b, m, b - m);
+    }
+
+    // D = D + m
+    static void addd(CPU cpu, int m) {
+        int d = cpu.reg.D();
+        int r = d + m;
+        cpu.reg.setD(r & 0xFFFF);
+        setNZVC16_add(cpu, d, m, r);
+    }
+
+    // D = D - m
+    static void subd(CPU cpu, int m) {
+        int d = cpu.reg.D();
+        int r = d - m;
+        cpu.reg.setD(r & 0xFFFF);
+        setNZVC16_sub(cpu, d, m, r);
+    }
+
+    // flags de r - m (CMPD, CMPX, CMPY, CMPU, CMPS)
+    static void cmp16(CPU cpu, int r, int m) {
+        setNZVC16_sub(cpu, r, m, r - m);
+    }
+
+    static void cmpd(CPU cpu, int m) {
+        cmp16(cpu, cpu.reg.D(), m);
+    }
+
+    static void cmpx(CPU cpu, int m) {
+        cmp16(cpu, cpu.reg.X, m);
+    }
+
+    static void cmpy(CPU cpu, int m) {
+        cmp16(cpu, cpu.reg.Y, m);
+    }
+
+    static void cmpu(CPU cpu, int m) {
+        cmp16(cpu, cpu.reg.U, m);
+    }
+
+    static void cmps(CPU cpu, int m) {
+        cmp16(cpu, cpu.reg.SP, m);
+    }
+
+    // A * B -> D
+    static void mul(CPU cpu, int unused) {
+        int r = (cpu.reg.A & 0xFF) * (cpu.reg.B & 0xFF);
+        cpu.reg.setD(r & 0xFFFF);
+        cpu.reg.setFlag(Registers.FLAG_C, (r & 0x80) != 0);
+        setNZ16(cpu, cpu.reg.D());
+    }
+
+    // X = X + B (non signé, flags inchangés)
+    static void abx(CPU cpu, int unused) {
+        cpu.reg.X = (cpu.reg.X + (cpu.reg.B & 0xFF)) & 0xFFFF;
+    }
+
+    // A = extension du signe de B
+    static void sex(CPU cpu, int unused) {
+        cpu.reg.A = (cpu.reg.B & 0x80) != 0 ? 0xFF : 0x00;
+        setNZ16(cpu, cpu.reg.D());
+    }
+
+    // Ajustement décimal de A après une addition BCD
+    static void daa(CPU cpu, int unused) {
+        int a = cpu.reg.A & 0xFF;
+        int lsn = a & 0x0F, msn = a & 0xF0;
+        int correction = 0;
+        if (cpu.reg.getFlag(Registers.FLAG_H) || lsn > 9) correction |= 0x06;
+        boolean c = cpu.reg.getFlag(Registers.FLAG_C);
+        if (c || msn > 0x90 || (msn > 0x80 && lsn > 9)) correction |= 0x60;
+        int r = a + correction;
+        cpu.reg.A = r & 0xFF;
+        setNZ8(cpu, cpu.reg.A);
+        cpu.reg.setFlag(Registers.FLAG_C, c || (r & 0x100) != 0);
     }
 
     // ===== SHIFTS / ROTATIONS =====
-    private void loadShiftInstructions() {
+    // Le résultat porte la retenue sortante en bit 8 (OP_SHIFT8)
+    private static void loadShiftInstructions() {
+        addUnary(0x04, "LSR", InstructionSet::lsr8, true);
+        addUnary(0x06, "ROR", InstructionSet::ror8, true);
+        addUnary(0x07, "ASR", InstructionSet::asr8, true);
+        addUnary(0x08, "LSL", InstructionSet::lsl8, true);
+        addUnary(0x09, "ROL", InstructionSet::rol8, true);
+    }
+
+    // décalage logique à droite
+    static int lsr8(CPU cpu, int v) {
+        int r = (v >>> 1) | (v & 1) << 8;
+        cpu.reg.recordFlags(Registers.OP_SHIFT8, NZC, 0, 0, r);
+        return r & 0xFF;
+    }
+
+    // rotation à droite à travers C
+    static int ror8(CPU cpu, int v) {
+        int r = (v >>> 1) | carry(cpu) << 7 | (v & 1) << 8;
+        cpu.reg.recordFlags(Registers.OP_SHIFT8, NZC, 0, 0, r);
+        return r & 0xFF;
+    }
+
+    // décalage arithmétique à droite (bit 7 conservé)
+    static int asr8(CPU cpu, int v) {
+        int r = (v >>> 1) | (v & 0x80) | (v & 1) << 8;
+        cpu.reg.recordFlags(Registers.OP_SHIFT8, NZC, 0, 0, r);
+        return r & 0xFF;
+    }
 
-        add(0x4C, "INCA", cpu -> { // A++
-            cpu.reg.A = (cpu.reg.A + 1) & 0xFF;
-            setNZ8(cpu, cpu.reg.A);
-        });
+    // décalage à gauche (V = bit 7 ^ bit 6 d'origine)
+    static int lsl8(CPU cpu, int v) {
+        int r = v << 1;
+        cpu.reg.recordFlags(Registers.OP_SHIFT8, NZVC, 0, 0, r);
+        return r & 0xFF;
+    }
 
-        add(0x4A, "DECA", cpu -> { // A--
-            cpu.reg.A = (cpu.reg.A - 1) & 0xFF;
-            setNZ8(cpu, cpu.reg.A);
-        });
+    // rotation à gauche à travers C
+    static int rol8(CPU cpu, int v) {
+        int r = v << 1 | carry(cpu);
+        cpu.reg.recordFlags(Registers.OP_SHIFT8, NZVC, 0, 0, r);
+        return r & 0xFF;
     }
 
     // ===== LOGIQUE =====
-    private void loadLogicalInstructions() {
+    private static void loadLogicalInstructions() {
+        addRead8(0x84, "ANDA", 2, InstructionSet::anda);
+        addRead8(0xC4, "ANDB", 2, InstructionSet::andb);
+        addRead8(0x8A, "ORA", 2, InstructionSet::ora);
+        addRead8(0xCA, "ORB", 2, InstructionSet::orb);
+        addRead8(0x88, "EORA", 2, InstructionSet::eora);
+        addRead8(0xC8, "EORB", 2, InstructionSet::eorb);
+        addRead8(0x85, "BITA", 2, InstructionSet::bita);
+        addRead8(0xC5, "BITB", 2, InstructionSet::bitb);
+        addUnary(0x03, "COM", InstructionSet::com8, true);
+        addUnary(0x00, "NEG", InstructionSet::neg8, true);
+        add(0x1C, "ANDCC #", IMMEDIATE, 3, InstructionSet::andcc);
+        add(0x1A, "ORCC #", IMMEDIATE, 3, InstructionSet::orcc);
+    }
 
-        add(0x88, "EORA #", cpu -> { // A ^= imm
-            cpu.reg.A ^= cpu.fetchByte();
-            setNZ8(cpu, cpu.reg.A);
-        });
+    // A &= m
+    static void anda(CPU cpu, int m) {
+        cpu.reg.A &= m;
+        setNZ8_clearV(cpu, cpu.reg.A);
+    }
 
-        add(0x8A, "ORA #", cpu -> { // A |= imm
-            cpu.reg.A |= cpu.fetchByte();
-            setNZ8(cpu, cpu.reg.A);
-        });
+    // B &= m
+    static void andb(CPU cpu, int m) {
+        cpu.reg.B &= m;
+        setNZ8_clearV(cpu, cpu.reg.B);
+    }
+
+    // A ^= m
+    static void eora(CPU cpu, int m) {
+        cpu.reg.A ^= m;
+        setNZ8_clearV(cpu, cpu.reg.A);
+    }
+
+    // B ^= m
+    static void eorb(CPU cpu, int m) {
+        cpu.reg.B ^= m;
+        setNZ8_clearV(cpu, cpu.reg.B);
+    }
+
+    // A |= m
+    static void ora(CPU cpu, int m) {
+        cpu.reg.A |= m;
+        setNZ8_clearV(cpu, cpu.reg.A);
+    }
+
+    // B |= m
+    static void orb(CPU cpu, int m) {
+        cpu.reg.B |= m;
+        setNZ8_clearV(cpu, cpu.reg.B);
+    }
+
+    // flags de A & m
+    static void bita(CPU cpu, int m) {
+        setNZ8_clearV(cpu, cpu.reg.A & m);
+    }
+
+    // flags de B & m
+    static void bitb(CPU cpu, int m) {
+        setNZ8_clearV(cpu, cpu.reg.B & m);
+    }
+
+    // CC &= m (efface I pour autoriser les IRQ)
+    static void andcc(CPU cpu, int m) {
+        cpu.reg.setCC(cpu.reg.getCC() & m);
+    }
+
+    // CC |= m
+    static void orcc(CPU cpu, int m) {
+        cpu.reg.setCC(cpu.reg.getCC() | m);
+    }
+
+    // complément à 1 (C levé)
+    static int com8(CPU cpu, int v) {
+        int r = ~v & 0xFF;
+        setNZ8_clearV(cpu, r);
+        cpu.reg.setFlag(Registers.FLAG_C, true);
+        return r;
+    }
+
+    // complément à 2 (0 - v)
+    static int neg8(CPU cpu, int v) {
+        int r = -v;
+        setNZVC8_sub(cpu, 0, v, r);
+        return r & 0xFF;
     }
 
     // ===== INC / DEC =====
-    private void loadIncDecInstructions() {
+    private static void loadIncDecInstructions() {
+        addUnary(0x0C, "INC", InstructionSet::inc8, true);
+        addUnary(0x0A, "DEC", InstructionSet::dec8, true);
+        addUnary(0x0D, "TST", InstructionSet::tst8, false);
+        addUnary(0x0F, "CLR", InstructionSet::clr8, true);
+        add(0x12, "NOP", INHERENT, 2, InstructionSet::nop);
+    }
+
+    // v + 1 (C inchangé)
+    static int inc8(CPU cpu, int v) {
+        int r = (v + 1) & 0xFF;
+        cpu.reg.recordFlags(Registers.OP_INC8, NZV, 0, 0, r);
+        return r;
+    }
+
+    // v - 1 (C inchangé)
+    static int dec8(CPU cpu, int v) {
+        int r = (v - 1) & 0xFF;
+        cpu.reg.recordFlags(Registers.OP_DEC8, NZV, 0, 0, r);
+        return r;
+    }
+
+    // flags de v
+    static int tst8(CPU cpu, int v) {
+        setNZ8_clearV(cpu, v);
+        return v;
+    }
 
-        add(0x4F, "CLRA", cpu -> { // A = 0
-            cpu.reg.A = 0;
-            setNZ8(cpu, 0);
-        });
+    // 0 (Z levé, N, V, C effacés)
+    static int clr8(CPU cpu, int v) {
+        cpu.reg.recordFlags(Registers.OP_NZ8, NZVC, 0, 0, 0);
+        return 0;
+    }
 
-        add(0x12, "NOP", cpu -> { /* rien */ });
+    // rien
+    static void nop(CPU cpu, int unused) {
     }
 
     // ===== LOAD / STORE =====
-    private void loadLoadStoreInstructions() {
+    private static void loadLoadStoreInstructions() {
+        addRead8(0x86, "LDA", 2, InstructionSet::lda);
+        addRead8(0xC6, "LDB", 2, InstructionSet::ldb);
+        addRead16(0xCC, "LDD", 3, InstructionSet::ldd);
+        addRead16(0x8E, "LDX", 3, InstructionSet::ldx);
+        addRead16(0xCE, "LDU", 3, InstructionSet::ldu);
+        addRead16(0x108E, "LDY", 4, InstructionSet::ldy);
+        addRead16(0x10CE, "LDS", 4, InstructionSet::lds);
+
+        addMemory(0x97, "STA", 4, InstructionSet::sta);
+        addMemory(0xD7, "STB", 4, InstructionSet::stb);
+        addMemory(0xDD, "STD", 5, InstructionSet::std);
+        addMemory(0x9F, "STX", 5, InstructionSet::stx);
+        addMemory(0xDF, "STU", 5, InstructionSet::stu);
+        addMemory(0x109F, "STY", 6, InstructionSet::sty);
+        addMemory(0x10DF, "STS", 6, InstructionSet::sts);
+    }
+
+    // A = m
+    static void lda(CPU cpu, int m) {
+        cpu.reg.A = m & 0xFF;
+        setNZ8_clearV(cpu, cpu.reg.A);
+    }
+
+    // B = m
+    static void ldb(CPU cpu, int m) {
+        cpu.reg.B = m & 0xFF;
+        setNZ8_clearV(cpu, cpu.reg.B);
+    }
+
+    // D = m
+    static void ldd(CPU cpu, int m) {
+        cpu.reg.setD(m);
+        setNZ16_clearV(cpu, m);
+    }
+
+    // X = m
+    static void ldx(CPU cpu, int m) {
+        cpu.reg.X = m;
+        setNZ16_clearV(cpu, m);
+    }
+
+    // Y = m
+    static void ldy(CPU cpu, int m) {
+        cpu.reg.Y = m;
+        setNZ16_clearV(cpu, m);
+    }
+
+    // U = m
+    static void ldu(CPU cpu, int m) {
+        cpu.reg.U = m;
+        setNZ16_clearV(cpu, m);
+    }
+
+    // S = m
+    static void lds(CPU cpu, int m) {
+        cpu.reg.SP = m;
+        setNZ16_clearV(cpu, m);
+    }
+
+    // mem[ea] = A
+    static void sta(CPU cpu, int ea) {
+        cpu.writeByte(ea, cpu.reg.A);
+        setNZ8_clearV(cpu, cpu.reg.A);
+    }
 
-        add(0x86, "LDA #", cpu -> { // A = imm
-            cpu.reg.A = cpu.fetchByte() & 0xFF;
-            setNZ8(cpu, cpu.reg.A);
-        });
+    // mem[ea] = B
+    static void stb(CPU cpu, int ea) {
+        cpu.writeByte(ea, cpu.reg.B);
+        setNZ8_clearV(cpu, cpu.reg.B);
+    }
+
+    // mem[ea..ea+1] = valeur 16 bits
+    static void store16(CPU cpu, int ea, int value) {
+        cpu.writeWord(ea, value);
+        setNZ16_clearV(cpu, value);
+    }
 
-        add(0x97, "STA direct", cpu -> { // mem = A
-            int addr = cpu.calculateDirectAddress();
-            cpu.writeByte(addr, cpu.reg.A);
-            setNZ8(cpu, cpu.reg.A);
-        });
+    static void std(CPU cpu, int ea) {
+        store16(cpu, ea, cpu.reg.D());
+    }
+
+    static void stx(CPU cpu, int ea) {
+        store16(cpu, ea, cpu.reg.X);
+    }
+
+    static void sty(CPU cpu, int ea) {
+        store16(cpu, ea, cpu.reg.Y);
+    }
+
+    static void stu(CPU cpu, int ea) {
+        store16(cpu, ea, cpu.reg.U);
+    }
+
+    static void sts(CPU cpu, int ea) {
+        store16(cpu, ea, cpu.reg.SP);
     }
 
     // ===== PILE =====
-    private void loadStackInstructions() {
+    private static void loadStackInstructions() {
+        add(0x34, "PSHS", IMMEDIATE, 5, InstructionSet::pshs);
+        add(0x35, "PULS", IMMEDIATE, 5, InstructionSet::puls);
+        add(0x36, "PSHU", IMMEDIATE, 5, InstructionSet::pshu);
+        add(0x37, "PULU", IMMEDIATE, 5, InstructionSet::pulu);
+    }
+
+    // push multiple (postbyte = masque des registres)
+    static void pshs(CPU cpu, int mask) {
+        cpu.cycles += stackBytes(mask);
+        cpu.pushMultiple(mask);
+    }
+
+    // pull multiple
+    static void puls(CPU cpu, int mask) {
+        cpu.cycles += stackBytes(mask);
+        cpu.pullMultiple(mask);
+    }
+
+    // push multiple sur la pile U (bit 6 = S)
+    static void pshu(CPU cpu, int mask) {
+        cpu.cycles += stackBytes(mask);
+        cpu.pushUserMultiple(mask);
+    }
 
-        add(0x34, "PSHS", cpu -> { // push multiple
-            cpu.pushMultiple(cpu.fetchByte());
-        });
+    // pull multiple depuis la pile U
+    static void pulu(CPU cpu, int mask) {
+        cpu.cycles += stackBytes(mask);
+        cpu.pullUserMultiple(mask);
+    }
 
-        add(0x35, "PULS", cpu -> { // pull multiple
-            cpu.pullMultiple(cpu.fetchByte());
-        });
+    // Octets empilés pour un masque PSH/PUL : un cycle de plus par octet
+    private static int stackBytes(int mask) {
+        return 2 * Integer.bitCount(mask & 0xF0) + Integer.bitCount(mask & 0x0F);
     }
 
     // ===== TRANSFERT REGISTRES =====
-    private void loadRegisterTransfers() {
+    private static void loadRegisterTransfers() {
+        add(0x1E, "EXG", IMMEDIATE, 8, InstructionSet::exg);
+        add(0x1F, "TFR", IMMEDIATE, 6, InstructionSet::tfr);
+    }
 
-        add(0x1E, "EXG", cpu -> { // échange registres
-            int spec = cpu.fetchByte();
-            cpu.exchangeRegisters((spec >> 4) & 0x0F, spec & 0x0F);
-        });
+    // échange registres (postbyte = source << 4 | destination)
+    static void exg(CPU cpu, int spec) {
+        cpu.exchangeRegisters((spec >> 4) & 0x0F, spec & 0x0F);
+    }
 
-        add(0x1F, "TFR", cpu -> { // transfert registres
-            int spec = cpu.fetchByte();
-            cpu.transferRegisters((spec >> 4) & 0x0F, spec & 0x0F);
-        });
+    // transfert registres
+    static void tfr(CPU cpu, int spec) {
+        cpu.transferRegisters((spec >> 4) & 0x0F, spec & 0x0F);
     }
 
     // ===== BRANCHES =====
-    private void loadBranchJumpInstructions() {
+    private static void loadBranchJumpInstructions() {
+        // Conditions des branchements $20-$2F (et $1020-$102F en version longue)
+        String[] names = {
+            "BRA", "BRN", "BHI", "BLS", "BCC", "BCS", "BNE", "BEQ",
+            "BVC", "BVS", "BPL", "BMI", "BGE", "BLT", "BGT", "BLE"
+        };
+        for (int c = 0; c < 16; c++) {
+            final int condition = c;
+            String name = names[c];
+            add(0x20 + c, name, RELATIVE, 3, (cpu, target) -> branch(cpu, condition, target));
+            if (c == 0) continue; // LBRA a son propre opcode ($16)
+            add(0x1020 + c, "L" + name, RELATIVE_16, 5, (cpu, target) -> longBranch(cpu, condition, target));
+        }
+        add(0x16, "LBRA", RELATIVE_16, 5, InstructionSet::bra);
+        add(0x8D, "BSR", RELATIVE, 7, InstructionSet::jsr);
+        add(0x17, "LBSR", RELATIVE_16, 9, InstructionSet::jsr);
+        add(0x0E, "JMP direct", DIRECT, 3, InstructionSet::jmp);
+        add(0x6E, "JMP indexed", INDEXED, 3, InstructionSet::jmp);
+        add(0x7E, "JMP extended", EXTENDED, 4, InstructionSet::jmp);
+        addMemory(0x9D, "JSR", 7, InstructionSet::jsr);
+        add(0x39, "RTS", INHERENT, 5, InstructionSet::rts);
+    }
+
+    // Condition d'un branchement (0 = toujours ... 15 = inférieur ou égal signé)
+    static boolean branchTaken(CPU cpu, int condition) {
+        if (condition < 2) return condition == 0; // BRA, BRN
+        int cc = cpu.reg.getCC();
+        boolean c = (cc & Registers.FLAG_C) != 0;
+        boolean z = (cc & Registers.FLAG_Z) != 0;
+        boolean v = (cc & Registers.FLAG_V) != 0;
+        boolean n = (cc & Registers.FLAG_N) != 0;
+        boolean taken = switch (condition >> 1) {
+            case 1 -> c || z;   // BLS (BHI = inverse)
+            case 2 -> c;        // BCS (BCC)
+            case 3 -> z;        // BEQ (BNE)
+            case 4 -> v;        // BVS (BVC)
+            case 5 -> n;        // BMI (BPL)
+            case 6 -> n != v;   // BLT (BGE)
+            default -> z || n != v; // BLE (BGT)
+        };
+        // Condition paire : la forme "inverse" (BHI, BCC, BNE, BVC, BPL, BGE, BGT)
+        return taken == ((condition & 1) != 0);
+    }
 
-        add(0x20, "BRA", cpu -> { // branche toujours
-            cpu.reg.PC = (cpu.reg.PC + (byte) cpu.fetchByte()) & 0xFFFF;
-        });
+    // branchement conditionnel court
+    static void branch(CPU cpu, int condition, int target) {
+        if (branchTaken(cpu, condition)) cpu.reg.PC = target;
+    }
+
+    // branchement conditionnel long : un cycle de plus s'il est pris
+    static void longBranch(CPU cpu, int condition, int target) {
+        if (branchTaken(cpu, condition)) {
+            cpu.reg.PC = target;
+            cpu.cycles++;
+        }
+    }
 
-        add(0x39, "RTS", cpu -> { // retour sous-programme
-            cpu.reg.PC = cpu.popWord();
-        });
+    // branche toujours
+    static void bra(CPU cpu, int target) {
+        cpu.reg.PC = target;
+    }
+
+    // saut
+    static void jmp(CPU cpu, int ea) {
+        cpu.reg.PC = ea;
+    }
+
+    // appel de sous-programme (JSR, BSR, LBSR)
+    static void jsr(CPU cpu, int target) {
+        cpu.pushWord(cpu.reg.PC);
+        cpu.reg.PC = target;
+    }
+
+    // retour sous-programme
+    static void rts(CPU cpu, int unused) {
+        cpu.reg.PC = cpu.popWord();
     }
 
     // ===== POINTEURS =====
-    private void loadPointerInstructions() {
+    private static void loadPointerInstructions() {
+        add(0x30, "LEAX", INDEXED, 4, InstructionSet::leax);
+        add(0x31, "LEAY", INDEXED, 4, InstructionSet::leay);
+        add(0x32, "LEAS", INDEXED, 4, InstructionSet::leas);
+        add(0x33, "LEAU", INDEXED, 4, InstructionSet::leau);
+    }
+
+    // X = adresse indexée
+    static void leax(CPU cpu, int ea) {
+        cpu.reg.X = ea;
+        cpu.reg.setFlag(Registers.FLAG_Z, cpu.reg.X == 0);
+    }
 
-        add(0x30, "LEAX", cpu -> { // X = adresse indexée
-            cpu.reg.X = cpu.calculateIndexedAddress();
-            cpu.reg.setFlag(Registers.FLAG_Z, cpu.reg.X == 0);
-        });
+    // Y = adresse indexée
+    static void leay(CPU cpu, int ea) {
+        cpu.reg.Y = ea;
+        cpu.reg.setFlag(Registers.FLAG_Z, cpu.reg.Y == 0);
+    }
+
+    // S = adresse indexée (flags inchangés)
+    static void leas(CPU cpu, int ea) {
+        cpu.reg.SP = ea;
+    }
+
+    // U = adresse indexée (flags inchangés)
+    static void leau(CPU cpu, int ea) {
+        cpu.reg.U = ea;
     }
 
     // ===== INTERRUPTIONS =====
-    private void loadInterruptInstructions() {
+    private static void loadInterruptInstructions() {
+        add(0x13, "SYNC", INHERENT, 4, InstructionSet::sync);
+        add(0x3B, "RTI", INHERENT, 6, InstructionSet::rti);
+        add(0x3F, "SWI", INHERENT, 19, InstructionSet::swi);
+        add(0x103F, "SWI2", INHERENT, 20, InstructionSet::swi2);
+        add(0x113F, "SWI3", INHERENT, 20, InstructionSet::swi3);
+        add(0x3C, "CWAI #", IMMEDIATE, 20, InstructionSet::cwai);
+    }
 
-        add(0x13, "SYNC", cpu -> { // halt
-            cpu.halted = true;
-        });
+    // halt
+    static void sync(CPU cpu, int unused) {
+        cpu.setHalted(true);
+    }
 
-        add(0x3B, "RTI", cpu -> { // retour interruption
-            cpu.reg.CC = cpu.popStack();
+    // retour interruption (état complet si E est levé : 9 cycles de plus, sinon CC et PC)
+    static void rti(CPU cpu, int unused) {
+        cpu.reg.setCC(cpu.popStack());
+        if (cpu.reg.getFlag(Registers.FLAG_E)) {
+            cpu.cycles += 9;
             cpu.reg.A = cpu.popStack();
             cpu.reg.B = cpu.popStack();
             cpu.reg.DP = cpu.popStack();
             cpu.reg.X = cpu.popWord();
             cpu.reg.Y = cpu.popWord();
             cpu.reg.U = cpu.popWord();
-            cpu.reg.PC = cpu.popWord();
-        });
+        }
+        cpu.reg.PC = cpu.popWord();
+    }
+
+    // interruption logicielle (IRQ et FIRQ masquées)
+    static void swi(CPU cpu, int unused) {
+        cpu.softwareInterrupt(0xFFFA, true);
+    }
+
+    static void swi2(CPU cpu, int unused) {
+        cpu.softwareInterrupt(0xFFF4, false);
+    }
+
+    static void swi3(CPU cpu, int unused) {
+        cpu.softwareInterrupt(0xFFF2, false);
+    }
+
+    // CC &= m, empile l'état complet et attend une interruption
+    static void cwai(CPU cpu, int m) {
+        cpu.waitForInterrupt(m);
     }
 }
@@ -1,19 +1,125 @@
 package cpu;
 
-// Mémoire du CPU Motorola 6809 (64 Ko)
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Mémoire du CPU Motorola 6809 (64 Ko), vue comme un bus de 256 pages de 256 octets.
+//
+// Chaque page est de la RAM, de la ROM (lecture seule) ou contient des registres
+// de périphériques. Les tables readPages/writePages pointent directement sur le tableau
+// de la page quand l'accès est un simple accès RAM : c'est le chemin rapide.
+// Une entrée nulle envoie l'accès au chemin lent (ROM en écriture, périphérique,
+// page surveillée) ; seules ces pages paient l'aiguillage.
+//
+// Le contenu est stocké sur le tas ; les sous-classes (OffHeapMemory) fournissent
+// leur propre stockage via les méthodes de la section STOCKAGE.
+//
+// Les pages sur le tas sont en copie sur écriture : un instantané (snapshot) ou une
+// copie (fork) partage les tableaux de page, et la première écriture dans une page
+// partagée la recopie (256 octets) avant de la modifier. Une page jamais écrite
+// pointe sur la page nulle commune : créer ou effacer une mémoire ne copie rien.
 public class Memory {
 
-    // Tableau mémoire : 65536 octets
-    private final byte[] mem = new byte[65536];
+    public static final int PAGE_SIZE = 256;
+    public static final int PAGES = 256;
+
+    private static final byte[] ZERO_PAGE = new byte[PAGE_SIZE]; // page nulle partagée, jamais modifiée
+
+    // Contenu RAM/ROM, une page par tableau (null si la sous-classe a son propre stockage)
+    private final byte[][] ram;
+
+    // Tables du chemin rapide : null = passer par le chemin lent
+    private final byte[][] readPages = new byte[PAGES][];
+    private final byte[][] writePages = new byte[PAGES][];
+
+    private final boolean[] readOnly = new boolean[PAGES];      // pages ROM
+    private final boolean[] shared = new boolean[PAGES];        // page partagée : recopiée à la première écriture
+    private final IoHandler[][] ioPages = new IoHandler[PAGES][]; // par page : un périphérique par octet, ou null
+
+    // ===== PERIPHERIQUES =====
+    // Périphérique branché sur le bus (registres mappés en mémoire)
+    public interface IoHandler {
+        int read(int address);
+        void write(int address, int value);
+
+        // Lecture sans effet de bord (affichage, débogueur)
+        default int peek(int address) {
+            return read(address);
+        }
+    }
+
+    // ===== SURVEILLANCE DES ECRITURES =====
+    // Observateur prévenu des écritures dans les pages qu'il surveille
+    // (ex. cache de traduction qui doit invalider le code modifié)
+    public interface WriteWatcher {
+        void written(int address);
+
+        // Contenu d'une page remplacé d'un bloc (projection, changement de banque, effacement).
+        // Par défaut octet par octet ; un observateur l'invalide plutôt en une fois.
+        default void pageWritten(int page) {
+            for (int a = page << 8; a < (page + 1) << 8; a++) written(a);
+        }
+    }
+
+    private final WriteWatcher[] watchers = new WriteWatcher[8]; // 8 observateurs au plus
+    private final byte[] watchMask = new byte[256];             // par page : un bit par observateur
+
+    // ===== SUIVI DES MODIFICATIONS =====
+    // Un bit par ligne de 16 octets (4096 lignes), mis à 1 par chaque écriture : c'est le seul
+    // coût sur le chemin d'écriture, rien sur le chemin de lecture. Un abonné relève les plages
+    // modifiées depuis son dernier relevé, puis relit la mémoire : une écriture postérieure au
+    // relevé reste signalée au suivant. Le relevé se fait sur le thread qui fait avancer le CPU,
+    // au moment où l'on prend l'instantané à afficher (EmulationThread joint le relevé à chaque
+    // image) : aucune écriture ne peut alors se glisser entre les deux.
+    public static final int LINE_SIZE = 16;
+    private static final VarHandle DIRTY = MethodHandles.arrayElementVarHandle(long[].class);
+    private final long[] dirtyLines = new long[PAGES * PAGE_SIZE / LINE_SIZE / 64];
+    private final List<DirtySubscriber> subscribers = new ArrayList<>();
+
+    public Memory() {
+        this(true);
+    }
+
+    // heapStorage = false : la sous-classe gère le stockage et son propre chemin rapide
+    protected Memory(boolean heapStorage) {
+        ram = heapStorage ? new byte[PAGES][] : null;
+        if (heapStorage) {
+            // Toutes les pages sur la page nulle : la première écriture passe par le chemin lent
+            Arrays.fill(ram, ZERO_PAGE);
+            Arrays.fill(readPages, ZERO_PAGE);
+            Arrays.fill(shared, true);
+        }
+    }
 
     // Lit un octet à une adresse 16 bits
     public byte readByte(int address) {
-        return mem[address & 0xFFFF]; // reste dans 0–65535
+        int a = address & 0xFFFF; // reste dans 0–65535
+        byte[] page = readPages[a >>> 8];
+        if (page != null) return page[a & 0xFF];
+        return readSlow(a);
     }
 
     // Écrit un octet à une adresse
     public void writeByte(int address, byte value) {
-        mem[address & 0xFFFF] = value;
+        int a = address & 0xFFFF;
+        byte[] page = writePages[a >>> 8];
+        if (page != null) {
+            page[a & 0xFF] = value;
+            markDirty(a);
+            return;
+        }
+        writeSlow(a, value);
+    }
+
+    // Lit un octet sans effet de bord sur les périphériques (affichage, débogueur)
+    public byte peekByte(int address) {
+        int a = address & 0xFFFF;
+        IoHandler handler = handlerAt(a);
+        if (handler != null) return (byte) handler.peek(a);
+        return getStored(a);
     }
 
     // Lit un mot 16 bits (2 octets)
@@ -29,13 +135,384 @@ public class Memory {
         writeByte((address + 1) & 0xFFFF, (byte) (value & 0xFF));      // octet faible
     }
 
-    // Met toute la mémoire à zéro
+    // Copie un bloc d'octets en mémoire (chargement de programme ou d'image ROM).
+    // La protection ROM ne s'applique pas, les périphériques ne sont pas touchés.
+    public void load(int address, byte[] data, int offset, int length) {
+        for (int i = 0; i < length; ) {
+            int a = (address + i) & 0xFFFF;
+            int n = Math.min(length - i, PAGE_SIZE - (a & 0xFF));
+            copyIn(a, data, offset + i, n);
+            for (int k = 0; k < n; k += LINE_SIZE) markDirty(a + k);
+            markDirty(a + n - 1);
+            if (watchMask[a >>> 8] != 0) {
+                for (int k = 0; k < n; k++) notifyWatchers(a + k);
+            }
+            i += n;
+        }
+    }
+
+    // Met la RAM à zéro (le plan mémoire est conservé, la ROM n'est pas effacée).
+    // Sur le tas, seules les pages écrites depuis sont touchées.
     public void clear() {
-        java.util.Arrays.fill(mem, (byte) 0);
+        for (int page = 0; page < PAGES; page++) {
+            if (!readOnly[page]) clearPage(page);
+        }
+    }
+
+    // ===== PLAN MEMOIRE =====
+    // Pages [start, end] en RAM (adresses, bornes incluses)
+    public void mapRam(int start, int end) {
+        for (int page = (start & 0xFFFF) >>> 8; page <= (end & 0xFFFF) >>> 8; page++) {
+            readOnly[page] = false;
+            refresh(page);
+        }
+    }
+
+    // Pages [start, end] en ROM : les écritures du CPU sont ignorées
+    public void mapRom(int start, int end) {
+        for (int page = (start & 0xFFFF) >>> 8; page <= (end & 0xFFFF) >>> 8; page++) {
+            readOnly[page] = true;
+            refresh(page);
+        }
+    }
+
+    // Branche un périphérique sur les adresses [start, end] ; les autres octets
+    // de la page restent de la RAM (ou ROM)
+    public void mapIo(int start, int end, IoHandler handler) {
+        for (int a = start & 0xFFFF; a <= (end & 0xFFFF); a++) {
+            IoHandler[] io = ioPages[a >>> 8];
+            if (io == null) io = ioPages[a >>> 8] = new IoHandler[PAGE_SIZE];
+            io[a & 0xFF] = handler;
+            refresh(a >>> 8);
+        }
+    }
+
+    // Débranche tout périphérique des adresses [start, end]
+    public void unmapIo(int start, int end) {
+        for (int a = start & 0xFFFF; a <= (end & 0xFFFF); a++) {
+            IoHandler[] io = ioPages[a >>> 8];
+            if (io == null) continue;
+            io[a & 0xFF] = null;
+            boolean empty = true;
+            for (IoHandler h : io) empty &= h == null;
+            if (empty) ioPages[a >>> 8] = null;
+            refresh(a >>> 8);
+        }
+    }
+
+    public boolean isReadOnly(int address) {
+        return readOnly[(address & 0xFFFF) >>> 8];
+    }
+
+    // Met à jour les entrées du chemin rapide d'une page
+    protected final void refresh(int page) {
+        boolean readable = ioPages[page] == null;
+        boolean writable = readable && !readOnly[page] && !shared[page] && watchMask[page] == 0;
+        updateFastPath(page, readable, writable);
+    }
+
+    // ===== INSTANTANES (COPIE SUR ECRITURE) =====
+    // Contenu figé de la mémoire : les tableaux de page ne sont plus jamais modifiés
+    public static final class Snapshot {
+        private final byte[][] pages;
+
+        private Snapshot(byte[][] pages) {
+            this.pages = pages;
+        }
+
+        public byte readByte(int address) {
+            int a = address & 0xFFFF;
+            return pages[a >>> 8][a & 0xFF];
+        }
+
+        // Nombre de pages dont le contenu diffère (au sens du partage) d'un autre instantané
+        public int differingPages(Snapshot other) {
+            int n = 0;
+            for (int page = 0; page < PAGES; page++) {
+                if (pages[page] != other.pages[page]) n++;
+            }
+            return n;
+        }
+    }
+
+    // Prend un instantané : aucune copie, toutes les pages deviennent partagées
+    public Snapshot snapshot() {
+        requireHeapStorage();
+        for (int page = 0; page < PAGES; page++) share(page);
+        return new Snapshot(ram.clone());
+    }
+
+    // Revient à un instantané : seules les pages qui diffèrent sont rebranchées
+    public void restore(Snapshot snapshot) {
+        requireHeapStorage();
+        for (int page = 0; page < PAGES; page++) {
+            if (ram[page] == snapshot.pages[page]) continue;
+            ram[page] = snapshot.pages[page];
+            shared[page] = true;
+            refresh(page);
+            contentsChanged(page);
+        }
+    }
+
+    // Copie en copie sur écriture (CPU.fork) : même plan mémoire (pages ROM), pages partagées
+    // jusqu'à la première écriture d'un côté. Les périphériques ne sont pas recopiés : ils
+    // restent branchés sur cette mémoire. Une sous-classe doit redéfinir fork(), sinon la
+    // copie perdrait son type : elle est refusée.
+    public Memory fork() {
+        requireHeapStorage();
+        if (getClass() != Memory.class) {
+            throw new UnsupportedOperationException("fork() non redéfini par " + getClass().getSimpleName());
+        }
+        Memory copy = new Memory();
+        System.arraycopy(readOnly, 0, copy.readOnly, 0, PAGES);
+        for (int page = 0; page < PAGES; page++) copy.refresh(page);
+        copy.restore(snapshot());
+        return copy;
+    }
+
+    // Faux si le stockage est hors tas (OffHeapMemory) : snapshot() y est refusé
+    public boolean supportsSnapshots() {
+        return ram != null;
+    }
+
+    private void share(int page) {
+        if (shared[page]) return;
+        shared[page] = true;
+        refresh(page);
+    }
+
+    // Première écriture dans une page partagée : on en prend une copie privée
+    private void unshare(int page) {
+        ram[page] = ram[page].clone();
+        shared[page] = false;
+        refresh(page);
+    }
+
+    private void requireHeapStorage() {
+        if (!supportsSnapshots()) {
+            throw new UnsupportedOperationException("Instantanés non supportés par " + getClass().getSimpleName());
+        }
+    }
+
+    // ===== STOCKAGE =====
+    // Stockage sur le tas ; redéfini par les sous-classes qui stockent ailleurs
+
+    // Ouvre ou ferme le chemin rapide d'une page en lecture et en écriture
+    protected void updateFastPath(int page, boolean readable, boolean writable) {
+        readPages[page] = readable ? ram[page] : null;
+        writePages[page] = writable ? ram[page] : null;
+    }
+
+    protected byte getStored(int a) {
+        return ram[a >>> 8][a & 0xFF];
+    }
+
+    protected void putStored(int a, byte value) {
+        if (shared[a >>> 8]) unshare(a >>> 8);
+        ram[a >>> 8][a & 0xFF] = value;
+    }
+
+    // Copie n octets dans une même page
+    protected void copyIn(int a, byte[] data, int offset, int n) {
+        if (shared[a >>> 8]) unshare(a >>> 8);
+        System.arraycopy(data, offset, ram[a >>> 8], a & 0xFF, n);
+    }
+
+    // Une page n'est pas effacée sur place : elle est rebranchée sur la page nulle
+    protected void clearPage(int page) {
+        if (ram[page] == ZERO_PAGE) return;
+        ram[page] = ZERO_PAGE;
+        shared[page] = true;
+        refresh(page);
+        contentsChanged(page);
+    }
+
+    // ===== CHEMIN LENT =====
+    private IoHandler handlerAt(int a) {
+        IoHandler[] io = ioPages[a >>> 8];
+        return io == null ? null : io[a & 0xFF];
+    }
+
+    protected final byte readSlow(int a) {
+        IoHandler handler = handlerAt(a);
+        if (handler != null) return (byte) handler.read(a);
+        return getStored(a);
+    }
+
+    protected final void writeSlow(int a, byte value) {
+        IoHandler handler = handlerAt(a);
+        if (handler != null) {
+            handler.write(a, value & 0xFF);
+            return;
+        }
+        if (readOnly[a >>> 8]) return; // ROM : écriture ignorée
+        putStored(a, value);
+        markDirty(a);
+        if (watchMask[a >>> 8] != 0) notifyWatchers(a);
+    }
+
+    // Enregistre un observateur, retourne son numéro
+    public int addWatcher(WriteWatcher watcher) {
+        for (int slot = 0; slot < watchers.length; slot++) {
+            if (watchers[slot] == null) {
+                watchers[slot] = watcher;
+                return slot;
+            }
+        }
+        throw new IllegalStateException("Trop d'observateurs mémoire");
+    }
+
+    // Active ou désactive la surveillance d'une page (256 octets) pour un observateur.
+    // Une page surveillée quitte le chemin rapide en écriture.
+    public void watchPage(int slot, int page, boolean on) {
+        int bit = 1 << slot;
+        if (on) watchMask[page & 0xFF] |= bit;
+        else watchMask[page & 0xFF] &= ~bit;
+        refresh(page & 0xFF);
+    }
+
+    // Contenu d'une page remplacé d'un bloc (projection de fichier) : prévient les observateurs,
+    // un appel par observateur et non un par octet
+    protected final void contentsChanged(int page) {
+        dirtyLines[page >>> 2] |= 0xFFFFL << ((page & 3) * 16); // les 16 lignes de la page
+        int mask = watchMask[page] & 0xFF;
+        while (mask != 0) {
+            int slot = Integer.numberOfTrailingZeros(mask);
+            watchers[slot].pageWritten(page);
+            mask &= mask - 1;
+        }
+    }
+
+    // Prévient les observateurs de la page écrite
+    private void notifyWatchers(int address) {
+        int mask = watchMask[address >>> 8] & 0xFF;
+        while (mask != 0) {
+            int slot = Integer.numberOfTrailingZeros(mask);
+            watchers[slot].written(address);
+            mask &= mask - 1;
+        }
+    }
+
+    // ===== SUIVI DES MODIFICATIONS : ABONNES =====
+    // Une seule instruction sur le chemin d'écriture (le décalage Java ne garde que 6 bits)
+    protected final void markDirty(int a) {
+        dirtyLines[a >>> 10] |= 1L << (a >>> 4);
+    }
+
+    // Nouvel abonné : son premier relevé signale toute la mémoire (rien n'a encore été affiché)
+    public DirtySubscriber subscribeDirty() {
+        DirtySubscriber s = new DirtySubscriber();
+        Arrays.fill(s.pending, -1L);
+        synchronized (subscribers) {
+            subscribers.add(s);
+        }
+        return s;
+    }
+
+    // Vide les bits communs vers les abonnés. getAndSet atomique côté lecteur : une écriture
+    // concurrente (thread d'exécution) peut laisser un bit en trop, jamais en perdre un.
+    private void drainDirty() {
+        for (int i = 0; i < dirtyLines.length; i++) {
+            long bits = (long) DIRTY.getAndSet(dirtyLines, i, 0L);
+            if (bits == 0) continue;
+            for (DirtySubscriber s : subscribers) s.pending[i] |= bits;
+        }
+    }
+
+    // Plage modifiée [start, end], bornes incluses, alignée sur des lignes de 16 octets
+    public record Range(int start, int end) { }
+
+    // Lignes modifiées entre deux relevés. Immuable : un relevé fait sur le thread d'exécution
+    // peut être lu par l'interface (EmulationThread.Frame).
+    // Les 16 lignes d'une page forment un groupe de 16 bits d'un même long : l'ensemble des
+    // 256 pages se lit directement dans les bits de ligne (pageChanged), sans second tableau
+    // à tenir à jour sur le chemin d'écriture.
+    public static final class DirtySet {
+        private final long[] lines;
+
+        private DirtySet(long[] lines) {
+            this.lines = lines;
+        }
+
+        public boolean isEmpty() {
+            for (long bits : lines) {
+                if (bits != 0) return false;
+            }
+            return true;
+        }
+
+        // Une des 16 lignes de la page a-t-elle été modifiée ?
+        public boolean pageChanged(int page) {
+            return (lines[(page & 0xFF) >>> 2] >>> ((page & 3) * 16) & 0xFFFF) != 0;
+        }
+
+        // Une des adresses [start, end] (bornes incluses, passage de FFFF à 0000 permis)
+        // a-t-elle été modifiée ?
+        public boolean changed(int start, int end) {
+            int from = (start & 0xFFFF) >>> 4;
+            int to = (end & 0xFFFF) >>> 4;
+            for (int line = from; ; line = (line + 1) & 0xFFF) {
+                if ((lines[line >>> 6] & (1L << line)) != 0) return true;
+                if (line == to) return false;
+            }
+        }
+
+        // Plages modifiées, fusionnées quand les lignes se suivent
+        public List<Range> ranges() {
+            List<Range> ranges = new ArrayList<>();
+            int first = -1; // première ligne de la plage en cours
+            for (int i = 0; i < lines.length; i++) {
+                long bits = lines[i];
+                if (bits == 0 && first < 0) continue;
+                for (int b = 0; b < 64; b++) {
+                    boolean dirty = (bits & (1L << b)) != 0;
+                    int line = i * 64 + b;
+                    if (dirty && first < 0) first = line;
+                    if (!dirty && first >= 0) {
+                        ranges.add(new Range(first * LINE_SIZE, line * LINE_SIZE - 1));
+                        first = -1;
+                    }
+                }
+            }
+            if (first >= 0) ranges.add(new Range(first * LINE_SIZE, PAGES * PAGE_SIZE - 1));
+            return ranges;
+        }
+
+        // Lignes modifiées dans l'un ou l'autre relevé (relevés successifs regroupés)
+        public DirtySet union(DirtySet other) {
+            long[] merged = lines.clone();
+            for (int i = 0; i < merged.length; i++) merged[i] |= other.lines[i];
+            return new DirtySet(merged);
+        }
+    }
+
+    // Abonné aux modifications : poll() rend les lignes modifiées depuis le relevé précédent
+    public final class DirtySubscriber {
+        private final long[] pending = new long[dirtyLines.length]; // accumulé depuis le relevé
+
+        private DirtySubscriber() {
+        }
+
+        public DirtySet poll() {
+            long[] lines;
+            synchronized (subscribers) {
+                drainDirty();
+                lines = pending.clone();
+                Arrays.fill(pending, 0L);
+            }
+            return new DirtySet(lines);
+        }
+
+        // Désabonne la vue
+        public void close() {
+            synchronized (subscribers) {
+                subscribers.remove(this);
+            }
+        }
     }
 
     // Retourne la taille mémoire
     public int size() {
-        return mem.length;
+        return PAGES * PAGE_SIZE;
     }
 }
@@ -0,0 +1,186 @@
+package cpu;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Mémoire hors tas : même bus que Memory, mais chaque page est une tranche de 256 octets
+// d'un ByteBuffer direct ou d'un fichier projeté en mémoire (FileChannel.map).
+//
+// - la RAM est un buffer direct de 64 Ko, ou celle que fournit une sous-classe (BankedMemory) ;
+// - une image ROM est projetée en lecture seule : aucun octet n'est copié au chargement ;
+// - une zone NVRAM est projetée en lecture/écriture sur son fichier : le système
+//   y reporte les écritures, il n'y a pas d'étape de sauvegarde. Elle survit au reset.
+public class OffHeapMemory extends Memory {
+
+    private static final byte[] ZERO_PAGE = new byte[PAGE_SIZE];
+
+    // Origine du stockage de chaque page
+    private static final byte RAM = 0, ROM_FILE = 1, NVRAM_FILE = 2, BANKED = 3;
+
+    private final ByteBuffer ram;                              // null si la sous-classe fournit sa RAM
+    private final ByteBuffer[] store = new ByteBuffer[PAGES];  // stockage actuel de chaque page
+    private final byte[] kind = new byte[PAGES];               // RAM, ROM_FILE, NVRAM_FILE ou BANKED
+
+    // Tables du chemin rapide : null = passer par le chemin lent
+    private final ByteBuffer[] readPages = new ByteBuffer[PAGES];
+    private final ByteBuffer[] writePages = new ByteBuffer[PAGES];
+
+    private final List<MappedByteBuffer> nvram = new ArrayList<>(); // pour flush()
+
+    public OffHeapMemory() {
+        this(true);
+    }
+
+    // ramBuffer = false : pas de RAM de 64 Ko, la sous-classe branche chaque page
+    // (remapPage) dans son constructeur et redéfinit ramPage
+    protected OffHeapMemory(boolean ramBuffer) {
+        super(false);
+        ram = ramBuffer ? ByteBuffer.allocateDirect(PAGES * PAGE_SIZE) : null;
+        if (!ramBuffer) return;
+        for (int page = 0; page < PAGES; page++) {
+            store[page] = ram.slice(page * PAGE_SIZE, PAGE_SIZE);
+            readPages[page] = store[page];
+            writePages[page] = store[page];
+        }
+    }
+
+    @Override
+    public byte readByte(int address) {
+        int a = address & 0xFFFF;
+        ByteBuffer page = readPages[a >>> 8];
+        if (page != null) return page.get(a & 0xFF);
+        return readSlow(a);
+    }
+
+    @Override
+    public void writeByte(int address, byte value) {
+        int a = address & 0xFFFF;
+        ByteBuffer page = writePages[a >>> 8];
+        if (page != null) {
+            page.put(a & 0xFF, value);
+            markDirty(a);
+            return;
+        }
+        writeSlow(a, value);
+    }
+
+    // ===== FICHIERS PROJETES =====
+    // Projette une image ROM à partir de address (alignée sur une page), sans copie.
+    // Une fin d'image qui ne remplit pas sa dernière page est copiée dans la RAM de cette page.
+    public void mapRomFile(int address, Path file) throws IOException {
+        int first = checkAligned(address);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0 || address + size > PAGES * PAGE_SIZE) {
+                throw new IllegalArgumentException("Image ROM vide ou trop grande : " + file);
+            }
+            MappedByteBuffer image = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int full = (int) (size / PAGE_SIZE);
+            for (int i = 0; i < full; i++) {
+                attach(first + i, image.slice(i * PAGE_SIZE, PAGE_SIZE), ROM_FILE);
+            }
+            int rest = (int) (size % PAGE_SIZE);
+            if (rest > 0) {
+                attach(first + full, ramPage(first + full), RAM);
+                store[first + full].put(0, image, full * PAGE_SIZE, rest);
+            }
+            mapRom(address, (int) (address + size - 1));
+        }
+    }
+
+    // Projette la zone [start, end] (pages entières) sur un fichier NVRAM, créé au besoin.
+    // Le contenu du fichier apparaît en mémoire et les écritures du CPU y sont reportées.
+    public void mapNvram(int start, int end, Path file) throws IOException {
+        int first = checkAligned(start);
+        int last = (end & 0xFFFF) >>> 8;
+        int pages = last - first + 1;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) pages * PAGE_SIZE);
+            nvram.add(region);
+            for (int i = 0; i < pages; i++) {
+                attach(first + i, region.slice(i * PAGE_SIZE, PAGE_SIZE), NVRAM_FILE);
+            }
+            super.mapRam(start, end);
+        }
+    }
+
+    // Les pages repassent sur la RAM hors tas (fin d'une projection ROM ou NVRAM)
+    @Override
+    public void mapRam(int start, int end) {
+        for (int page = (start & 0xFFFF) >>> 8; page <= (end & 0xFFFF) >>> 8; page++) {
+            if (kind[page] != RAM) attach(page, ramPage(page), RAM);
+        }
+        super.mapRam(start, end);
+    }
+
+    // Force l'écriture des zones NVRAM sur disque (facultatif : le système le fait de lui-même)
+    public void flush() {
+        for (MappedByteBuffer region : nvram) region.force();
+    }
+
+    // Tranche de RAM d'une page hors projection de fichier
+    protected ByteBuffer ramPage(int page) {
+        return ram.slice(page * PAGE_SIZE, PAGE_SIZE);
+    }
+
+    // Rebranche une page sur une tranche de RAM physique (MMU d'une sous-classe) :
+    // seules les tables de pages changent, aucun octet n'est copié
+    protected final void remapPage(int page, ByteBuffer buffer) {
+        attach(page, buffer, BANKED);
+    }
+
+    private void attach(int page, ByteBuffer buffer, byte origin) {
+        store[page] = buffer;
+        kind[page] = origin;
+        refresh(page);
+        contentsChanged(page);
+    }
+
+    private static int checkAligned(int address) {
+        if ((address & 0xFF) != 0) {
+            throw new IllegalArgumentException(String.format("Adresse %04X non alignée sur une page", address));
+        }
+        return (address & 0xFFFF) >>> 8;
+    }
+
+    // ===== STOCKAGE =====
+    @Override
+    protected void updateFastPath(int page, boolean readable, boolean writable) {
+        readPages[page] = readable ? store[page] : null;
+        writePages[page] = writable ? store[page] : null;
+    }
+
+    @Override
+    protected byte getStored(int a) {
+        return store[a >>> 8].get(a & 0xFF);
+    }
+
+    @Override
+    protected void putStored(int a, byte value) {
+        store[a >>> 8].put(a & 0xFF, value);
+    }
+
+    @Override
+    protected void copyIn(int a, byte[] data, int offset, int n) {
+        if (kind[a >>> 8] == ROM_FILE) {
+            throw new IllegalStateException(String.format("Page %02X projetée depuis une image ROM", a >>> 8));
+        }
+        store[a >>> 8].put(a & 0xFF, data, offset, n);
+    }
+
+    // Effacée sur place : les lignes de la page sont signalées comme pour une projection
+    @Override
+    protected void clearPage(int page) {
+        if (kind[page] == NVRAM_FILE) return;
+        store[page].put(0, ZERO_PAGE);
+        contentsChanged(page);
+    }
+}
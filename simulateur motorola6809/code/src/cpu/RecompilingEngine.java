@@ -0,0 +1,84 @@
+package cpu;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moteur à deux niveaux : les blocs de base sont d'abord interprétés depuis le cache
+// de traduction (BlockCacheEngine), puis recompilés en bytecode JVM quand ils sont chauds.
+//
+// - la recompilation se fait sur un thread à part : le bloc reste interprété en attendant ;
+// - la version compilée n'est utilisée que si le bloc entier tient dans le budget d'instructions,
+//   sinon on interprète (pas à pas, points d'arrêt et fin de budget restent exacts) ;
+// - les points d'arrêt et les IRQ sont traités par le CPU entre les blocs, comme pour le cache ;
+// - un bloc modifié (code auto-modifiant) est invalidé et retraduit : sa version compilée disparaît avec lui.
+public class RecompilingEngine extends BlockCacheEngine {
+
+    public static final int DEFAULT_THRESHOLD = 1000; // exécutions avant recompilation
+
+    // Un seul thread de compilation, partagé par tous les CPU
+    private static final ExecutorService COMPILER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "6809-recompiler");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final int threshold;
+
+    // Statistiques (mises à jour par le thread de compilation)
+    private final AtomicLong compiled = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public RecompilingEngine() {
+        this(DEFAULT_CAPACITY, DEFAULT_THRESHOLD);
+    }
+
+    // threshold : nombre d'exécutions complètes d'un bloc avant sa recompilation
+    public RecompilingEngine(int capacity, int threshold) {
+        super(capacity);
+        this.threshold = Math.max(threshold, 1);
+    }
+
+    // ===== EXECUTION =====
+    @Override
+    int runBlock(CPU cpu, Block block, int max) {
+        CompiledBlock code = block.compiled;
+        if (code != null && max >= block.size()) return code.run(cpu, block);
+
+        int done = super.runBlock(cpu, block, max);
+        if (++block.hotness == threshold) submit(block);
+        return done;
+    }
+
+    private void submit(Block block) {
+        COMPILER.execute(() -> {
+            try {
+                block.compiled = BlockCompiler.compile(block);
+                compiled.incrementAndGet();
+            } catch (RuntimeException e) {
+                // Le bloc reste interprété
+                failures.incrementAndGet();
+            }
+        });
+    }
+
+    // ===== STATISTIQUES =====
+    public long getCompiledBlocks() {
+        return compiled.get();
+    }
+
+    public long getCompileFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public String getName() {
+        return "recompiler";
+    }
+
+    @Override
+    public ExecutionEngine copy() {
+        return new RecompilingEngine(getCapacity(), threshold);
+    }
+}
@@ -10,7 +10,7 @@ public class Registers {
     public int Y;    // Registre index Y (16 bits)
     public int SP;   // Pointeur de pile système S (16 bits)
     public int U;    // Pointeur de pile utilisateur U (16 bits)
-    public int CC;   // Registre des flags (8 bits)
+    private int CC;  // Registre des flags (8 bits), lu via getCC()
     public int DP;   // Registre Direct Page (8 bits)
 
     // ===== FLAGS DU REGISTRE CC =====
@@ -23,6 +23,23 @@ public class Registers {
     public static final int FLAG_V = 0x02;  // Overflow
     public static final int FLAG_C = 0x01;  // Carry
 
+    // ===== FLAGS PARESSEUX =====
+    // Les opérations ALU enregistrent seulement leur type, leurs opérandes et leur résultat.
+    // Les flags concernés (lazyMask) ne sont calculés que lorsque CC ou un flag est lu.
+    static final int OP_NZ8  = 1;   // N, Z sur un résultat 8 bits
+    static final int OP_NZ16 = 2;   // N, Z sur un résultat 16 bits
+    static final int OP_ADD8 = 3;   // N, Z, V, C, H d'une addition 8 bits
+    static final int OP_SUB8 = 4;   // N, Z, V, C d'une soustraction 8 bits
+    static final int OP_ADD16 = 5;  // N, Z, V, C d'une addition 16 bits
+    static final int OP_SUB16 = 6;  // N, Z, V, C d'une soustraction 16 bits
+    static final int OP_INC8 = 7;   // N, Z, V d'un incrément 8 bits
+    static final int OP_DEC8 = 8;   // N, Z, V d'un décrément 8 bits
+    static final int OP_SHIFT8 = 9; // N, Z, C (bit 8 du résultat), V = bit 7 ^ bit 8 (décalage à gauche)
+
+    private int lazyOp;             // dernière opération enregistrée
+    private int lazyMask;           // flags encore à calculer (0 = CC à jour)
+    private int lazyA, lazyB, lazyR; // opérandes et résultat de cette opération
+
     // Retourne le registre D (A et B combinés)
     public int D() {
         return ((A & 0xFF) << 8) | (B & 0xFF);
@@ -34,13 +51,27 @@ public class Registers {
         B = val & 0xFF;
     }
 
+    // Retourne le registre CC (calcule les flags en attente)
+    public int getCC() {
+        if (lazyMask != 0) resolveFlags();
+        return CC;
+    }
+
+    // Écrit le registre CC (annule les flags en attente)
+    public void setCC(int val) {
+        CC = val & 0xFF;
+        lazyMask = 0;
+    }
+
     // Vérifie si un flag est actif
     public boolean getFlag(int f) {
+        if ((lazyMask & f) != 0) resolveFlags();
         return (CC & f) != 0;
     }
 
     // Active ou désactive un flag
     public void setFlag(int f, boolean val) {
+        lazyMask &= ~f; // la valeur explicite remplace le calcul en attente
         if (val) CC |= f;
         else CC &= ~f;
     }
@@ -48,6 +79,79 @@ public class Registers {
     // Efface tous les flags
     public void clearFlags() {
         CC = 0;
+        lazyMask = 0;
+    }
+
+    // Enregistre une opération dont les flags de mask seront calculés plus tard
+    void recordFlags(int op, int mask, int a, int b, int result) {
+        // Des flags en attente que la nouvelle opération ne couvre pas : on les fige d'abord
+        if ((lazyMask & ~mask) != 0) resolveFlags();
+        lazyOp = op;
+        lazyMask = mask;
+        lazyA = a;
+        lazyB = b;
+        lazyR = result;
+    }
+
+    // Calcule les flags en attente à partir de la dernière opération
+    private void resolveFlags() {
+        int f = 0;
+        switch (lazyOp) {
+            case OP_NZ8 -> {
+                int v = lazyR & 0xFF;
+                if ((v & 0x80) != 0) f |= FLAG_N;
+                if (v == 0) f |= FLAG_Z;
+            }
+            case OP_NZ16 -> {
+                int v = lazyR & 0xFFFF;
+                if ((v & 0x8000) != 0) f |= FLAG_N;
+                if (v == 0) f |= FLAG_Z;
+            }
+            case OP_ADD8 -> {
+                int res8 = lazyR & 0xFF;
+                if ((res8 & 0x80) != 0) f |= FLAG_N;
+                if (res8 == 0) f |= FLAG_Z;
+                if ((lazyR & 0x100) != 0) f |= FLAG_C;
+                if (((lazyA ^ lazyB) & 0x80) == 0 && ((lazyA ^ res8) & 0x80) != 0) f |= FLAG_V;
+                if (((lazyA ^ lazyB ^ res8) & 0x10) != 0) f |= FLAG_H;
+            }
+            case OP_SUB8 -> {
+                int res8 = lazyR & 0xFF;
+                if ((res8 & 0x80) != 0) f |= FLAG_N;
+                if (res8 == 0) f |= FLAG_Z;
+                if ((lazyR & 0x100) != 0) f |= FLAG_C;
+                if (((lazyA ^ lazyB) & 0x80) != 0 && ((lazyA ^ res8) & 0x80) != 0) f |= FLAG_V;
+            }
+            case OP_ADD16 -> {
+                int res16 = lazyR & 0xFFFF;
+                if ((res16 & 0x8000) != 0) f |= FLAG_N;
+                if (res16 == 0) f |= FLAG_Z;
+                if ((lazyR & 0x10000) != 0) f |= FLAG_C;
+                if (((lazyA ^ lazyB) & 0x8000) == 0 && ((lazyA ^ res16) & 0x8000) != 0) f |= FLAG_V;
+            }
+            case OP_SUB16 -> {
+                int res16 = lazyR & 0xFFFF;
+                if ((res16 & 0x8000) != 0) f |= FLAG_N;
+                if (res16 == 0) f |= FLAG_Z;
+                if ((lazyR & 0x10000) != 0) f |= FLAG_C;
+                if (((lazyA ^ lazyB) & 0x8000) != 0 && ((lazyA ^ res16) & 0x8000) != 0) f |= FLAG_V;
+            }
+            case OP_INC8, OP_DEC8 -> {
+                int v = lazyR & 0xFF;
+                if ((v & 0x80) != 0) f |= FLAG_N;
+                if (v == 0) f |= FLAG_Z;
+                if (v == (lazyOp == OP_INC8 ? 0x80 : 0x7F)) f |= FLAG_V;
+            }
+            case OP_SHIFT8 -> {
+                int v = lazyR & 0xFF;
+                if ((v & 0x80) != 0) f |= FLAG_N;
+                if (v == 0) f |= FLAG_Z;
+                if ((lazyR & 0x100) != 0) f |= FLAG_C;
+                if ((((lazyR >> 7) ^ (lazyR >> 8)) & 1) != 0) f |= FLAG_V;
+            }
+        }
+        CC = (CC & ~lazyMask) | (f & lazyMask);
+        lazyMask = 0;
     }
 
     // Retourne les flags sous forme texte
@@ -72,7 +176,7 @@ public class Registers {
             PC & 0xFFFF, A & 0xFF, B & 0xFF,
             X & 0xFFFF, Y & 0xFFFF,
             SP & 0xFFFF, U & 0xFFFF,
-            DP & 0xFF, CC & 0xFF,
+            DP & 0xFF, getCC() & 0xFF,
             flagsToString()
         );
     }
@@ -88,5 +192,6 @@ public class Registers {
         U = 0xFFFE;
         DP = 0x00;
         CC = 0x00;
+        lazyMask = 0;
     }
 }
@@ -0,0 +1,77 @@
+package cpu;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+// Publication de l'état du CPU vers l'interface, à fréquence plafonnée (30 ou 60 Hz).
+//
+// Le thread d'exécution appelle offer() entre deux tranches : au plus un instantané
+// immuable (CpuSnapshot, mémoire partagée en copie sur écriture, ou une image plus
+// complète comme EmulationThread.Frame) est capturé par période.
+// Il remplace le précédent s'il n'a pas encore été lu : l'affichage ne voit que le
+// plus récent. Par défaut l'image non lue est perdue ; une fonction de fusion peut en
+// reporter une partie sur la nouvelle (EmulationThread y cumule les lignes modifiées).
+// wake n'est appelé que lorsque le dépôt était vide, donc une seule demande de rendu
+// est en attente à la fois.
+//
+// L'interface ne ralentit donc plus l'émulation, et l'émulation à pleine vitesse
+// n'inonde plus l'interface.
+public final class SnapshotPublisher<T> {
+
+    public static final int HZ_30 = 30;
+    public static final int HZ_60 = 60;
+
+    private final Supplier<T> capture;  // appelé sur le thread d'exécution
+    private final Runnable wake;        // appelé depuis le thread d'exécution (ex. invokeLater)
+    private final BinaryOperator<T> deposit; // (image en dépôt ou null, nouvelle image)
+    private volatile long periodNanos;
+    private long lastNanos;             // dernière publication (thread d'exécution)
+
+    private final AtomicReference<T> latest = new AtomicReference<>();
+
+    public SnapshotPublisher(Supplier<T> capture, int hz, Runnable wake) {
+        this(capture, (unread, next) -> next, hz, wake);
+    }
+
+    // merge(image non lue, nouvelle image) : image déposée à la place de la non lue
+    public SnapshotPublisher(Supplier<T> capture, BinaryOperator<T> merge, int hz, Runnable wake) {
+        this.capture = capture;
+        this.wake = wake;
+        this.deposit = (unread, next) -> unread == null ? next : merge.apply(unread, next);
+        setRate(hz);
+        this.lastNanos = System.nanoTime() - periodNanos;
+    }
+
+    // ===== REGLAGES =====
+    // Fréquence de publication, modifiable depuis un autre thread
+    public void setRate(int hz) {
+        if (hz <= 0) throw new IllegalArgumentException("Fréquence invalide : " + hz);
+        periodNanos = 1_000_000_000L / hz;
+    }
+
+    public int getRate() {
+        return (int) (1_000_000_000L / periodNanos);
+    }
+
+    // ===== PRODUCTEUR (thread d'exécution) =====
+    // Publie si la période est écoulée depuis la dernière publication
+    public boolean offer() {
+        long now = System.nanoTime();
+        if (now - lastNanos < periodNanos) return false;
+        lastNanos = now;
+        publish();
+        return true;
+    }
+
+    // Publie tout de suite (fin d'exécution, pas à pas)
+    public void publish() {
+        if (latest.getAndAccumulate(capture.get(), deposit) == null) wake.run();
+    }
+
+    // ===== CONSOMMATEUR (interface) =====
+    // Dernier instantané publié, null s'il a déjà été lu
+    public T take() {
+        return latest.getAndSet(null);
+    }
+}
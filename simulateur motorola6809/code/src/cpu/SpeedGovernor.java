@@ -0,0 +1,121 @@
+package cpu;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Régulateur de vitesse : exécute le CPU par tranches de cycles et attend entre deux
+// tranches pour tenir une fréquence d'horloge donnée (1 MHz, 1,79 MHz, 2 MHz...).
+//
+// Le rythme est calculé depuis un point de départ (cycles, temps) : une tranche
+// trop lente est rattrapée par les suivantes, sauf si le retard devient trop grand
+// (pause du thread, breakpoint...) auquel cas on repart d'un nouveau point de départ.
+public class SpeedGovernor {
+
+    public static final double MHZ_1 = 1_000_000.0;
+    public static final double MHZ_1_79 = 1_789_773.0; // horloge NTSC / 2 (CoCo, Dragon)
+    public static final double MHZ_2 = 2_000_000.0;
+
+    private static final long SLICE_NANOS = 5_000_000L;          // 5 ms de temps émulé par tranche
+    private static final long MAX_LAG_NANOS = 100_000_000L;      // retard max rattrapé
+    private static final long MEASURE_NANOS = 500_000_000L;      // fenêtre de mesure de la vitesse
+
+    private final CPU cpu;
+    private volatile double clockHz;
+    private volatile boolean throttled = true;
+    private volatile boolean restartPending;     // réglage modifié depuis un autre thread
+
+    // Point de départ du rythme
+    private long baseNanos;
+    private long baseCycles;
+
+    // Mesure de la vitesse atteinte
+    private long measureNanos;
+    private long measureCycles;
+    private volatile double achievedHz;
+
+    public SpeedGovernor(CPU cpu, double clockHz) {
+        this.cpu = cpu;
+        this.clockHz = clockHz;
+        rebase();
+    }
+
+    // ===== REGLAGES =====
+    // Les réglages peuvent venir d'un autre thread (GUI) : ils prennent effet à la tranche suivante
+    public void setClockHz(double clockHz) {
+        this.clockHz = clockHz;
+        restart();
+    }
+
+    public double getClockHz() {
+        return clockHz;
+    }
+
+    // Non régulé : les tranches s'enchaînent sans attente (la vitesse reste mesurée)
+    public void setThrottled(boolean throttled) {
+        this.throttled = throttled;
+        restart();
+    }
+
+    public boolean isThrottled() {
+        return throttled;
+    }
+
+    // Repart d'un nouveau point de départ (après une pause ou un changement de réglage)
+    public void restart() {
+        restartPending = true;
+    }
+
+    private void rebase() {
+        baseNanos = System.nanoTime();
+        baseCycles = cpu.getCycles();
+        measureNanos = baseNanos;
+        measureCycles = baseCycles;
+    }
+
+    // ===== EXECUTION =====
+    // Exécute une tranche de cycles puis attend si on est en avance sur l'horloge cible
+    public StopReason runSlice() {
+        if (restartPending) {
+            restartPending = false;
+            rebase();
+        }
+        double hz = clockHz;
+        long slice = Math.max(1, (long) (hz * SLICE_NANOS / 1e9));
+        StopReason reason = cpu.runCycles(slice);
+
+        long now = System.nanoTime();
+        if (throttled) {
+            long due = baseNanos + (long) ((cpu.getCycles() - baseCycles) * 1e9 / hz);
+            if (now - due > MAX_LAG_NANOS) {
+                // Trop de retard : on ne cherche pas à le rattraper en rafale
+                baseNanos = now;
+                baseCycles = cpu.getCycles();
+            }
+            while (due - now > 0) {
+                LockSupport.parkNanos(due - now);
+                now = System.nanoTime();
+            }
+        }
+        measure(now);
+        return reason;
+    }
+
+    private void measure(long now) {
+        long elapsed = now - measureNanos;
+        if (elapsed >= MEASURE_NANOS) {
+            achievedHz = (cpu.getCycles() - measureCycles) * 1e9 / elapsed;
+            measureNanos = now;
+            measureCycles = cpu.getCycles();
+        }
+    }
+
+    // ===== MESURES =====
+    // Fréquence réellement atteinte sur la dernière fenêtre de mesure
+    public double getAchievedHz() {
+        return achievedHz;
+    }
+
+    // Vitesse atteinte en pourcentage de la fréquence cible
+    public double getAchievedPercent() {
+        return achievedHz * 100.0 / clockHz;
+    }
+}
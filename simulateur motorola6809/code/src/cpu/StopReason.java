@@ -0,0 +1,10 @@
+package cpu;
+
+// Raison pour laquelle CPU.run() a rendu la main
+public enum StopReason {
+    BUDGET,          // budget d'instructions épuisé
+    HALTED,          // CPU arrêté (SYNC, halt) ou en attente d'interruption
+    BREAKPOINT,      // PC sur un breakpoint
+    IRQ,             // interruption prise : PC pointe sur le vecteur IRQ
+    ILLEGAL_OPCODE   // opcode non défini rencontré
+}
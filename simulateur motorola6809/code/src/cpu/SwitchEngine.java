@@ -0,0 +1,369 @@
+package cpu;
+
+// Moteur par switch : tout le décodage tient dans une seule méthode,
+// que le JIT peut compiler et inliner d'un bloc (pas d'appel mégamorphique).
+// Les sémantiques sont celles de InstructionSet : les deux moteurs restent identiques.
+public class SwitchEngine implements ExecutionEngine {
+
+    @Override
+    public void step(CPU cpu) {
+        int opcode = cpu.fetchByte();
+        cpu.cycles += InstructionSet.CYCLES1[opcode];
+
+        switch (opcode) {
+            // ===== ARITHMETIQUE =====
+            case 0x8B -> InstructionSet.adda(cpu, cpu.fetchByte());
+            case 0x9B -> InstructionSet.adda(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xAB -> InstructionSet.adda(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xBB -> InstructionSet.adda(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xCB -> InstructionSet.addb(cpu, cpu.fetchByte());
+            case 0xDB -> InstructionSet.addb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xEB -> InstructionSet.addb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xFB -> InstructionSet.addb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x89 -> InstructionSet.adca(cpu, cpu.fetchByte());
+            case 0x99 -> InstructionSet.adca(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xA9 -> InstructionSet.adca(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xB9 -> InstructionSet.adca(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC9 -> InstructionSet.adcb(cpu, cpu.fetchByte());
+            case 0xD9 -> InstructionSet.adcb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xE9 -> InstructionSet.adcb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xF9 -> InstructionSet.adcb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x80 -> InstructionSet.suba(cpu, cpu.fetchByte());
+            case 0x90 -> InstructionSet.suba(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xA0 -> InstructionSet.suba(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xB0 -> InstructionSet.suba(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC0 -> InstructionSet.subb(cpu, cpu.fetchByte());
+            case 0xD0 -> InstructionSet.subb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xE0 -> InstructionSet.subb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xF0 -> InstructionSet.subb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x82 -> InstructionSet.sbca(cpu, cpu.fetchByte());
+            case 0x92 -> InstructionSet.sbca(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xA2 -> InstructionSet.sbca(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xB2 -> InstructionSet.sbca(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC2 -> InstructionSet.sbcb(cpu, cpu.fetchByte());
+            case 0xD2 -> InstructionSet.sbcb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xE2 -> InstructionSet.sbcb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xF2 -> InstructionSet.sbcb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x81 -> InstructionSet.cmpa(cpu, cpu.fetchByte());
+            case 0x91 -> InstructionSet.cmpa(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xA1 -> InstructionSet.cmpa(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xB1 -> InstructionSet.cmpa(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC1 -> InstructionSet.cmpb(cpu, cpu.fetchByte());
+            case 0xD1 -> InstructionSet.cmpb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xE1 -> InstructionSet.cmpb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xF1 -> InstructionSet.cmpb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC3 -> InstructionSet.addd(cpu, cpu.fetchWord());
+            case 0xD3 -> InstructionSet.addd(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xE3 -> InstructionSet.addd(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xF3 -> InstructionSet.addd(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0x83 -> InstructionSet.subd(cpu, cpu.fetchWord());
+            case 0x93 -> InstructionSet.subd(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xA3 -> InstructionSet.subd(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xB3 -> InstructionSet.subd(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0x8C -> InstructionSet.cmpx(cpu, cpu.fetchWord());
+            case 0x9C -> InstructionSet.cmpx(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xAC -> InstructionSet.cmpx(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xBC -> InstructionSet.cmpx(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0x3D -> InstructionSet.mul(cpu, 0);
+            case 0x3A -> InstructionSet.abx(cpu, 0);
+            case 0x1D -> InstructionSet.sex(cpu, 0);
+            case 0x19 -> InstructionSet.daa(cpu, 0);
+
+            // ===== SHIFTS / ROTATIONS =====
+            case 0x44 -> cpu.reg.A = InstructionSet.lsr8(cpu, cpu.reg.A);
+            case 0x54 -> cpu.reg.B = InstructionSet.lsr8(cpu, cpu.reg.B);
+            case 0x04 -> modifyDirect(cpu, InstructionSet::lsr8);
+            case 0x64 -> modifyIndexed(cpu, InstructionSet::lsr8);
+            case 0x74 -> modifyExtended(cpu, InstructionSet::lsr8);
+            case 0x46 -> cpu.reg.A = InstructionSet.ror8(cpu, cpu.reg.A);
+            case 0x56 -> cpu.reg.B = InstructionSet.ror8(cpu, cpu.reg.B);
+            case 0x06 -> modifyDirect(cpu, InstructionSet::ror8);
+            case 0x66 -> modifyIndexed(cpu, InstructionSet::ror8);
+            case 0x76 -> modifyExtended(cpu, InstructionSet::ror8);
+            case 0x47 -> cpu.reg.A = InstructionSet.asr8(cpu, cpu.reg.A);
+            case 0x57 -> cpu.reg.B = InstructionSet.asr8(cpu, cpu.reg.B);
+            case 0x07 -> modifyDirect(cpu, InstructionSet::asr8);
+            case 0x67 -> modifyIndexed(cpu, InstructionSet::asr8);
+            case 0x77 -> modifyExtended(cpu, InstructionSet::asr8);
+            case 0x48 -> cpu.reg.A = InstructionSet.lsl8(cpu, cpu.reg.A);
+            case 0x58 -> cpu.reg.B = InstructionSet.lsl8(cpu, cpu.reg.B);
+            case 0x08 -> modifyDirect(cpu, InstructionSet::lsl8);
+            case 0x68 -> modifyIndexed(cpu, InstructionSet::lsl8);
+            case 0x78 -> modifyExtended(cpu, InstructionSet::lsl8);
+            case 0x49 -> cpu.reg.A = InstructionSet.rol8(cpu, cpu.reg.A);
+            case 0x59 -> cpu.reg.B = InstructionSet.rol8(cpu, cpu.reg.B);
+            case 0x09 -> modifyDirect(cpu, InstructionSet::rol8);
+            case 0x69 -> modifyIndexed(cpu, InstructionSet::rol8);
+            case 0x79 -> modifyExtended(cpu, InstructionSet::rol8);
+
+            // ===== LOGIQUE =====
+            case 0x84 -> InstructionSet.anda(cpu, cpu.fetchByte());
+            case 0x94 -> InstructionSet.anda(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xA4 -> InstructionSet.anda(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xB4 -> InstructionSet.anda(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC4 -> InstructionSet.andb(cpu, cpu.fetchByte());
+            case 0xD4 -> InstructionSet.andb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xE4 -> InstructionSet.andb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xF4 -> InstructionSet.andb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x8A -> InstructionSet.ora(cpu, cpu.fetchByte());
+            case 0x9A -> InstructionSet.ora(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xAA -> InstructionSet.ora(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xBA -> InstructionSet.ora(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xCA -> InstructionSet.orb(cpu, cpu.fetchByte());
+            case 0xDA -> InstructionSet.orb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xEA -> InstructionSet.orb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xFA -> InstructionSet.orb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x88 -> InstructionSet.eora(cpu, cpu.fetchByte());
+            case 0x98 -> InstructionSet.eora(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xA8 -> InstructionSet.eora(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xB8 -> InstructionSet.eora(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC8 -> InstructionSet.eorb(cpu, cpu.fetchByte());
+            case 0xD8 -> InstructionSet.eorb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xE8 -> InstructionSet.eorb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xF8 -> InstructionSet.eorb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x85 -> InstructionSet.bita(cpu, cpu.fetchByte());
+            case 0x95 -> InstructionSet.bita(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xA5 -> InstructionSet.bita(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xB5 -> InstructionSet.bita(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC5 -> InstructionSet.bitb(cpu, cpu.fetchByte());
+            case 0xD5 -> InstructionSet.bitb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xE5 -> InstructionSet.bitb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xF5 -> InstructionSet.bitb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x43 -> cpu.reg.A = InstructionSet.com8(cpu, cpu.reg.A);
+            case 0x53 -> cpu.reg.B = InstructionSet.com8(cpu, cpu.reg.B);
+            case 0x03 -> modifyDirect(cpu, InstructionSet::com8);
+            case 0x63 -> modifyIndexed(cpu, InstructionSet::com8);
+            case 0x73 -> modifyExtended(cpu, InstructionSet::com8);
+            case 0x40 -> cpu.reg.A = InstructionSet.neg8(cpu, cpu.reg.A);
+            case 0x50 -> cpu.reg.B = InstructionSet.neg8(cpu, cpu.reg.B);
+            case 0x00 -> modifyDirect(cpu, InstructionSet::neg8);
+            case 0x60 -> modifyIndexed(cpu, InstructionSet::neg8);
+            case 0x70 -> modifyExtended(cpu, InstructionSet::neg8);
+            case 0x1C -> InstructionSet.andcc(cpu, cpu.fetchByte());
+            case 0x1A -> InstructionSet.orcc(cpu, cpu.fetchByte());
+
+            // ===== INC / DEC =====
+            case 0x4C -> cpu.reg.A = InstructionSet.inc8(cpu, cpu.reg.A);
+            case 0x5C -> cpu.reg.B = InstructionSet.inc8(cpu, cpu.reg.B);
+            case 0x0C -> modifyDirect(cpu, InstructionSet::inc8);
+            case 0x6C -> modifyIndexed(cpu, InstructionSet::inc8);
+            case 0x7C -> modifyExtended(cpu, InstructionSet::inc8);
+            case 0x4A -> cpu.reg.A = InstructionSet.dec8(cpu, cpu.reg.A);
+            case 0x5A -> cpu.reg.B = InstructionSet.dec8(cpu, cpu.reg.B);
+            case 0x0A -> modifyDirect(cpu, InstructionSet::dec8);
+            case 0x6A -> modifyIndexed(cpu, InstructionSet::dec8);
+            case 0x7A -> modifyExtended(cpu, InstructionSet::dec8);
+            case 0x4D -> cpu.reg.A = InstructionSet.tst8(cpu, cpu.reg.A);
+            case 0x5D -> cpu.reg.B = InstructionSet.tst8(cpu, cpu.reg.B);
+            case 0x0D -> InstructionSet.tst8(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0x6D -> InstructionSet.tst8(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0x7D -> InstructionSet.tst8(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0x4F -> cpu.reg.A = InstructionSet.clr8(cpu, cpu.reg.A);
+            case 0x5F -> cpu.reg.B = InstructionSet.clr8(cpu, cpu.reg.B);
+            case 0x0F -> modifyDirect(cpu, InstructionSet::clr8);
+            case 0x6F -> modifyIndexed(cpu, InstructionSet::clr8);
+            case 0x7F -> modifyExtended(cpu, InstructionSet::clr8);
+            case 0x12 -> InstructionSet.nop(cpu, 0);
+
+            // ===== LOAD / STORE =====
+            case 0x86 -> InstructionSet.lda(cpu, cpu.fetchByte());
+            case 0x96 -> InstructionSet.lda(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xA6 -> InstructionSet.lda(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xB6 -> InstructionSet.lda(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xC6 -> InstructionSet.ldb(cpu, cpu.fetchByte());
+            case 0xD6 -> InstructionSet.ldb(cpu, cpu.readByte(cpu.calculateDirectAddress()));
+            case 0xE6 -> InstructionSet.ldb(cpu, cpu.readByte(cpu.calculateIndexedAddress()));
+            case 0xF6 -> InstructionSet.ldb(cpu, cpu.readByte(cpu.calculateExtendedAddress()));
+            case 0xCC -> InstructionSet.ldd(cpu, cpu.fetchWord());
+            case 0xDC -> InstructionSet.ldd(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xEC -> InstructionSet.ldd(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xFC -> InstructionSet.ldd(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0x8E -> InstructionSet.ldx(cpu, cpu.fetchWord());
+            case 0x9E -> InstructionSet.ldx(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xAE -> InstructionSet.ldx(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xBE -> InstructionSet.ldx(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0xCE -> InstructionSet.ldu(cpu, cpu.fetchWord());
+            case 0xDE -> InstructionSet.ldu(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xEE -> InstructionSet.ldu(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xFE -> InstructionSet.ldu(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0x97 -> InstructionSet.sta(cpu, cpu.calculateDirectAddress());
+            case 0xA7 -> InstructionSet.sta(cpu, cpu.calculateIndexedAddress());
+            case 0xB7 -> InstructionSet.sta(cpu, cpu.calculateExtendedAddress());
+            case 0xD7 -> InstructionSet.stb(cpu, cpu.calculateDirectAddress());
+            case 0xE7 -> InstructionSet.stb(cpu, cpu.calculateIndexedAddress());
+            case 0xF7 -> InstructionSet.stb(cpu, cpu.calculateExtendedAddress());
+            case 0xDD -> InstructionSet.std(cpu, cpu.calculateDirectAddress());
+            case 0xED -> InstructionSet.std(cpu, cpu.calculateIndexedAddress());
+            case 0xFD -> InstructionSet.std(cpu, cpu.calculateExtendedAddress());
+            case 0x9F -> InstructionSet.stx(cpu, cpu.calculateDirectAddress());
+            case 0xAF -> InstructionSet.stx(cpu, cpu.calculateIndexedAddress());
+            case 0xBF -> InstructionSet.stx(cpu, cpu.calculateExtendedAddress());
+            case 0xDF -> InstructionSet.stu(cpu, cpu.calculateDirectAddress());
+            case 0xEF -> InstructionSet.stu(cpu, cpu.calculateIndexedAddress());
+            case 0xFF -> InstructionSet.stu(cpu, cpu.calculateExtendedAddress());
+
+            // ===== PILE / REGISTRES =====
+            case 0x34 -> InstructionSet.pshs(cpu, cpu.fetchByte());
+            case 0x35 -> InstructionSet.puls(cpu, cpu.fetchByte());
+            case 0x36 -> InstructionSet.pshu(cpu, cpu.fetchByte());
+            case 0x37 -> InstructionSet.pulu(cpu, cpu.fetchByte());
+            case 0x1E -> InstructionSet.exg(cpu, cpu.fetchByte());
+            case 0x1F -> InstructionSet.tfr(cpu, cpu.fetchByte());
+
+            // ===== BRANCHES / SAUTS =====
+            case 0x20 -> InstructionSet.bra(cpu, relative8(cpu));
+            case 0x21 -> InstructionSet.branch(cpu, 1, relative8(cpu));
+            case 0x22 -> InstructionSet.branch(cpu, 2, relative8(cpu));
+            case 0x23 -> InstructionSet.branch(cpu, 3, relative8(cpu));
+            case 0x24 -> InstructionSet.branch(cpu, 4, relative8(cpu));
+            case 0x25 -> InstructionSet.branch(cpu, 5, relative8(cpu));
+            case 0x26 -> InstructionSet.branch(cpu, 6, relative8(cpu));
+            case 0x27 -> InstructionSet.branch(cpu, 7, relative8(cpu));
+            case 0x28 -> InstructionSet.branch(cpu, 8, relative8(cpu));
+            case 0x29 -> InstructionSet.branch(cpu, 9, relative8(cpu));
+            case 0x2A -> InstructionSet.branch(cpu, 10, relative8(cpu));
+            case 0x2B -> InstructionSet.branch(cpu, 11, relative8(cpu));
+            case 0x2C -> InstructionSet.branch(cpu, 12, relative8(cpu));
+            case 0x2D -> InstructionSet.branch(cpu, 13, relative8(cpu));
+            case 0x2E -> InstructionSet.branch(cpu, 14, relative8(cpu));
+            case 0x2F -> InstructionSet.branch(cpu, 15, relative8(cpu));
+            case 0x16 -> InstructionSet.bra(cpu, relative16(cpu));
+            case 0x8D -> InstructionSet.jsr(cpu, relative8(cpu));
+            case 0x17 -> InstructionSet.jsr(cpu, relative16(cpu));
+            case 0x0E -> InstructionSet.jmp(cpu, cpu.calculateDirectAddress());
+            case 0x6E -> InstructionSet.jmp(cpu, cpu.calculateIndexedAddress());
+            case 0x7E -> InstructionSet.jmp(cpu, cpu.calculateExtendedAddress());
+            case 0x9D -> InstructionSet.jsr(cpu, cpu.calculateDirectAddress());
+            case 0xAD -> InstructionSet.jsr(cpu, cpu.calculateIndexedAddress());
+            case 0xBD -> InstructionSet.jsr(cpu, cpu.calculateExtendedAddress());
+            case 0x39 -> InstructionSet.rts(cpu, 0);
+
+            // ===== POINTEURS =====
+            case 0x30 -> InstructionSet.leax(cpu, cpu.calculateIndexedAddress());
+            case 0x31 -> InstructionSet.leay(cpu, cpu.calculateIndexedAddress());
+            case 0x32 -> InstructionSet.leas(cpu, cpu.calculateIndexedAddress());
+            case 0x33 -> InstructionSet.leau(cpu, cpu.calculateIndexedAddress());
+
+            // ===== INTERRUPTIONS =====
+            case 0x13 -> InstructionSet.sync(cpu, 0);
+            case 0x3B -> InstructionSet.rti(cpu, 0);
+            case 0x3F -> InstructionSet.swi(cpu, 0);
+            case 0x3C -> InstructionSet.cwai(cpu, cpu.fetchByte());
+
+            // ===== PREFIXES =====
+            case 0x10 -> page2(cpu, cpu.fetchByte());
+            case 0x11 -> page3(cpu, cpu.fetchByte());
+
+            default -> cpu.illegalOpcode(opcode);
+        }
+    }
+
+    // Opcodes préfixés par $10
+    private void page2(CPU cpu, int opcode) {
+        cpu.cycles += InstructionSet.CYCLES2[opcode];
+        switch (opcode) {
+            // ===== ARITHMETIQUE =====
+            case 0x83 -> InstructionSet.cmpd(cpu, cpu.fetchWord());
+            case 0x93 -> InstructionSet.cmpd(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xA3 -> InstructionSet.cmpd(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xB3 -> InstructionSet.cmpd(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0x8C -> InstructionSet.cmpy(cpu, cpu.fetchWord());
+            case 0x9C -> InstructionSet.cmpy(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xAC -> InstructionSet.cmpy(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xBC -> InstructionSet.cmpy(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+
+            // ===== LOAD / STORE =====
+            case 0x8E -> InstructionSet.ldy(cpu, cpu.fetchWord());
+            case 0x9E -> InstructionSet.ldy(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xAE -> InstructionSet.ldy(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xBE -> InstructionSet.ldy(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0xCE -> InstructionSet.lds(cpu, cpu.fetchWord());
+            case 0xDE -> InstructionSet.lds(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xEE -> InstructionSet.lds(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xFE -> InstructionSet.lds(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0x9F -> InstructionSet.sty(cpu, cpu.calculateDirectAddress());
+            case 0xAF -> InstructionSet.sty(cpu, cpu.calculateIndexedAddress());
+            case 0xBF -> InstructionSet.sty(cpu, cpu.calculateExtendedAddress());
+            case 0xDF -> InstructionSet.sts(cpu, cpu.calculateDirectAddress());
+            case 0xEF -> InstructionSet.sts(cpu, cpu.calculateIndexedAddress());
+            case 0xFF -> InstructionSet.sts(cpu, cpu.calculateExtendedAddress());
+
+            // ===== BRANCHES / SAUTS =====
+            case 0x21 -> InstructionSet.longBranch(cpu, 1, relative16(cpu));
+            case 0x22 -> InstructionSet.longBranch(cpu, 2, relative16(cpu));
+            case 0x23 -> InstructionSet.longBranch(cpu, 3, relative16(cpu));
+            case 0x24 -> InstructionSet.longBranch(cpu, 4, relative16(cpu));
+            case 0x25 -> InstructionSet.longBranch(cpu, 5, relative16(cpu));
+            case 0x26 -> InstructionSet.longBranch(cpu, 6, relative16(cpu));
+            case 0x27 -> InstructionSet.longBranch(cpu, 7, relative16(cpu));
+            case 0x28 -> InstructionSet.longBranch(cpu, 8, relative16(cpu));
+            case 0x29 -> InstructionSet.longBranch(cpu, 9, relative16(cpu));
+            case 0x2A -> InstructionSet.longBranch(cpu, 10, relative16(cpu));
+            case 0x2B -> InstructionSet.longBranch(cpu, 11, relative16(cpu));
+            case 0x2C -> InstructionSet.longBranch(cpu, 12, relative16(cpu));
+            case 0x2D -> InstructionSet.longBranch(cpu, 13, relative16(cpu));
+            case 0x2E -> InstructionSet.longBranch(cpu, 14, relative16(cpu));
+            case 0x2F -> InstructionSet.longBranch(cpu, 15, relative16(cpu));
+
+            // ===== INTERRUPTIONS =====
+            case 0x3F -> InstructionSet.swi2(cpu, 0);
+
+            default -> cpu.illegalOpcode(0x1000 | opcode);
+        }
+    }
+
+    // Opcodes préfixés par $11
+    private void page3(CPU cpu, int opcode) {
+        cpu.cycles += InstructionSet.CYCLES3[opcode];
+        switch (opcode) {
+            // ===== ARITHMETIQUE =====
+            case 0x83 -> InstructionSet.cmpu(cpu, cpu.fetchWord());
+            case 0x93 -> InstructionSet.cmpu(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xA3 -> InstructionSet.cmpu(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xB3 -> InstructionSet.cmpu(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+            case 0x8C -> InstructionSet.cmps(cpu, cpu.fetchWord());
+            case 0x9C -> InstructionSet.cmps(cpu, cpu.readWord(cpu.calculateDirectAddress()));
+            case 0xAC -> InstructionSet.cmps(cpu, cpu.readWord(cpu.calculateIndexedAddress()));
+            case 0xBC -> InstructionSet.cmps(cpu, cpu.readWord(cpu.calculateExtendedAddress()));
+
+            // ===== INTERRUPTIONS =====
+            case 0x3F -> InstructionSet.swi3(cpu, 0);
+
+            default -> cpu.illegalOpcode(0x1100 | opcode);
+        }
+    }
+
+    // Cible d'un branchement relatif 8 bits
+    private static int relative8(CPU cpu) {
+        int offset = (byte) cpu.fetchByte();
+        return (cpu.reg.PC + offset) & 0xFFFF;
+    }
+
+    // Cible d'un branchement relatif 16 bits
+    private static int relative16(CPU cpu) {
+        int offset = (short) cpu.fetchWord();
+        return (cpu.reg.PC + offset) & 0xFFFF;
+    }
+
+    // Lecture-modification-écriture d'un octet en mémoire (NEG, COM, décalages, INC, DEC, CLR)
+    private static void modify(CPU cpu, int ea, InstructionSet.Unary op) {
+        cpu.writeByte(ea, op.apply(cpu, cpu.readByte(ea)));
+    }
+
+    private static void modifyDirect(CPU cpu, InstructionSet.Unary op) {
+        modify(cpu, cpu.calculateDirectAddress(), op);
+    }
+
+    private static void modifyIndexed(CPU cpu, InstructionSet.Unary op) {
+        modify(cpu, cpu.calculateIndexedAddress(), op);
+    }
+
+    private static void modifyExtended(CPU cpu, InstructionSet.Unary op) {
+        modify(cpu, cpu.calculateExtendedAddress(), op);
+    }
+
+    @Override
+    public String getName() {
+        return "switch";
+    }
+}
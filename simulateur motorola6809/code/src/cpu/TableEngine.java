@@ -0,0 +1,16 @@
+package cpu;
+
+// Moteur par défaut : une lambda par opcode dans les tables de InstructionSet
+public class TableEngine implements ExecutionEngine {
+
+    @Override
+    public void step(CPU cpu) {
+        // Les préfixes $10/$11 sont aiguillés par la table elle-même
+        InstructionSet.PAGE1[cpu.fetchByte()].execute(cpu);
+    }
+
+    @Override
+    public String getName() {
+        return "table";
+    }
+}
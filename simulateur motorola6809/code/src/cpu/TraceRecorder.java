@@ -0,0 +1,189 @@
+package cpu;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+// Trace d'exécution binaire (voir CPU.setTracer).
+//
+// Chaque instruction produit un enregistrement de taille fixe dans un anneau préalloué :
+// aucune allocation ni formatage pendant l'exécution. Un thread d'arrière-plan vide
+// l'anneau dans un fichier via un FileChannel. Quand l'anneau est plein :
+// - DROP : l'enregistrement est perdu, le nombre de pertes est noté dans le suivant ;
+// - BLOCK : le CPU attend que le thread d'écriture ait fait de la place.
+//
+// Format : en-tête de 16 octets (MAGIC, taille d'enregistrement), puis des
+// enregistrements de RECORD_SIZE octets, petit-boutiste (décodeur : app.TraceDecoder).
+public final class TraceRecorder implements AutoCloseable {
+
+    public enum Policy { DROP, BLOCK }
+
+    public static final long MAGIC = 0x3143_5254_3938_3036L; // "6809TRC1"
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 32;
+
+    // ===== FORMAT D'UN ENREGISTREMENT =====
+    public static final int OFF_CYCLES = 0;   // long : cycles avant l'instruction
+    public static final int OFF_PC = 8;       // short : PC de l'instruction
+    public static final int OFF_OPCODE = 10;  // short : opcode, préfixe $10/$11 compris
+    public static final int OFF_A = 12;       // registres après l'instruction
+    public static final int OFF_B = 13;
+    public static final int OFF_DP = 14;
+    public static final int OFF_CC = 15;
+    public static final int OFF_X = 16;
+    public static final int OFF_Y = 18;
+    public static final int OFF_U = 20;
+    public static final int OFF_S = 22;
+    public static final int OFF_EA = 24;      // short : adresse effective (si FLAG_EA)
+    public static final int OFF_FLAGS = 26;   // short : FLAG_*
+    public static final int OFF_LOST = 28;    // int : enregistrements perdus juste avant celui-ci
+
+    public static final int FLAG_EA = 1;
+
+    private static final long IDLE_NANOS = 200_000L; // attente du thread d'écriture à vide
+    private static final long FULL_NANOS = 20_000L;  // attente du CPU quand l'anneau est plein
+
+    // ===== ANNEAU =====
+    private final ByteBuffer ring;
+    private final int mask;                  // capacité - 1 (en enregistrements)
+    private final Policy policy;
+    private volatile long head;              // enregistrements produits (CPU)
+    private volatile long tail;              // enregistrements écrits (thread d'écriture)
+    private int lost;                        // pertes depuis le dernier enregistrement
+    private long totalLost;
+
+    // ===== ECRITURE =====
+    private final FileChannel channel;
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // Capacité en enregistrements, arrondie à une puissance de deux
+    public TraceRecorder(Path file, int capacity, Policy policy) throws IOException {
+        int records = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = ByteBuffer.allocateDirect(records * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.mask = records - 1;
+        this.policy = policy;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(RECORD_SIZE).putInt(0).flip();
+        while (header.hasRemaining()) channel.write(header);
+
+        writer = new Thread(this::drainLoop, "6809-trace");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // ===== PRODUCTEUR (thread du CPU) =====
+    // Appelé après l'instruction : registres à jour, pc/opcode/cycles relevés avant
+    void record(CPU cpu, int pc, int opcode, long cyclesBefore) {
+        long h = head;
+        long used = h - tail;
+        if (used > mask) {
+            if (policy == Policy.DROP) {
+                lost++;
+                totalLost++;
+                return;
+            }
+            LockSupport.unpark(writer);
+            while (h - tail > mask && !closed) LockSupport.parkNanos(FULL_NANOS);
+        } else if (used == (mask + 1) >> 1) {
+            // Anneau à moitié plein : on réveille le thread d'écriture sans attendre sa pause
+            LockSupport.unpark(writer);
+        }
+
+        int base = (int) (h & mask) * RECORD_SIZE;
+        Registers r = cpu.reg;
+        ring.putLong(base + OFF_CYCLES, cyclesBefore);
+        ring.putShort(base + OFF_PC, (short) pc);
+        ring.putShort(base + OFF_OPCODE, (short) opcode);
+        ring.put(base + OFF_A, (byte) r.A);
+        ring.put(base + OFF_B, (byte) r.B);
+        ring.put(base + OFF_DP, (byte) r.DP);
+        ring.put(base + OFF_CC, (byte) r.getCC());
+        ring.putShort(base + OFF_X, (short) r.X);
+        ring.putShort(base + OFF_Y, (short) r.Y);
+        ring.putShort(base + OFF_U, (short) r.U);
+        ring.putShort(base + OFF_S, (short) r.SP);
+
+        int ea = effectiveAddress(cpu, pc, opcode);
+        ring.putShort(base + OFF_EA, (short) ea);
+        ring.putShort(base + OFF_FLAGS, (short) (ea >= 0 ? FLAG_EA : 0));
+        ring.putInt(base + OFF_LOST, lost);
+        lost = 0;
+        head = h + 1;
+    }
+
+    // Adresse effective de l'instruction, -1 si elle n'accède pas à la mémoire
+    private static int effectiveAddress(CPU cpu, int pc, int opcode) {
+        AddressingMode mode = InstructionSet.modeOf(opcode);
+        if (mode == null) return -1;
+        return switch (mode) {
+            case DIRECT, INDEXED -> cpu.getLastEffectiveAddress();
+            case EXTENDED -> {
+                int operand = pc + (opcode > 0xFF ? 2 : 1);
+                yield (cpu.peekByte(operand) << 8) | cpu.peekByte(operand + 1);
+            }
+            default -> -1;
+        };
+    }
+
+    // ===== CONSOMMATEUR (thread d'écriture) =====
+    private void drainLoop() {
+        ByteBuffer view = ring.duplicate();
+        try {
+            while (true) {
+                long t = tail;
+                long available = head - t;
+                if (available == 0) {
+                    if (closed) break;
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                // Morceau contigu jusqu'à la fin de l'anneau
+                int start = (int) (t & mask);
+                int n = (int) Math.min(available, mask + 1 - start);
+                view.limit((start + n) * RECORD_SIZE).position(start * RECORD_SIZE);
+                while (view.hasRemaining()) channel.write(view);
+                tail = t + n;
+            }
+        } catch (IOException e) {
+            failure = e;
+            tail = Long.MAX_VALUE / 2; // débloque un producteur en attente : la trace est perdue
+        }
+    }
+
+    // ===== FERMETURE =====
+    // Vide l'anneau, ferme le fichier ; relance l'erreur d'écriture éventuelle
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) throw failure;
+    }
+
+    // ===== STATISTIQUES =====
+    public long getRecorded() {
+        return head;
+    }
+
+    public long getLost() {
+        return totalLost;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+}
@@ -1,12 +1,13 @@
 package device;
 
 import cpu.CPU;
-import cpu.Registers;
+import cpu.Memory;
 
 // Simulation d’un clavier mappé en mémoire pour le processeur 6809
 // DATA  ($FF00) : contient le code de la touche
 // STATUS($FF01) : indique si une touche est disponible (1 = oui, 0 = non)
-public class Keyboard6809 {
+// Branché sur le bus mémoire du CPU (voir CPU.attachKeyboard)
+public class Keyboard6809 implements Memory.IoHandler {
 
     public static final int DATA = 0xFF00;   // Adresse mémoire des données clavier
     public static final int STATUS = 0xFF01; // Adresse mémoire du statut clavier
@@ -25,21 +26,17 @@ public class Keyboard6809 {
         keyCode = c & 0xFF;      // Conversion du caractère en code 8 bits
         keyAvailable = true;     // Une touche est maintenant disponible
 
-        // Écriture des informations clavier dans la mémoire
-        cpu.writeByte(DATA, keyCode);
-        cpu.writeByte(STATUS, 1);
-
         // Déclenche une interruption pour prévenir le CPU
         cpu.triggerIRQ();
     }
 
     // Lecture du clavier par le CPU via la mémoire
+    @Override
     public int read(int addr) {
 
         // Lecture du code de la touche
         if (addr == DATA) {
             keyAvailable = false;      // La touche est consommée
-            cpu.writeByte(STATUS, 0);  // Mise à jour du statut
             return keyCode;
         }
 
@@ -51,4 +48,15 @@ public class Keyboard6809 {
         // Autres adresses : aucune donnée
         return 0;
     }
+
+    // Lecture pour l'affichage : ne consomme pas la touche
+    @Override
+    public int peek(int addr) {
+        return addr == DATA ? keyCode : read(addr);
+    }
+
+    // Registres en lecture seule : écritures ignorées
+    @Override
+    public void write(int addr, int value) {
+    }
 }
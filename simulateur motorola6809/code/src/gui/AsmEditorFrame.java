@@ -1,6 +1,6 @@
 package gui;
 
-import cpu.CPU;
+import cpu.EmulationThread;
 import javax.swing.*;
 import java.awt.*;
 
@@ -11,12 +11,12 @@ public class AsmEditorFrame extends JFrame {
     private JTextArea editorArea;   // Zone pour écrire le code assembleur
     private JButton assembleButton; // Bouton pour assembler et charger
     private JButton loadButton;     // Bouton pour charger un programme simple
-    private CPU cpu;                // Référence vers le CPU simulé
+    private EmulationThread emu;    // Thread qui possède le CPU simulé
 
     // Constructeur de la fenêtre ASM
-    public AsmEditorFrame(CPU cpu) {
+    public AsmEditorFrame(EmulationThread emu) {
         super("ASM Editor - Motorola 6809");
-        this.cpu = cpu;
+        this.emu = emu;
 
         setSize(700, 600);
         setLocationRelativeTo(null);
@@ -81,22 +81,26 @@ public class AsmEditorFrame extends JFrame {
 
             int baseAddress = 0x8000;
 
-            // Chargement du programme en mémoire
-            for (int i = 0; i < program.length; i++) {
-                cpu.writeByte(baseAddress + i, program[i] & 0xFF);
-            }
-
-            // Initialisation des registres
-            cpu.reg.PC = baseAddress;
-            cpu.reg.SP = 0xFF00;
-            cpu.reg.A = 0;
-            cpu.reg.B = 0;
-            cpu.reg.X = 0;
-            cpu.reg.Y = 0;
-            cpu.reg.U = 0xFF00;
-            cpu.reg.DP = 0x00;
-            cpu.reg.CC = 0x00;
-            cpu.halted = false;
+            // Chargement et initialisation en une seule commande : le thread
+            // d'émulation ne voit jamais un programme à moitié chargé
+            emu.submit(cpu -> {
+                // Chargement du programme en mémoire
+                for (int i = 0; i < program.length; i++) {
+                    cpu.writeByte(baseAddress + i, program[i] & 0xFF);
+                }
+
+                // Initialisation des registres
+                cpu.reg.PC = baseAddress;
+                cpu.reg.SP = 0xFF00;
+                cpu.reg.A = 0;
+                cpu.reg.B = 0;
+                cpu.reg.X = 0;
+                cpu.reg.Y = 0;
+                cpu.reg.U = 0xFF00;
+                cpu.reg.DP = 0x00;
+                cpu.reg.setCC(0x00);
+                cpu.setHalted(false);
+            });
 
             // Message de confirmation
             JOptionPane.showMessageDialog(this,
@@ -126,19 +130,21 @@ public class AsmEditorFrame extends JFrame {
 
             int baseAddress = 0x8000;
 
-            // Chargement en mémoire
-            for (int i = 0; i < program.length; i++) {
-                cpu.writeByte(baseAddress + i, program[i] & 0xFF);
-            }
-
-            // Initialisation minimale des registres
-            cpu.reg.PC = baseAddress;
-            cpu.reg.SP = 0xFF00;
-            cpu.reg.A = 0;
-            cpu.reg.B = 0;
-            cpu.reg.X = 0;
-            cpu.reg.Y = 0;
-            cpu.halted = false;
+            emu.submit(cpu -> {
+                // Chargement en mémoire
+                for (int i = 0; i < program.length; i++) {
+                    cpu.writeByte(baseAddress + i, program[i] & 0xFF);
+                }
+
+                // Initialisation minimale des registres
+                cpu.reg.PC = baseAddress;
+                cpu.reg.SP = 0xFF00;
+                cpu.reg.A = 0;
+                cpu.reg.B = 0;
+                cpu.reg.X = 0;
+                cpu.reg.Y = 0;
+                cpu.setHalted(false);
+            });
 
             JOptionPane.showMessageDialog(this,
                     "Programme de test chargé.\n" +
@@ -62,11 +62,11 @@ public class BreakpointPanel extends JPanel {
             // Conversion de l'adresse hexadécimale en entier
             int addr = Integer.parseInt(addressField.getText(), 16);
 
-            // Ajout du breakpoint dans le CPU
-            cpu.addBreakpoint(addr);
-
-            // Ajout de l'adresse formatée dans la liste
-            model.addElement(String.format("%04X", addr & 0xFFFF));
+            // Ajout du breakpoint dans le gestionnaire du CPU (ignoré s'il existe déjà)
+            if (cpu.getBreakpointManager().add(addr)) {
+                // Ajout de l'adresse formatée dans la liste
+                model.addElement(String.format("%04X", addr & 0xFFFF));
+            }
         } catch (Exception e) {
             // Message d'erreur si l'adresse est invalide
             JOptionPane.showMessageDialog(this, "Adresse hex invalide");
@@ -80,8 +80,8 @@ public class BreakpointPanel extends JPanel {
             // Récupération de l'adresse sélectionnée
             int addr = Integer.parseInt(model.get(idx), 16);
 
-            // Suppression du breakpoint dans le CPU
-            cpu.removeBreakpoint(addr);
+            // Suppression du breakpoint dans le gestionnaire du CPU
+            cpu.getBreakpointManager().remove(addr);
 
             // Suppression dans la liste graphique
             model.remove(idx);
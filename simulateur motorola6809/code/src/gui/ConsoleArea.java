@@ -0,0 +1,152 @@
+package gui;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Console bornée : zone de texte qui ne garde que les N dernières lignes.
+//
+// append() peut être appelé depuis n'importe quel thread : le texte est déposé dans une
+// file sans verrou (ConcurrentLinkedQueue) et rien ne touche au document. Une fois par
+// image (30 Hz), le thread Swing vide la file d'un coup : le lot est ajouté au document
+// en une seule insertion, les lignes en trop sont retirées du début, et le curseur n'est
+// déplacé qu'une fois. Les lignes complètes sont aussi rangées dans un anneau de N lignes :
+// si un lot dépasse à lui seul N lignes (exécution bavarde), le document est reconstruit
+// depuis l'anneau au lieu d'y insérer des millions de lignes pour les retirer aussitôt.
+// La file est elle aussi bornée : au-delà de 4N messages en attente, les plus anciens
+// sont abandonnés (et comptés), si bien qu'une image ne traite jamais plus de 4N messages.
+public class ConsoleArea extends JTextArea {
+
+    public static final int DEFAULT_LINES = 2000;
+    private static final int FRAME_MS = 33;
+
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();  // messages dans la file
+    private final AtomicLong dropped = new AtomicLong();       // messages abandonnés
+    private final int queueLimit;
+
+    // Anneau des dernières lignes complètes (thread Swing uniquement)
+    private final String[] lines;
+    private int head;                                      // plus ancienne ligne
+    private int size;
+    private final StringBuilder partial = new StringBuilder(); // dernière ligne, sans \n
+
+    private final Timer frame = new Timer(FRAME_MS, e -> flush());
+
+    public ConsoleArea() {
+        this(DEFAULT_LINES);
+    }
+
+    public ConsoleArea(int maxLines) {
+        if (maxLines <= 0) throw new IllegalArgumentException("Nombre de lignes invalide : " + maxLines);
+        this.lines = new String[maxLines];
+        this.queueLimit = 4 * maxLines;
+    }
+
+    // ===== PRODUCTEURS (tout thread) =====
+    @Override
+    public void append(String text) {
+        if (text == null || text.isEmpty()) return;
+        pending.add(text);
+        if (queued.incrementAndGet() > queueLimit && pending.poll() != null) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+    }
+
+    // Vide la console (thread Swing)
+    @Override
+    public void setText(String text) {
+        if (lines == null) { // appel depuis le constructeur de JTextArea
+            super.setText(text);
+            return;
+        }
+        while (pending.poll() != null) queued.decrementAndGet();
+        dropped.set(0);
+        head = 0;
+        size = 0;
+        partial.setLength(0);
+        super.setText("");
+        append(text);
+        flush();
+    }
+
+    // ===== THREAD SWING =====
+    // Le rafraîchissement ne tourne que tant que la console est affichée
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        frame.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        frame.stop();
+        super.removeNotify();
+    }
+
+    // Ajoute au document tout ce qui a été déposé depuis la dernière image
+    public void flush() {
+        long lost = dropped.getAndSet(0);
+        if (pending.isEmpty() && lost == 0) return;
+        StringBuilder batch = new StringBuilder();
+        int added = 0;
+        if (lost > 0) added = take("... " + lost + " message(s) omis\n", batch, added);
+        String text;
+        while ((text = pending.poll()) != null) {
+            queued.decrementAndGet();
+            added = take(text, batch, added);
+        }
+
+        if (added >= lines.length) {
+            super.setText(ringText());
+        } else {
+            super.append(batch.toString());
+            trim();
+        }
+        setCaretPosition(getDocument().getLength());
+    }
+
+    // Range les lignes complètes d'un message dans l'anneau ; le texte n'est gardé pour
+    // l'insertion que tant que le lot reste sous N lignes. Retourne le nombre de lignes du lot.
+    private int take(String text, StringBuilder batch, int added) {
+        int start = 0;
+        for (int nl; (nl = text.indexOf('\n', start)) >= 0; start = nl + 1) {
+            partial.append(text, start, nl);
+            push(partial.toString());
+            partial.setLength(0);
+            added++;
+        }
+        partial.append(text, start, text.length());
+        if (added < lines.length) batch.append(text);
+        return added;
+    }
+
+    private void push(String line) {
+        if (size < lines.length) {
+            lines[(head + size++) % lines.length] = line;
+        } else {
+            lines[head] = line;
+            head = (head + 1) % lines.length;
+        }
+    }
+
+    private String ringText() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) sb.append(lines[(head + i) % lines.length]).append('\n');
+        return sb.append(partial).toString();
+    }
+
+    // Retire du début du document les lignes au-delà des N dernières
+    private void trim() {
+        int excess = getLineCount() - 1 - lines.length; // la dernière ligne est la ligne en cours
+        if (excess <= 0) return;
+        try {
+            getDocument().remove(0, getLineStartOffset(excess));
+        } catch (BadLocationException e) {
+            super.setText(ringText());
+        }
+    }
+}
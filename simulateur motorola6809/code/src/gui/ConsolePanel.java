@@ -6,8 +6,8 @@ import java.awt.*;
 // Panneau graphique qui sert de console d'affichage pour le CPU 6809
 public class ConsolePanel extends JPanel {
 
-    // Zone de texte où les messages de la console sont affichés
-    private final JTextArea area = new JTextArea();
+    // Zone de texte où les messages de la console sont affichés (N dernières lignes)
+    private final ConsoleArea area = new ConsoleArea();
 
     // Constructeur du panneau console
     public ConsolePanel() {
@@ -40,13 +40,9 @@ public class ConsolePanel extends JPanel {
         add(scroll, BorderLayout.CENTER);
     }
 
-    // Ajoute une ligne dans la console
+    // Ajoute une ligne dans la console (depuis n'importe quel thread ;
+    // l'affichage est mis à jour par lots et défile automatiquement vers le bas)
     public void println(String msg) {
-
-        // Ajout du message suivi d'un retour à la ligne
         area.append(msg + "\n");
-
-        // Défile automatiquement vers le bas
-        area.setCaretPosition(area.getDocument().getLength());
     }
 }
@@ -1,12 +1,16 @@
 package gui;
 
 import cpu.CPU;
+import cpu.CpuSnapshot;
+import cpu.EmulationThread;
+import cpu.Memory;
+import cpu.SnapshotPublisher;
+import cpu.SpeedGovernor;
+import cpu.StopReason;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.HashSet;
-import java.util.Set;
 
 public class EmulatorFrame extends JFrame {
 
@@ -14,12 +18,16 @@ public class EmulatorFrame extends JFrame {
 
     // Panels
     private JPanel registersPanel, stackPanel, memoryPanel, disassemblyPanel, consolePanel, breakpointsPanel;
-    private JTextArea memoryArea, disassemblyArea, stackArea, consoleOutputArea;
+    private JTextArea disassemblyArea, stackArea;
+    private ConsoleArea consoleOutputArea;
+    private HexViewer memoryView;
     private JTextField accumulatorAField, accumulatorBField, indexXField, indexYField,
             uField, spField, dpField, ccField, pcField, instructionField, breakpointField;
 
     private JButton stepButton, runButton, stopButton, resetButton,
             openAsmButton, executeButton, addBreakpointButton, removeBreakpointButton;
+    private JComboBox<String> speedBox, refreshBox;
+    private JLabel speedLabel;
 
     private static final Color BG_DARK   = new Color(20, 20, 20);
     private static final Color BG_PANEL  = new Color(30, 30, 30);
@@ -29,15 +37,29 @@ public class EmulatorFrame extends JFrame {
     private static final Color BUTTON_BG = new Color(45, 45, 45);
     private static final Color BUTTON_HOVER = new Color(65, 65, 65);
 
-    private Set<Integer> breakpoints = new HashSet<>();
-    private Timer runTimer;
+    // Vitesses proposées (Max = non régulé)
+    private static final String[] SPEEDS = {"1 MHz", "1.79 MHz", "2 MHz", "Max"};
+    private static final double[] SPEED_HZ = {SpeedGovernor.MHZ_1, SpeedGovernor.MHZ_1_79, SpeedGovernor.MHZ_2, 0};
+
+    // Fréquences de rafraîchissement de l'affichage pendant l'exécution
+    private static final String[] REFRESH = {"30 Hz", "60 Hz"};
+    private static final int[] REFRESH_HZ = {SnapshotPublisher.HZ_30, SnapshotPublisher.HZ_60};
+
+    // Seul thread qui modifie le CPU : les boutons lui envoient des commandes et
+    // l'affichage lit les images qu'il publie. Les méthodes appelées dans une commande
+    // (submit) s'exécutent sur ce thread et n'écrivent que dans la console.
+    private final EmulationThread emu;
+    private int shownSp = -1;                     // SP de la pile affichée (-1 : aucune)
 
     public EmulatorFrame(CPU cpu) {
         super("Motorola 6809 Emulator");
         this.cpu = cpu;
+        this.emu = new EmulationThread(cpu, SnapshotPublisher.HZ_30,
+                () -> SwingUtilities.invokeLater(this::render));
+        this.emu.setStopListener(this::runFinished);
         initUI();
-        loadDefaultProgram();
-        updateAllDisplays();
+        emu.start();
+        emu.submit(c -> loadDefaultProgram());
     }
 
     private void initUI() {
@@ -64,17 +86,27 @@ public class EmulatorFrame extends JFrame {
         stopButton.addActionListener(e -> stopRun());
         resetButton.addActionListener(e -> resetEmulator());
         openAsmButton.addActionListener(e -> {
-            AsmEditorFrame asmEditor = new AsmEditorFrame(cpu);
+            AsmEditorFrame asmEditor = new AsmEditorFrame(emu);
             asmEditor.setVisible(true);
         });
         executeButton.addActionListener(e -> executeFiveInstructions());
 
+        speedBox = new JComboBox<>(SPEEDS);
+        speedBox.addActionListener(e -> applySpeed());
+        refreshBox = new JComboBox<>(REFRESH);
+        refreshBox.addActionListener(e -> emu.setRate(REFRESH_HZ[refreshBox.getSelectedIndex()]));
+        speedLabel = new JLabel("  ");
+        speedLabel.setForeground(FG_TEXT);
+
         topPanel.add(stepButton);
         topPanel.add(runButton);
         topPanel.add(stopButton);
         topPanel.add(resetButton);
         topPanel.add(openAsmButton);
         topPanel.add(executeButton);
+        topPanel.add(speedBox);
+        topPanel.add(refreshBox);
+        topPanel.add(speedLabel);
 
         mainPanel.add(topPanel, BorderLayout.NORTH);
 
@@ -120,8 +152,10 @@ public class EmulatorFrame extends JFrame {
         memoryPanel = new JPanel(new BorderLayout());
         memoryPanel.setBackground(BG_PANEL);
         memoryPanel.setBorder(createBorder("Mémoire"));
-        memoryArea = createTextArea(false);
-        memoryPanel.add(new JScrollPane(memoryArea), BorderLayout.CENTER);
+        memoryView = new HexViewer();
+        memoryView.setBackground(BG_AREA);
+        memoryView.setForeground(FG_TEXT);
+        memoryPanel.add(new JScrollPane(memoryView), BorderLayout.CENTER);
 
         gbc.gridx = 1;
         gbc.weightx = 0.45;
@@ -134,7 +168,7 @@ public class EmulatorFrame extends JFrame {
         consolePanel = new JPanel(new BorderLayout());
         consolePanel.setBackground(BG_PANEL);
         consolePanel.setBorder(createBorder("Console"));
-        consoleOutputArea = createTextArea(true);
+        consoleOutputArea = styleTextArea(new ConsoleArea(), true);
         consolePanel.add(new JScrollPane(consoleOutputArea), BorderLayout.CENTER);
 
         breakpointsPanel = new JPanel(new BorderLayout());
@@ -210,6 +244,7 @@ public class EmulatorFrame extends JFrame {
         consoleOutputArea.append(" Utilisez ASM EDITOR pour charger un programme .\n");
     }
 
+    // Thread d'émulation
     private void loadDefaultProgram() {
         // Programme de démonstration par défaut
         int base = 0x8000;
@@ -228,61 +263,63 @@ public class EmulatorFrame extends JFrame {
         
         cpu.reg.PC = base;
         cpu.reg.SP = 0xFF00;
-        cpu.halted = false;
+        cpu.setHalted(false);
         
         consoleOutputArea.append("Programme prêt à exécuter ");
 
     }
 
     private void executeFiveInstructions() {
-        if (cpu.halted) {
-            cpu.halted = false;
-            consoleOutputArea.append("réactivation de CPU\n");
-        }
-        
-        consoleOutputArea.append("Exécution de 5 instructions.\n");
-        for (int i = 0; i < 5 && !cpu.halted; i++) {
-            int pcBefore = cpu.reg.PC & 0xFFFF;
-            int opcode = cpu.readByte(pcBefore);
-            String instName = cpu.getInstructionSet().getName(opcode);
-            
-            cpu.step();
-            consoleOutputArea.append(String.format("  PC=%04X : %s\n", pcBefore, instName));
-            
-            if (breakpoints.contains(cpu.reg.PC & 0xFFFF)) {
-                consoleOutputArea.append("   Breakpoint atteint\n");
-                break;
+        emu.submit(c -> {
+            if (cpu.isHalted()) {
+                cpu.setHalted(false);
+                consoleOutputArea.append("réactivation de CPU\n");
             }
-        }
-        
-        updateAllDisplays();
-        consoleOutputArea.append("5 instructions exécutées\n");
+
+            consoleOutputArea.append("Exécution de 5 instructions.\n");
+            for (int i = 0; i < 5 && !cpu.isHalted(); i++) {
+                int pcBefore = cpu.reg.PC & 0xFFFF;
+                String instName = cpu.getDisassembler().text(pcBefore);
+
+                cpu.step();
+                consoleOutputArea.append(String.format("  PC=%04X : %s\n", pcBefore, instName));
+
+                if (cpu.getBreakpointManager().contains(cpu.reg.PC)) {
+                    consoleOutputArea.append("   Breakpoint atteint\n");
+                    break;
+                }
+            }
+
+            consoleOutputArea.append("5 instructions exécutées\n");
+        });
     }
 
     private void stepInstruction() {
-        if (cpu.halted) {
+        emu.submit(c -> step());
+    }
+
+    // Thread d'émulation
+    private void step() {
+        if (cpu.isHalted()) {
             consoleOutputArea.append("CPU HALTED , Taper RESET pour continuer\n");
             return;
         }
         
         try {
             int pcBefore = cpu.reg.PC & 0xFFFF;
-            int opcode = cpu.readByte(pcBefore);
-            String instName = cpu.getInstructionSet().getName(opcode);
+            int opcode = cpu.peekByte(pcBefore);
+            String instName = cpu.getDisassembler().text(pcBefore);
             
-            // Exécuter l'instruction
+            // Exécuter l'instruction (l'affichage suit l'image publiée après la commande)
             cpu.step();
             
-            // Mettre à jour l'affichage
-            updateAllDisplays();
-            
             // Afficher dans la console
             consoleOutputArea.append(String.format("PC=%04X : %s (opcode %02X)\n", 
                 pcBefore, instName, opcode));
             
             // Vérifier les breakpoints
             int currentPC = cpu.reg.PC & 0xFFFF;
-            if (breakpoints.contains(currentPC)) {
+            if (cpu.getBreakpointManager().contains(currentPC)) {
                 consoleOutputArea.append(" Breakpoint atteint à $" + 
                     String.format("%04X", currentPC) + "\n");
                 stopRun();
@@ -290,119 +327,121 @@ public class EmulatorFrame extends JFrame {
             
         } catch (Exception e) {
             consoleOutputArea.append("Erreur: " + e.getMessage() + "\n");
-            cpu.halted = true;
+            cpu.setHalted(true);
         }
     }
 
     private void startRun() {
-        if (runTimer == null) {
+        if (!emu.isRunning()) {
             consoleOutputArea.append("Démarrage de l'exécution continue...\n");
-            
-            runTimer = new Timer(200, e -> {
-                if (!cpu.halted && !breakpoints.contains(cpu.reg.PC & 0xFFFF)) {
-                    stepInstruction();
-                } else {
-                    stopRun();
-                    if (cpu.halted) {
-                        consoleOutputArea.append("CPU HALTED\n");
-                    }
-                }
-            });
-            runTimer.start();
+            emu.run();
         }
     }
 
+    // Affiche la dernière image publiée par le thread d'émulation (les précédentes sont ignorées)
+    private void render() {
+        EmulationThread.Frame f = emu.take();
+        if (f == null) return;
+        updateAllDisplays(f);
+        updateSpeedLabel();
+        // CPU à l'arrêt : la mémoire suit le PC
+        if (!f.running()) memoryView.scrollToAddress(f.state().pc);
+    }
+
+    // Fin de l'exécution continue (breakpoint ou CPU arrêté), sur le thread d'émulation
+    private void runFinished(StopReason reason) {
+        switch (reason) {
+            case BREAKPOINT -> consoleOutputArea.append(" Breakpoint atteint à $" +
+                    String.format("%04X", cpu.reg.PC) + "\n");
+            case ILLEGAL_OPCODE -> consoleOutputArea.append("Opcode illégal, CPU HALTED\n");
+            case HALTED -> consoleOutputArea.append("CPU HALTED\n");
+            default -> { }
+        }
+        consoleOutputArea.append("Exécution arrêtée\n");
+    }
+
+    // Appelable depuis le thread Swing ou depuis une commande
     private void stopRun() {
-        if (runTimer != null) {
-            runTimer.stop();
-            runTimer = null;
+        if (emu.isRunning()) {
+            emu.stop();
             consoleOutputArea.append("Exécution arrêtée\n");
         }
     }
 
+    // Applique la vitesse choisie au régulateur
+    private void applySpeed() {
+        double hz = SPEED_HZ[speedBox.getSelectedIndex()];
+        SpeedGovernor governor = emu.getGovernor();
+        if (hz > 0) governor.setClockHz(hz);
+        governor.setThrottled(hz > 0);
+    }
+
+    // Vitesse atteinte, en % de la fréquence cible (ou en MHz si non régulé)
+    private void updateSpeedLabel() {
+        SpeedGovernor governor = emu.getGovernor();
+        if (governor.isThrottled()) {
+            speedLabel.setText(String.format("%.0f %%", governor.getAchievedPercent()));
+        } else {
+            speedLabel.setText(String.format("%.2f MHz (%.0f %%)",
+                    governor.getAchievedHz() / 1e6, governor.getAchievedPercent()));
+        }
+    }
+
     private void resetEmulator() {
         stopRun();
-        cpu.reset();
-        loadDefaultProgram();
-        breakpoints.clear();
-        consoleOutputArea.append("<------> CPU réinitialisé <----->\n");
-        updateAllDisplays();
+        emu.submit(c -> {
+            cpu.reset(); // efface aussi les breakpoints
+            loadDefaultProgram();
+            consoleOutputArea.append("<------> CPU réinitialisé <----->\n");
+        });
     }
 
-    private void updateAllDisplays() {
-        updateRegisterDisplay();
-        updateMemoryDisplay();
-        updateStackDisplay();
-        updateDisassembly();
+    private void updateAllDisplays(EmulationThread.Frame f) {
+        CpuSnapshot s = f.state();
+        updateRegisterDisplay(s, f.instruction());
+        updateMemoryDisplay(s, f.changes());
+        updateStackDisplay(s, f.changes());
+        updateDisassembly(f);
     }
 
-    private void updateRegisterDisplay() {
-        accumulatorAField.setText(String.format("%02X", cpu.reg.A & 0xFF));
-        accumulatorBField.setText(String.format("%02X", cpu.reg.B & 0xFF));
-        indexXField.setText(String.format("%04X", cpu.reg.X & 0xFFFF));
-        indexYField.setText(String.format("%04X", cpu.reg.Y & 0xFFFF));
-        uField.setText(String.format("%04X", cpu.reg.U & 0xFFFF));
-        spField.setText(String.format("%04X", cpu.reg.SP & 0xFFFF));
-        dpField.setText(String.format("%02X", cpu.reg.DP & 0xFF));
-        ccField.setText(String.format("%02X", cpu.reg.CC & 0xFF));
-        pcField.setText(String.format("%04X", cpu.reg.PC & 0xFFFF));
+    private void updateRegisterDisplay(CpuSnapshot s, String instruction) {
+        accumulatorAField.setText(String.format("%02X", s.a & 0xFF));
+        accumulatorBField.setText(String.format("%02X", s.b & 0xFF));
+        indexXField.setText(String.format("%04X", s.x & 0xFFFF));
+        indexYField.setText(String.format("%04X", s.y & 0xFFFF));
+        uField.setText(String.format("%04X", s.u & 0xFFFF));
+        spField.setText(String.format("%04X", s.sp & 0xFFFF));
+        dpField.setText(String.format("%02X", s.dp & 0xFF));
+        ccField.setText(String.format("%02X", s.cc & 0xFF));
+        pcField.setText(String.format("%04X", s.pc & 0xFFFF));
         
-        int pc = cpu.reg.PC & 0xFFFF;
-        int opcode = cpu.readByte(pc);
-        String instName = cpu.getInstructionSet().getName(opcode);
-        instructionField.setText(instName);
+        instructionField.setText(instruction);
     }
 
-    private void updateMemoryDisplay() {
-        StringBuilder m = new StringBuilder();
-        int startAddr = cpu.reg.PC & 0xFFF0; // Aligné sur 16
-        
-        for (int i = 0; i < 8; i++) {
-            int addr = startAddr + (i * 16);
-            if (addr >= 0 && addr <= 0xFFFF) {
-                m.append(String.format("%04X : ", addr));
-                for (int j = 0; j < 16; j++) {
-                    m.append(String.format("%02X ", cpu.readByte(addr + j)));
-                }
-                m.append("\n");
-            }
-        }
-        memoryArea.setText(m.toString());
+    // La vue hexadécimale ne redessine que les octets modifiés et les positions PC/SP
+    private void updateMemoryDisplay(CpuSnapshot s, Memory.DirtySet changes) {
+        memoryView.refresh(s, changes);
     }
 
-    private void updateStackDisplay() {
-        StringBuilder s = new StringBuilder();
-        int sp = cpu.reg.SP & 0xFFFF;
-        
+    // Octets lus dans l'instantané : la pile est celle du même instant que les registres
+    private void updateStackDisplay(CpuSnapshot s, Memory.DirtySet changes) {
+        int sp = s.sp & 0xFFFF;
+        if (sp == shownSp && !changes.changed(sp, sp + 7)) return;
+        shownSp = sp;
+
+        StringBuilder sb = new StringBuilder();
+
         for (int i = 0; i < 8; i++) {
             int addr = (sp + i) & 0xFFFF;
-            s.append(String.format("%04X : %02X\n", addr, cpu.readByte(addr)));
+            sb.append(String.format("%04X : %02X\n", addr, s.readByte(addr)));
         }
-        stackArea.setText(s.toString());
+        stackArea.setText(sb.toString());
     }
 
-    private void updateDisassembly() {
-        StringBuilder sb = new StringBuilder();
-        int pc = cpu.reg.PC & 0xFFFF;
-        
-        for (int i = 0; i < 8; i++) {
-            int addr = (pc + i) & 0xFFFF;
-            int opcode = cpu.readByte(addr);
-            String instName = cpu.getInstructionSet().getName(opcode);
-            
-            if (instName.equals("UNKNOWN")) {
-                sb.append(String.format("%04X : %02X     DB %02X\n", addr, opcode, opcode));
-            } else if (instName.contains("#")) {
-                int operand = cpu.readByte((addr + 1) & 0xFFFF);
-                sb.append(String.format("%04X : %02X %02X  %s\n", addr, opcode, operand, 
-                    instName.replace("#", String.format("#%02X", operand))));
-                i++; // Skip operand
-            } else {
-                sb.append(String.format("%04X : %02X     %s\n", addr, opcode, instName));
-            }
-        }
-        
-        disassemblyArea.setText(sb.toString());
+    // Le thread d'émulation joint le désassemblage à l'image (cache du désassembleur :
+    // seules les lignes dont le code a changé sont redécodées)
+    private void updateDisassembly(EmulationThread.Frame f) {
+        disassemblyArea.setText(f.disassembly());
     }
 
     private void addBreakpoint() {
@@ -415,14 +454,14 @@ public class EmulatorFrame extends JFrame {
             }
             
             int addr = Integer.parseInt(addrStr, 16) & 0xFFFF;
-            if (!breakpoints.contains(addr)) {
-                breakpoints.add(addr);
-                cpu.addBreakpoint(addr);
-                consoleOutputArea.append("Breakpoint ajouté à $" + String.format("%04X", addr) + "\n");
-                breakpointField.setText("");
-            } else {
-                consoleOutputArea.append("Breakpoint existe déjà\n");
-            }
+            emu.submit(c -> {
+                if (c.getBreakpointManager().add(addr)) {
+                    consoleOutputArea.append("Breakpoint ajouté à $" + String.format("%04X", addr) + "\n");
+                    SwingUtilities.invokeLater(() -> breakpointField.setText(""));
+                } else {
+                    consoleOutputArea.append("Breakpoint existe déjà\n");
+                }
+            });
         } catch (Exception e) {
             consoleOutputArea.append("Adresse invalide.\n");
         }
@@ -438,20 +477,24 @@ public class EmulatorFrame extends JFrame {
             }
             
             int addr = Integer.parseInt(addrStr, 16) & 0xFFFF;
-            if (breakpoints.remove(addr)) {
-                cpu.removeBreakpoint(addr);
-                consoleOutputArea.append("Breakpoint supprimé à $" + String.format("%04X", addr) + "\n");
-                breakpointField.setText("");
-            } else {
-                consoleOutputArea.append("Breakpoint non trouvé\n");
-            }
+            emu.submit(c -> {
+                if (c.getBreakpointManager().remove(addr)) {
+                    consoleOutputArea.append("Breakpoint supprimé à $" + String.format("%04X", addr) + "\n");
+                    SwingUtilities.invokeLater(() -> breakpointField.setText(""));
+                } else {
+                    consoleOutputArea.append("Breakpoint non trouvé\n");
+                }
+            });
         } catch (Exception e) {
             consoleOutputArea.append("Adresse invalide.\n");
         }
     }
 
     private JTextArea createTextArea(boolean editable) {
-        JTextArea a = new JTextArea();
+        return styleTextArea(new JTextArea(), editable);
+    }
+
+    private <T extends JTextArea> T styleTextArea(T a, boolean editable) {
         a.setBackground(BG_AREA);
         a.setForeground(FG_TEXT);
         a.setCaretColor(FG_TEXT);
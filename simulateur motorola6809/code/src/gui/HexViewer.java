@@ -0,0 +1,206 @@
+package gui;
+
+import cpu.CpuSnapshot;
+import cpu.Memory;
+import javax.swing.*;
+import java.awt.*;
+
+// Vue hexadécimale des 64 Ko, dessinée à la main : seules les lignes visibles sont peintes,
+// avec des chaînes précalculées pour les 256 valeurs d'octet (aucun String.format).
+//
+// La vue affiche un instantané du CPU (CpuSnapshot) et n'accède jamais à la mémoire vive :
+// elle peut être rafraîchie sur le thread Swing pendant que le thread d'émulation écrit.
+// Elle garde sa propre copie des octets. refresh() ne compare et ne recopie que les lignes
+// signalées modifiées depuis le rafraîchissement précédent (Memory.DirtySet), et ne
+// redessine que les lignes dont un octet a changé ou qui portent PC/SP.
+public class HexViewer extends JComponent implements Scrollable {
+
+    private static final int BYTES_PER_ROW = 16;
+    private static final int ROWS = 65536 / BYTES_PER_ROW;
+
+    // Chaînes précalculées : les 256 octets et les 4096 adresses de ligne
+    private static final String[] HEX = new String[256];
+    private static final String[] ADDRESSES = new String[ROWS];
+
+    static {
+        for (int v = 0; v < 256; v++) HEX[v] = String.format("%02X", v);
+        for (int row = 0; row < ROWS; row++) ADDRESSES[row] = String.format("%04X", row * BYTES_PER_ROW);
+    }
+
+    // Couleurs de surbrillance
+    private static final Color CHANGED = new Color(150, 110, 20);
+    private static final Color PC_COLOR = new Color(30, 90, 160);
+    private static final Color SP_COLOR = new Color(40, 120, 60);
+    private static final Color ADDRESS_COLOR = new Color(130, 130, 130);
+
+    private boolean loaded;                             // un instantané a été affiché
+    private final byte[] shown = new byte[65536];        // octets affichés
+    private final long[] changed = new long[65536 / 64]; // octets modifiés au dernier rafraîchissement
+    private int pc = -1, sp = -1;
+    private int repaintFrom, repaintTo;                 // lignes à redessiner (repaintFrom > repaintTo : aucune)
+
+    // Métriques de la police
+    private int charWidth, rowHeight, ascent;
+
+    public HexViewer() {
+        setFont(new Font("Monospaced", Font.PLAIN, 12));
+        setOpaque(true);
+        setBackground(new Color(15, 15, 15));
+        setForeground(Color.WHITE);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        FontMetrics fm = getFontMetrics(font);
+        charWidth = fm.charWidth('0');
+        ascent = fm.getAscent();
+        rowHeight = fm.getHeight() + 2;
+        revalidate();
+    }
+
+    // ===== RAFRAICHISSEMENT =====
+    // Affiche un instantané (octets, PC et SP) ; à appeler sur le thread Swing.
+    // changes : lignes écrites depuis l'instantané précédent (ignoré au premier appel)
+    public void refresh(CpuSnapshot s, Memory.DirtySet changes) {
+        repaintFrom = ROWS;
+        repaintTo = -1;
+        clearChanged();
+        if (!loaded) {
+            for (int a = 0; a < 65536; a++) shown[a] = (byte) s.readByte(a);
+        } else {
+            for (Memory.Range r : changes.ranges()) {
+                for (int a = r.start(); a <= r.end(); a++) {
+                    byte v = (byte) s.readByte(a);
+                    if (v == shown[a]) continue;
+                    shown[a] = v;
+                    changed[a >>> 6] |= 1L << a;
+                    markRow(a / BYTES_PER_ROW);
+                }
+            }
+        }
+        int pc = s.pc & 0xFFFF;
+        int sp = s.sp & 0xFFFF;
+        if (pc != this.pc) {
+            markAddress(this.pc);
+            markAddress(pc);
+            this.pc = pc;
+        }
+        if (sp != this.sp) {
+            markAddress(this.sp);
+            markAddress(sp);
+            this.sp = sp;
+        }
+        if (!loaded) {
+            loaded = true;
+            repaint();
+        } else {
+            repaintMarked();
+        }
+    }
+
+    // Les octets signalés au rafraîchissement précédent ne le sont plus
+    private void clearChanged() {
+        for (int i = 0; i < changed.length; i++) {
+            if (changed[i] == 0) continue;
+            changed[i] = 0;
+            markRow(i * 64 / BYTES_PER_ROW);
+            markRow((i + 1) * 64 / BYTES_PER_ROW - 1);
+        }
+    }
+
+    // Fait défiler la vue pour montrer une adresse
+    public void scrollToAddress(int address) {
+        int row = (address & 0xFFFF) / BYTES_PER_ROW;
+        scrollRectToVisible(new Rectangle(0, row * rowHeight, 1, rowHeight));
+    }
+
+    private void markAddress(int address) {
+        if (address >= 0) markRow(address / BYTES_PER_ROW);
+    }
+
+    private void markRow(int row) {
+        repaintFrom = Math.min(repaintFrom, row);
+        repaintTo = Math.max(repaintTo, row);
+    }
+
+    // Une seule demande de dessin, limitée à la partie visible : le coût ne dépend
+    // pas du nombre d'octets modifiés
+    private void repaintMarked() {
+        if (repaintFrom > repaintTo) return;
+        Rectangle visible = getVisibleRect();
+        int top = Math.max(repaintFrom * rowHeight, visible.y);
+        int bottom = Math.min((repaintTo + 1) * rowHeight, visible.y + visible.height);
+        if (top < bottom) repaint(0, top, getWidth(), bottom - top);
+    }
+
+    // ===== DESSIN =====
+    // Colonnes : adresse, deux espaces, puis 16 octets de 3 caractères
+    private int byteX(int column) {
+        return (6 + column * 3) * charWidth;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle clip = g2.getClipBounds();
+        g2.setColor(getBackground());
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (!loaded) return;
+
+        int firstRow = Math.max(0, clip.y / rowHeight);
+        int lastRow = Math.min(ROWS - 1, (clip.y + clip.height - 1) / rowHeight);
+        for (int row = firstRow; row <= lastRow; row++) {
+            int y = row * rowHeight;
+            int base = row * BYTES_PER_ROW;
+
+            g2.setColor(ADDRESS_COLOR);
+            g2.drawString(ADDRESSES[row], 0, y + ascent + 1);
+
+            for (int col = 0; col < BYTES_PER_ROW; col++) {
+                int a = base + col;
+                int x = byteX(col);
+                Color mark = a == pc ? PC_COLOR : a == sp ? SP_COLOR
+                        : (changed[a >>> 6] & (1L << a)) != 0 ? CHANGED : null;
+                if (mark != null) {
+                    g2.setColor(mark);
+                    g2.fillRect(x - charWidth / 2, y, charWidth * 3, rowHeight);
+                }
+                g2.setColor(getForeground());
+                g2.drawString(HEX[shown[a] & 0xFF], x, y + ascent + 1);
+            }
+        }
+    }
+
+    // ===== DEFILEMENT =====
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(byteX(BYTES_PER_ROW) + charWidth, ROWS * rowHeight);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(getPreferredSize().width, 16 * rowHeight);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? rowHeight : charWidth;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        if (orientation != SwingConstants.VERTICAL) return visible.width;
+        return Math.max(rowHeight, visible.height / rowHeight * rowHeight - rowHeight);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -1,17 +1,21 @@
 package gui;
 
 import cpu.CPU;
+import cpu.Memory;
 import javax.swing.*;
 import java.awt.*;
 
 // Panneau graphique pour afficher la mémoire du CPU
 public class MemoryPanel extends JPanel {
 
-    private final JTextArea area = new JTextArea(); // Zone de texte pour afficher la mémoire
-    private final CPU cpu;                           // Référence au CPU pour lire la mémoire
+    private final HexViewer view;                    // Vue hexadécimale des 64 Ko
+    private final CPU cpu;                           // CPU affiché (instantané à chaque rafraîchissement)
+    private final Memory.DirtySubscriber dirty;      // lignes écrites depuis le dernier rafraîchissement
 
     public MemoryPanel(CPU cpu) {
         this.cpu = cpu;
+        this.dirty = cpu.mem.subscribeDirty();
+        this.view = new HexViewer();
 
         // Ajouter une bordure avec titre et marge interne
         setBorder(BorderFactory.createCompoundBorder(
@@ -19,34 +23,18 @@ public class MemoryPanel extends JPanel {
             BorderFactory.createEmptyBorder(8, 8, 8, 8)
         ));
 
-        setLayout(new BorderLayout()); // Layout pour placer la zone de texte au centre
+        setLayout(new BorderLayout()); // Layout pour placer la vue au centre
 
-        // Configurer la zone de texte
-        area.setFont(new Font("Monospaced", Font.PLAIN, 12)); // Police monospace pour alignement
-        area.setEditable(false);  // Lecture seule
-        area.setRows(20);
-        area.setColumns(32);
-
-        // Ajouter un scroll à la zone de texte
-        JScrollPane scroll = new JScrollPane(area);
+        // Ajouter un scroll à la vue (seules les lignes visibles sont dessinées)
+        JScrollPane scroll = new JScrollPane(view);
         add(scroll, BorderLayout.CENTER);
 
-        refresh(); // Remplir la zone avec la mémoire actuelle du CPU
+        refresh(); // Remplir la vue avec la mémoire actuelle du CPU
     }
 
-    // Met à jour l'affichage de la mémoire
+    // Met à jour l'affichage de la mémoire (seuls les octets modifiés sont redessinés).
+    // Appelé sur le thread qui fait avancer ce CPU.
     public void refresh() {
-        StringBuilder sb = new StringBuilder();
-
-        // Afficher les 256 premiers octets en blocs de 8
-        for (int i = 0; i < 256; i += 8) {
-            sb.append(String.format("%04X : ", i)); // Adresse de début de ligne
-            for (int j = 0; j < 8; j++) {
-                sb.append(String.format("%02X ", cpu.readByte(i + j))); // Valeur hex de chaque octet
-            }
-            sb.append("\n"); // Nouvelle ligne
-        }
-
-        area.setText(sb.toString()); // Mettre à jour la zone de texte
+        view.refresh(cpu.snapshot(), dirty.poll());
     }
 }
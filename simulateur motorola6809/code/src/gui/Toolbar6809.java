@@ -7,6 +7,9 @@ import java.awt.*;
 // Barre d'outils spécifique pour le simulateur 6809
 public class Toolbar6809 extends JToolBar {
 
+    // Instructions exécutées au maximum par un clic sur RUN
+    private static final long RUN_BUDGET = 1_000_000L;
+
     // Constructeur qui prend le CPU et les panels pour actualiser l'affichage
     public Toolbar6809(CPU cpu,
                        RegisterPanel rp,
@@ -16,10 +19,20 @@ public class Toolbar6809 extends JToolBar {
         setFloatable(false); // Empêche la barre d'être détachable
 
         // Bouton "RUN" : exécute jusqu'au prochain breakpoint
-        add(btn("▶ RUN", "Run until breakpoint", cpu::step));
+        add(btn("▶ RUN", "Run until breakpoint", () -> {
+            cpu.run(RUN_BUDGET);
+            rp.refresh();
+            fp.refresh();
+            mp.refresh();
+        }));
 
         // Bouton "STEP" : exécute une seule instruction
-        add(btn("⏭ STEP", "Execute one instruction", cpu::step));
+        add(btn("⏭ STEP", "Execute one instruction", () -> {
+            cpu.step();
+            rp.refresh();
+            fp.refresh();
+            mp.refresh();
+        }));
 
         // Bouton "RESET" : réinitialise le CPU et rafraîchit les panels
         add(btn("⏹ RESET", "Reset CPU", () -> {